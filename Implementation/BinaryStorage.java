@@ -0,0 +1,197 @@
+package Implementation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link StorageBackend} that keeps each table in the {@link BinaryTable} record and dictionary
+ * files next to where its CSV file would be ({@code <csv>.bin} and {@code <csv>.dict}), the same
+ * files the binary mode of {@link DataManager} uses.
+ * <p>
+ * A record has one slot per column of the widest row, and every column is stored as an integer
+ * when its cell is a plain integer, so the game's numbers need no parsing of text. Changing a
+ * cell is a positional write to its record; adding or removing rows, or a cell that widens its
+ * row past the records, rewrites the files.
+ * <p>
+ * A table without binary files is imported from its CSV file, wherever {@link CsvStorage} would
+ * find it, the first time it is read, and imported again if that CSV file is replaced later. The
+ * CSV file itself is never written. A table that {@code DataManager} holds in binary mode is
+ * refused, so the two never write the same files at once.
+ */
+public final class BinaryStorage implements StorageBackend {
+    private static final Log LOG = Log.get(BinaryStorage.class);
+    /** Suffix of the record file, by which {@link #listTables()} finds the tables */
+    static final String SUFFIX = ".bin";
+    /** The open files of every table, shared by all instances so that a table has a single writer */
+    private static final Map<CachedTable, Store> STORES = new ConcurrentHashMap<>();
+
+    /** The open files of a table, the rows they hold and the state of the CSV file they belong to */
+    private static final class Store {
+        final BinaryTable binary;
+        final List<String[]> rows;
+        final long[] csvStamp;
+
+        Store(BinaryTable binary, List<String[]> rows, long[] csvStamp) {
+            this.binary = binary;
+            this.rows = rows;
+            this.csvStamp = csvStamp;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public List<String[]> readTable(String table) throws IOException {
+        CachedTable owner = ownerOf(table);
+        synchronized (owner) {
+            Store store = open(table, owner);
+            return store == null ? null : copy(store.rows);
+        }
+    }
+
+    @Override
+    public void writeTable(String table, List<String[]> rows) throws IOException {
+        CachedTable owner = ownerOf(table);
+        synchronized (owner) {
+            checkNotInBinaryMode(table, owner);
+            store(owner, copy(rows), true);
+        }
+    }
+
+    /**
+     * Applies a single change to a table, as a positional write to its record if only a cell
+     * changed and the row still fits the records.
+     */
+    @Override
+    public void applyMutation(String table, TableMutation mutation) throws IOException {
+        CachedTable owner = ownerOf(table);
+        synchronized (owner) {
+            Store store = open(table, owner);
+            if (store == null) {
+                throw new IOException("No such table: " + table);
+            }
+            mutation.applyTo(store.rows);
+            try {
+                String[] cells = mutation.getKind() == TableMutation.Kind.SET_CELL ? store.rows.get(mutation.getRow()) : null;
+                if (cells != null && cells.length <= store.binary.width) {
+                    store.binary.update(mutation.getRow(), new int[]{mutation.getColumn()}, cells, DataManager.getFsyncPolicy());
+                } else {
+                    store(owner, store.rows, true);
+                }
+            } catch (IOException e) {
+                // The rows no longer match the files, read them again next time
+                release(owner);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<String> listTables() throws IOException {
+        return CsvStorage.listFiles(SUFFIX).stream()
+                .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Closes the files of a table, e.g. because {@code DataManager} is about to use them in binary mode.
+     * Callers must hold the table lock.
+     *
+     * @param owner The table
+     */
+    static void release(CachedTable owner) {
+        Store store = STORES.remove(owner);
+        if (store != null) {
+            store.binary.close();
+        }
+    }
+
+    private static CachedTable ownerOf(String table) {
+        return CachedTable.forPath(DataPathManager.resolveDataPath(table));
+    }
+
+    private static void checkNotInBinaryMode(String table, CachedTable owner) throws IOException {
+        if (owner.binary != null) {
+            throw new IOException(table + " is in the binary mode of the csv storage");
+        }
+    }
+
+    /**
+     * Returns the open files of a table, loading them if they are not open or the CSV file was
+     * replaced, and importing the CSV file if they are missing or out of date.
+     *
+     * @return The files, or null if the table exists nowhere
+     */
+    private static Store open(String table, CachedTable owner) throws IOException {
+        checkNotInBinaryMode(table, owner);
+        long[] stamp = owner.readStamp();
+        Store store = STORES.get(owner);
+        if (store != null && Arrays.equals(stamp, store.csvStamp)) {
+            return store;
+        }
+        release(owner);
+        BinaryTable binary = BinaryTable.existing(owner.path);
+        List<String[]> rows = binary == null ? null : binary.load(stamp[0], stamp[1]);
+        if (rows != null) {
+            store = new Store(binary, rows, stamp);
+            STORES.put(owner, store);
+            return store;
+        }
+        rows = CsvStorage.readExisting(table);
+        if (rows == null) {
+            return null;
+        }
+        store = store(owner, rows, false);
+        LOG.info("Imported " + rows.size() + " rows of " + table + " into " + store.binary.path);
+        return store;
+    }
+
+    /**
+     * Replaces the files of a table with records wide enough for its widest row.
+     *
+     * @param rows The rows, kept by the store
+     * @param pending Whether the rows differ from the CSV file
+     * @return The new files
+     * @throws IOException if the files cannot be written or a row has too many cells for a record
+     */
+    private static Store store(CachedTable owner, List<String[]> rows, boolean pending) throws IOException {
+        int width = 1;
+        for (String[] row : rows) {
+            width = Math.max(width, row.length);
+        }
+        if (width > Integer.SIZE) {
+            throw new IOException("Rows with " + width + " cells do not fit a binary record of " + owner.path);
+        }
+        int[] columns = new int[width];
+        for (int column = 0; column < width; column++) {
+            columns[column] = column;
+        }
+        release(owner);
+        Files.createDirectories(owner.path.getParent());
+        BinaryTable binary = new BinaryTable(owner.path, width, columns);
+        long[] stamp = owner.readStamp();
+        binary.rebuild(rows, stamp[0], stamp[1], DataManager.getFsyncPolicy());
+        if (pending) {
+            binary.markPending();
+        }
+        Store store = new Store(binary, rows, stamp);
+        STORES.put(owner, store);
+        return store;
+    }
+
+    private static List<String[]> copy(List<String[]> rows) {
+        List<String[]> copy = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            copy.add(row.clone());
+        }
+        return copy;
+    }
+}
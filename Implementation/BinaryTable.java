@@ -0,0 +1,537 @@
+package Implementation;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A binary copy of one {@link CachedTable} made of fixed-size records, so that changing a cell
+ * is a positional write of a few bytes instead of a rewrite of the CSV file.
+ * <p>
+ * The record file ({@code <csv>.bin}) starts with a header holding the format version, the layout
+ * of the records, the number of records and the modification time and size of the CSV file it
+ * was last in sync with, and whether it holds changes that have not been exported to it yet, so
+ * changes made before a crash are still exported later. Each record holds the number of cells of its row, a mask of the integer
+ * columns whose cell is not a plain integer, and one 4-byte slot per column. Integer columns store
+ * their value in the slot; every other cell stores the ID of its text in the string dictionary
+ * ({@code <csv>.dict}), an append-only file of length-prefixed UTF-8 strings. Both files carry the
+ * same random generation number, so a pair that was not written together is never used.
+ * <p>
+ * The CSV file stays the exchange format. The binary files are only used while the CSV file has
+ * the modification time and size recorded in the header; once it is replaced, e.g. by resetting
+ * the game data or editing it by hand, the rows are imported from it again. Changes are exported
+ * to the CSV file when the table is flushed. All access must be synchronized on the owning table.
+ * <p>
+ * The same files back both the binary mode of {@link DataManager} and the {@link BinaryStorage}
+ * backend, which never use them at the same time.
+ */
+final class BinaryTable {
+    private static final Log LOG = Log.get(BinaryTable.class);
+    /** "BTBL" */
+    private static final int RECORD_MAGIC = 0x4254424C;
+    /** "BDCT" */
+    private static final int DICTIONARY_MAGIC = 0x42444354;
+    /** Version of the file layout, raised whenever it changes */
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final int DICTIONARY_HEADER_SIZE = 16;
+    /** Offset of the CSV modification time in the header */
+    private static final int CSV_STAMP_OFFSET = 24;
+    /** Offset of the flag that marks changes not yet exported to the CSV file */
+    private static final int PENDING_OFFSET = 44;
+    /** Bytes of a record before its slots: the cell count and the text mask */
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** The record file */
+    final Path path;
+    /** The string dictionary */
+    final Path dictionaryPath;
+    /** Number of columns of a record */
+    final int width;
+    /** Bit per column that holds integers */
+    private final int intColumns;
+    private final int recordSize;
+    /** Whether cells were changed since the CSV file was last written */
+    boolean exportPending;
+
+    private FileChannel records;
+    private FileChannel dictionary;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    /** Cell count and text mask of every record, as on disk */
+    private int[] cellCounts = new int[0];
+    private int[] textMasks = new int[0];
+
+    /**
+     * Creates the binary store of a CSV file.
+     *
+     * @param csvPath The CSV file
+     * @param width The number of columns of a record; rows with more cells cannot be stored
+     * @param intColumns The columns that hold integers
+     */
+    BinaryTable(Path csvPath, int width, int[] intColumns) {
+        this(csvPath, width, maskOf(intColumns));
+    }
+
+    private BinaryTable(Path csvPath, int width, int intColumns) {
+        if (width < 1 || width > Integer.SIZE) {
+            throw new IllegalArgumentException("Records must have 1 to " + Integer.SIZE + " columns: " + width);
+        }
+        this.path = csvPath.resolveSibling(csvPath.getFileName() + ".bin");
+        this.dictionaryPath = csvPath.resolveSibling(csvPath.getFileName() + ".dict");
+        this.width = width;
+        this.intColumns = intColumns;
+        this.recordSize = RECORD_HEADER_SIZE + width * Integer.BYTES;
+    }
+
+    /**
+     * Creates the binary store of a CSV file with the record layout found in its record file,
+     * for callers that do not choose the layout themselves.
+     *
+     * @param csvPath The CSV file
+     * @return The store, not loaded yet, or null if there is no record file of this version
+     */
+    static BinaryTable existing(Path csvPath) {
+        Path records = csvPath.resolveSibling(csvPath.getFileName() + ".bin");
+        ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES);
+        try (FileChannel channel = FileChannel.open(records, StandardOpenOption.READ)) {
+            readFully(channel, header, 0);
+        } catch (IOException e) {
+            return null;
+        }
+        header.flip();
+        if (header.getInt() != RECORD_MAGIC || header.getInt() != VERSION) {
+            return null;
+        }
+        int width = header.getInt();
+        int intColumns = header.getInt();
+        if (width < 1 || width > Integer.SIZE) {
+            return null;
+        }
+        return new BinaryTable(csvPath, width, intColumns);
+    }
+
+    private static int maskOf(int[] columns) {
+        int mask = 0;
+        for (int column : columns) {
+            mask |= 1 << column;
+        }
+        return mask;
+    }
+
+    /**
+     * Reads the rows from the binary files if they are in sync with the CSV file.
+     *
+     * @param csvModified The modification time of the CSV file in nanoseconds
+     * @param csvSize The size of the CSV file
+     * @return The rows, or null if the files are missing, damaged or belong to another version of the CSV file
+     */
+    List<String[]> load(long csvModified, long csvSize) {
+        close();
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            long generation;
+            int count;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < HEADER_SIZE) {
+                    return discard("record file is truncated");
+                }
+                readFully(channel, header, 0);
+                header.flip();
+                if (header.getInt() != RECORD_MAGIC || header.getInt() != VERSION
+                        || header.getInt() != width || header.getInt() != intColumns) {
+                    return discard("record layout has changed");
+                }
+                generation = header.getLong();
+                if (header.getLong() != csvModified || header.getLong() != csvSize) {
+                    return discard("CSV file has changed");
+                }
+                count = header.getInt();
+                exportPending = header.getInt() != 0;
+                if (channel.size() != HEADER_SIZE + (long) count * recordSize) {
+                    return discard("record count does not match the file size");
+                }
+            }
+            if (!readDictionary(generation)) {
+                return discard("dictionary does not match");
+            }
+            List<String[]> rows = readRecords(count);
+            if (rows == null) {
+                return discard("record refers to a missing string");
+            }
+            open();
+            return rows;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOG.warn("Failed to read " + path.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the binary files with the given rows, typically right after the CSV file was written.
+     *
+     * @param rows The rows, which must have at most {@code width} cells
+     * @param csvModified The modification time of the CSV file in nanoseconds
+     * @param csvSize The size of the CSV file
+     * @param policy How far the new files are forced to disk before they replace the old ones
+     * @throws IOException if the files cannot be written
+     * @throws IllegalArgumentException if a row does not fit a record
+     */
+    void rebuild(List<String[]> rows, long csvModified, long csvSize, FsyncPolicy policy) throws IOException {
+        for (String[] row : rows) {
+            if (row.length > width) {
+                throw new IllegalArgumentException("Row with " + row.length + " cells does not fit a record of " + width);
+            }
+        }
+        close();
+        strings.clear();
+        ids.clear();
+        long generation = ThreadLocalRandom.current().nextLong();
+        int count = rows.size();
+        cellCounts = new int[count];
+        textMasks = new int[count];
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * recordSize);
+        buffer.putInt(RECORD_MAGIC).putInt(VERSION).putInt(width).putInt(intColumns)
+                .putLong(generation).putLong(csvModified).putLong(csvSize).putInt(count).putInt(0);
+        for (int row = 0; row < count; row++) {
+            encode(rows.get(row), row, buffer);
+        }
+        buffer.flip();
+
+        ByteBuffer dictionaryBuffer = ByteBuffer.allocate(DICTIONARY_HEADER_SIZE);
+        dictionaryBuffer.putInt(DICTIONARY_MAGIC).putInt(VERSION).putLong(generation).flip();
+        List<ByteBuffer> entries = new ArrayList<>(strings.size() + 1);
+        entries.add(dictionaryBuffer);
+        for (String string : strings) {
+            entries.add(entry(string));
+        }
+
+        replace(dictionaryPath, entries, policy);
+        replace(path, List.of(buffer), policy);
+        open();
+        exportPending = false;
+    }
+
+    /**
+     * Writes changed cells of a row to its record. A change that only touches the slots is written
+     * as one positional write spanning the changed columns; a change of the cell count or of
+     * whether an integer column holds text rewrites the record.
+     *
+     * @param row The row index
+     * @param columns The changed columns
+     * @param cells The row's cells after the change
+     * @param policy Whether the write is forced to disk; only {@link FsyncPolicy#ALWAYS} forces each write
+     * @throws IOException if the record cannot be written
+     * @throws IllegalArgumentException if the row no longer fits a record
+     */
+    void update(int row, int[] columns, String[] cells, FsyncPolicy policy) throws IOException {
+        if (records == null) {
+            throw new IOException("Binary table " + path + " is not open");
+        }
+        if (cells.length > width) {
+            throw new IllegalArgumentException("Row with " + cells.length + " cells does not fit a record of " + width);
+        }
+        Objects.checkIndex(row, cellCounts.length);
+        int first = width;
+        int last = -1;
+        int mask = textMasks[row];
+        for (int column : columns) {
+            first = Math.min(first, column);
+            last = Math.max(last, column);
+            if (isInt(column)) {
+                mask = isText(column, cells[column]) ? mask | (1 << column) : mask & ~(1 << column);
+            }
+        }
+        ByteBuffer buffer;
+        long offset = HEADER_SIZE + (long) row * recordSize;
+        if (cells.length != cellCounts[row] || mask != textMasks[row]) {
+            buffer = ByteBuffer.allocate(recordSize);
+            encode(cells, row, buffer);
+        } else {
+            buffer = ByteBuffer.allocate((last - first + 1) * Integer.BYTES);
+            for (int column = first; column <= last; column++) {
+                buffer.putInt(slot(column, cells[column]));
+            }
+            offset += RECORD_HEADER_SIZE + first * Integer.BYTES;
+        }
+        buffer.flip();
+        writeFully(records, buffer, offset);
+        markPending();
+        if (policy == FsyncPolicy.ALWAYS) {
+            dictionary.force(false);
+            records.force(false);
+        }
+    }
+
+    /**
+     * Records that the records hold changes the CSV file does not have yet.
+     *
+     * @throws IOException if the header cannot be written
+     */
+    void markPending() throws IOException {
+        if (records == null) {
+            throw new IOException("Binary table " + path + " is not open");
+        }
+        if (!exportPending) {
+            writeFully(records, ByteBuffer.allocate(Integer.BYTES).putInt(0, 1), PENDING_OFFSET);
+            exportPending = true;
+        }
+    }
+
+    /**
+     * Records that the CSV file was written with the current rows, so the binary files stay in use.
+     *
+     * @param csvModified The modification time of the CSV file in nanoseconds
+     * @param csvSize The size of the CSV file
+     * @throws IOException if the header cannot be written
+     */
+    void exported(long csvModified, long csvSize) throws IOException {
+        if (records == null) {
+            throw new IOException("Binary table " + path + " is not open");
+        }
+        ByteBuffer stamp = ByteBuffer.allocate(2 * Long.BYTES);
+        stamp.putLong(csvModified).putLong(csvSize).flip();
+        writeFully(records, stamp, CSV_STAMP_OFFSET);
+        writeFully(records, ByteBuffer.allocate(Integer.BYTES), PENDING_OFFSET);
+        exportPending = false;
+    }
+
+    /**
+     * Closes the binary files, leaving them on disk.
+     */
+    void close() {
+        for (FileChannel channel : new FileChannel[]{records, dictionary}) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOG.warn("Failed to close " + path.getFileName() + ": " + e.getMessage());
+                }
+            }
+        }
+        records = null;
+        dictionary = null;
+    }
+
+    /**
+     * Closes and deletes the binary files.
+     */
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dictionaryPath);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete " + path.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        records = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        dictionary = FileChannel.open(dictionaryPath, StandardOpenOption.WRITE);
+    }
+
+    private List<String[]> discard(String reason) {
+        LOG.info("Importing " + path.getFileName() + " again: " + reason);
+        return null;
+    }
+
+    private boolean isInt(int column) {
+        return (intColumns & (1 << column)) != 0;
+    }
+
+    /** Returns whether a cell is stored in the dictionary rather than as an integer */
+    private boolean isText(int column, String cell) {
+        return !isInt(column) || !isPlainInt(cell);
+    }
+
+    /**
+     * Returns whether text is an integer that reads back the same, so "7" is but "07" and "+7" are not.
+     */
+    static boolean isPlainInt(String cell) {
+        if (cell.isEmpty() || cell.length() > 11) {
+            return false;
+        }
+        try {
+            return Integer.toString(Integer.parseInt(cell)).equals(cell);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Returns the slot value of a cell, adding its text to the dictionary if needed */
+    private int slot(int column, String cell) throws IOException {
+        if (!isText(column, cell)) {
+            return Integer.parseInt(cell);
+        }
+        Integer id = ids.get(cell);
+        if (id != null) {
+            return id;
+        }
+        if (dictionary != null) {
+            // Append before any record refers to it, so a crash never leaves a dangling ID
+            writeFully(dictionary, entry(cell), dictionary.size());
+        }
+        id = strings.size();
+        strings.add(cell);
+        ids.put(cell, id);
+        return id;
+    }
+
+    /** Appends the record of a row to a buffer and remembers its cell count and text mask */
+    private void encode(String[] cells, int row, ByteBuffer buffer) throws IOException {
+        int mask = 0;
+        for (int column = 0; column < cells.length; column++) {
+            if (isInt(column) && isText(column, cells[column])) {
+                mask |= 1 << column;
+            }
+        }
+        buffer.putInt(cells.length).putInt(mask);
+        for (int column = 0; column < width; column++) {
+            buffer.putInt(column < cells.length ? slot(column, cells[column]) : 0);
+        }
+        cellCounts[row] = cells.length;
+        textMasks[row] = mask;
+    }
+
+    private static ByteBuffer entry(String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+        entry.putInt(bytes.length).put(bytes).flip();
+        return entry;
+    }
+
+    /**
+     * Reads the dictionary, dropping an entry torn by a crash mid-append.
+     *
+     * @return false if the dictionary belongs to another generation of the record file
+     */
+    private boolean readDictionary(long generation) throws IOException {
+        strings.clear();
+        ids.clear();
+        byte[] contents = Files.readAllBytes(dictionaryPath);
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+        if (contents.length < DICTIONARY_HEADER_SIZE || buffer.getInt() != DICTIONARY_MAGIC
+                || buffer.getInt() != VERSION || buffer.getLong() != generation) {
+            return false;
+        }
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(buffer.position() - Integer.BYTES);
+                break;
+            }
+            String string = new String(contents, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            ids.putIfAbsent(string, strings.size());
+            strings.add(string);
+        }
+        if (buffer.hasRemaining()) {
+            LOG.warn("Dictionary " + dictionaryPath.getFileName() + " ends with a damaged entry");
+            try (FileChannel channel = FileChannel.open(dictionaryPath, StandardOpenOption.WRITE)) {
+                channel.truncate(buffer.position());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes every record.
+     *
+     * @return The rows, or null if a record is damaged
+     */
+    private List<String[]> readRecords(int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * recordSize);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readFully(channel, buffer, HEADER_SIZE);
+        }
+        buffer.flip();
+        cellCounts = new int[count];
+        textMasks = new int[count];
+        List<String[]> rows = new ArrayList<>(count);
+        for (int row = 0; row < count; row++) {
+            int cellCount = buffer.getInt();
+            int mask = buffer.getInt();
+            if (cellCount < 0 || cellCount > width) {
+                return null;
+            }
+            String[] cells = new String[cellCount];
+            for (int column = 0; column < width; column++) {
+                int slot = buffer.getInt();
+                if (column >= cellCount) {
+                    continue;
+                }
+                if (isInt(column) && (mask & (1 << column)) == 0) {
+                    cells[column] = Integer.toString(slot);
+                } else if (slot >= 0 && slot < strings.size()) {
+                    cells[column] = strings.get(slot);
+                } else {
+                    return null;
+                }
+            }
+            cellCounts[row] = cellCount;
+            textMasks[row] = mask;
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    /**
+     * Writes buffers to a temporary sibling file and renames it over the target.
+     */
+    static void replace(Path target, List<ByteBuffer> buffers, FsyncPolicy policy) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            for (ByteBuffer buffer : buffers) {
+                int length = buffer.remaining();
+                writeFully(channel, buffer, position);
+                position += length;
+            }
+            if (policy != FsyncPolicy.NONE) {
+                channel.force(policy == FsyncPolicy.ALWAYS);
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of file");
+            }
+            offset += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package Implementation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The parsed contents of a single CSV file, shared by every {@code DataManager}
+ * that points at the same resolved path.
+ * The table remembers the modification time and size of the file it was loaded from,
+ * so a change made by another process (or by hand) is picked up on the next access.
+ * All access must be synchronized on the table instance.
+ */
+final class CachedTable {
+    /** Every table loaded so far, keyed by absolute resolved path */
+    private static final Map<String, CachedTable> TABLES = new ConcurrentHashMap<>();
+
+    /** The absolute path of the backing file */
+    final Path path;
+    /** Read, write and lookup metrics of the file */
+    final TableMetrics metrics;
+    /** The parsed rows, or null if the table has not been loaded yet */
+    List<String[]> rows;
+    /** Modification time of the file when it was last read or written, in nanoseconds */
+    private long stampTime = Long.MIN_VALUE;
+    /** Size of the file when it was last read or written */
+    private long stampSize = Long.MIN_VALUE;
+    /** Key indexes over the rows, created on first use */
+    private final Map<IndexSpec, RowIndex> indexes = new HashMap<>();
+    /** Typed views of the rows, created on first use and dropped when rows are added, removed or reloaded */
+    private final Map<Class<?>, TableView> views = new HashMap<>();
+    /** Whether cell edits are buffered and written by a later flush */
+    boolean writeBehind;
+    /** Whether a timed flush is already scheduled for the buffered edits */
+    boolean flushScheduled;
+    /** The mutation log of the file, or null if changes rewrite the file directly */
+    TableLog log;
+    /** The binary record store of the file, or null if the CSV file is the only copy */
+    BinaryTable binary;
+    /** Rows edited since the file was last written */
+    private final Set<Integer> dirtyRows = new HashSet<>();
+
+    private CachedTable(Path path) {
+        this.path = path;
+        this.metrics = new TableMetrics(path);
+    }
+
+    /**
+     * Returns the shared table for the given resolved file path.
+     *
+     * @param resolvedPath The resolved path of the CSV file
+     * @return The table shared by all managers of that file
+     */
+    static CachedTable forPath(String resolvedPath) {
+        Path absolute = Paths.get(resolvedPath).toAbsolutePath().normalize();
+        return TABLES.computeIfAbsent(absolute.toString(), key -> new CachedTable(absolute));
+    }
+
+    /**
+     * Returns every table created so far.
+     *
+     * @return A live view of the tables
+     */
+    static Collection<CachedTable> all() {
+        return TABLES.values();
+    }
+
+    /**
+     * Checks whether the rows need to be (re)loaded from disk.
+     *
+     * @return true if the table was never loaded or the file changed since it was stamped
+     */
+    boolean isStale() {
+        if (rows == null) {
+            return true;
+        }
+        if (isDirty()) {
+            // Buffered edits take precedence over the file until they are flushed
+            return false;
+        }
+        long[] current = readStamp();
+        return current[0] != stampTime || current[1] != stampSize;
+    }
+
+    /**
+     * Replaces the cached rows and records the current state of the file.
+     *
+     * @param newRows The rows now held by the file
+     */
+    void load(List<String[]> newRows) {
+        rows = newRows;
+        stamp();
+        invalidateDerived();
+    }
+
+    /**
+     * Records the current modification time and size of the file,
+     * typically right after this process wrote it. All buffered edits
+     * are considered written.
+     */
+    void stamp() {
+        long[] current = readStamp();
+        stampTime = current[0];
+        stampSize = current[1];
+        dirtyRows.clear();
+    }
+
+    /**
+     * Records a row whose edits have not been written to the file yet.
+     *
+     * @param row The edited row
+     */
+    void markDirty(int row) {
+        dirtyRows.add(row);
+    }
+
+    /**
+     * Returns whether the table holds edits that have not been written to the file.
+     *
+     * @return true if at least one row is dirty
+     */
+    boolean isDirty() {
+        return !dirtyRows.isEmpty();
+    }
+
+    /**
+     * Returns the number of rows with unwritten edits.
+     *
+     * @return The number of dirty rows
+     */
+    int dirtyCount() {
+        return dirtyRows.size();
+    }
+
+    /**
+     * Drops the cached rows so the next access reloads the file.
+     */
+    void invalidate() {
+        rows = null;
+        stampTime = Long.MIN_VALUE;
+        stampSize = Long.MIN_VALUE;
+        dirtyRows.clear();
+        invalidateDerived();
+    }
+
+    /**
+     * Returns an up-to-date index over the loaded rows, building it if necessary.
+     *
+     * @param spec The key columns and duplicate policy of the index
+     * @return The index
+     */
+    RowIndex index(IndexSpec spec) {
+        RowIndex index = indexes.computeIfAbsent(spec, RowIndex::new);
+        if (!index.isValid()) {
+            index.rebuild(rows);
+            metrics.scans.increment();
+            metrics.scannedRows.add(rows.size());
+        }
+        return index;
+    }
+
+    /**
+     * Returns an up-to-date typed view of the loaded rows, building it if necessary.
+     *
+     * @param type The class of the view
+     * @param factory Creates an empty view of that class
+     * @return The view
+     */
+    <V extends TableView> V view(Class<V> type, Supplier<V> factory) {
+        TableView view = views.get(type);
+        if (view == null) {
+            view = factory.get();
+            view.rebuild(rows);
+            views.put(type, view);
+        }
+        return type.cast(view);
+    }
+
+    /**
+     * Updates the indexes and views after a row was appended.
+     *
+     * @param row The new row
+     * @param offset The offset it was appended at
+     */
+    void rowAdded(String[] row, int offset) {
+        for (RowIndex index : indexes.values()) {
+            index.rowAdded(row, offset);
+        }
+        views.clear();
+    }
+
+    /**
+     * Updates the indexes and views after a row was removed, which shifts the offsets of later rows.
+     */
+    void rowRemoved() {
+        invalidateDerived();
+    }
+
+    /**
+     * Updates the indexes and views after a single cell changed.
+     *
+     * @param row The row of the changed cell
+     * @param column The column of the changed cell
+     * @param cells The row's cells after the change
+     */
+    void cellChanged(int row, int column, String[] cells) {
+        for (RowIndex index : indexes.values()) {
+            index.cellChanged(column);
+        }
+        for (TableView view : views.values()) {
+            view.cellChanged(row, column, cells);
+        }
+    }
+
+    private void invalidateDerived() {
+        for (RowIndex index : indexes.values()) {
+            index.invalidate();
+        }
+        views.clear();
+    }
+
+    /**
+     * Reads the modification time and size of the file.
+     *
+     * @return A two element array of {modified nanos, size}, or {-1, -1} if the file does not exist
+     */
+    long[] readStamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new long[]{attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), attributes.size()};
+        } catch (NoSuchFileException e) {
+            return new long[]{-1, -1};
+        } catch (IOException e) {
+            // Unknown state, force a reload on the next access
+            return new long[]{Long.MAX_VALUE, Long.MAX_VALUE};
+        }
+    }
+}
@@ -5,12 +5,15 @@ package Implementation;
  * and managing parental controls. Each command returns a string message indicating the result of the operation.
  */
 public class Commands {
+    private static final Log LOG = Log.get(Commands.class);
     private Players players;
     private VirtualPets virtualPets;
     private Inventory inventory;
     private Store store;
     private GameProgress gameProgress;
     private ParentalControls parentalControls;
+    /** The tracker whose cached limits are refreshed when they change, or null for the shared one */
+    private PlaytimeTracker playtimeTracker;
 
     /**
      * Constructs a {@code Commands} object to initialize necessary services for command execution.
@@ -24,6 +27,25 @@ public class Commands {
      */
     public Commands(Players players, VirtualPets virtualPets, Inventory inventory, 
                     Store store, GameProgress gameProgress, ParentalControls parentalControls) {
+        this(players, virtualPets, inventory, store, gameProgress, parentalControls, null);
+    }
+
+    /**
+     * Constructs a {@code Commands} object that refreshes the limits cached by a given playtime tracker,
+     * e.g. a standalone tracker in tests, instead of the shared one.
+     *
+     * @param players The {@code Players} object to manage player-related actions.
+     * @param virtualPets The {@code VirtualPets} object to manage pet-related actions.
+     * @param inventory The {@code Inventory} object to manage the player's inventory.
+     * @param store The {@code Store} object to manage store inventory and prices.
+     * @param gameProgress The {@code GameProgress} object to manage player progress.
+     * @param parentalControls The {@code ParentalControls} object to manage parental settings.
+     * @param playtimeTracker The tracker enforcing the limits, or null for {@link PlaytimeTracker#getInstance()}.
+     */
+    public Commands(Players players, VirtualPets virtualPets, Inventory inventory,
+                    Store store, GameProgress gameProgress, ParentalControls parentalControls,
+                    PlaytimeTracker playtimeTracker) {
+        this.playtimeTracker = playtimeTracker;
         this.players = players;
         this.virtualPets = virtualPets;
         this.inventory = inventory;
@@ -83,6 +105,7 @@ public class Commands {
      */
     public void setPlaytimeLimit(String playerId, int minutes) {
         parentalControls.setMaxAllowedPlaytimeMinutes(playerId, minutes);
+        playtimeTracker().invalidatePolicy(playerId);
     }
 
     /**
@@ -94,6 +117,7 @@ public class Commands {
      */
     public boolean enableParentalControls(String playerId, boolean isEnabled) {
         parentalControls.setPlaytimeLimitEnabled(playerId, isEnabled);
+        playtimeTracker().invalidatePolicy(playerId);
         return isEnabled;
     }
     
@@ -114,7 +138,7 @@ public class Commands {
                 scanner.close();
                 return storedPassword.equals(password);
             } catch (Exception e) {
-                System.err.println("Error reading password file: " + e.getMessage());
+                LOG.warn("Error reading password file: " + e.getMessage());
                 // Fall back to default password if there's an error
                 return "parent1234".equals(password);
             }
@@ -142,9 +166,17 @@ public class Commands {
         
         String timeRange = String.format("%02d:%02d-%02d:%02d", startHour, startMinute, endHour, endMinute);
         parentalControls.setMaxAllowedPlaytimeMinutes(playerId, calculateMinutes(startHour, startMinute, endHour, endMinute));
+        playtimeTracker().invalidatePolicy(playerId);
         return "Maximum playtime set successfully.";
     }
 
+    /**
+     * Helper method to get the tracker whose cached limits must be refreshed after a change
+     */
+    private PlaytimeTracker playtimeTracker() {
+        return playtimeTracker != null ? playtimeTracker : PlaytimeTracker.getInstance();
+    }
+
     /**
      * Helper method to calculate total minutes between two time points
      */
@@ -228,8 +260,7 @@ public class Commands {
             // Verify the changes were saved
             int verifiedPlaytime = parentalControls.getPlaytimeMinutes(playerId);
         } catch (Exception e) {
-            System.err.println("Error in updatePlayTimeStatistics: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error in updatePlayTimeStatistics: " + e.getMessage(), e);
         }
     }
     
@@ -243,6 +274,7 @@ public class Commands {
         parentalControls.setPlaytimeMinutes(playerId, 0);
         parentalControls.setAveragePlaytimeMinutes(playerId, 0);
         parentalControls.setSessionCount(playerId, 0);
+        playtimeTracker().invalidatePolicy(playerId);
         return "Play time statistics reset successfully.";
     }
     
@@ -285,6 +317,7 @@ public class Commands {
         }
         
         parentalControls.setMaxAllowedPlaytimeMinutes(playerId, minutes);
+        playtimeTracker().invalidatePolicy(playerId);
         return "Maximum playtime limit set successfully.";
     }
 }
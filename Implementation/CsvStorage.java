@@ -0,0 +1,290 @@
+package Implementation;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The {@link StorageBackend} of CSV files, one line per row and cells separated by commas.
+ * <p>
+ * A table is read from its path in the data directory ({@code app.data.dir}) if it exists there,
+ * then from the resource bundled with the game, then from its original path. A table found
+ * outside the data directory is copied into it, and a table found nowhere is created with a
+ * placeholder header. Tables are always written to the data directory, to a temporary file that
+ * is forced to disk according to the {@link FsyncPolicy} and then renamed over the table.
+ * <p>
+ * This is the default backend, and the only one that supports the file-level features of
+ * {@link DataManager}: change detection, the mutation log, the binary pet store, the memory-mapped
+ * reader and streaming scans.
+ */
+public final class CsvStorage implements StorageBackend {
+    private static final Log LOG = Log.get(CsvStorage.class);
+    /** Suffix of the temporary file a table is written to before it replaces the original */
+    static final String TEMP_SUFFIX = ".tmp";
+    /** How deep {@link #listTables()} looks below the data directory */
+    private static final int LIST_DEPTH = 3;
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public List<String[]> readTable(String table) {
+        String resolvedPath = DataPathManager.resolveDataPath(table);
+        TableMetrics metrics = CachedTable.forPath(resolvedPath).metrics;
+        List<String[]> data = new ArrayList<>();
+
+        // First try to read from the resolved path (external data directory)
+        if (!resolvedPath.equals(table)) {
+            try {
+                parseFile(Paths.get(resolvedPath), data, metrics);
+                LOG.debug(() -> "Successfully read from resolved path: " + resolvedPath);
+                return data;
+            } catch (IOException e) {
+                LOG.debug(() -> "Failed to read from resolved path, trying alternative methods: " + e.getMessage());
+                // Fall through to try alternative methods
+            }
+        }
+
+        // Then attempt to use ResourceLoader to get the stream, or the file behind it for the mapped reader
+        Path resourceFile = DataManager.isMappedReader() ? ResourceLoader.getResourceFile(table) : null;
+        try (InputStream is = resourceFile == null ? ResourceLoader.getResourceAsStream(table) : null;
+             BufferedReader br = (is != null) ? new BufferedReader(new InputStreamReader(is)) : null) {
+
+             if (br != null || resourceFile != null) {
+                 data.clear();
+                 if (resourceFile != null) {
+                     parseFile(resourceFile, data, metrics);
+                 } else {
+                     parseLines(br, data, metrics);
+                 }
+                 // If we read from ResourceLoader but should be writing to a data directory,
+                 // immediately save to the resolved path for future use
+                 if (!resolvedPath.equals(table)) {
+                     writeTable(table, data);
+                 }
+                 LOG.debug(() -> "Successfully read from ResourceLoader: " + table);
+                 return data;
+             }
+        } catch (Exception e) {
+            LOG.debug(() -> "Failed to read CSV via ResourceLoader: " + e.getMessage());
+            // Fall back to direct file access if ResourceLoader fails
+        }
+
+        // Fall back to the original direct file access method
+        try {
+            data.clear();
+            parseFile(Paths.get(table), data, metrics);
+            LOG.debug(() -> "Successfully read from original path: " + table);
+        } catch (IOException e) {
+            LOG.warn("Failed to read from original path: " + e.getMessage());
+
+            // If everything fails, try to create a default file structure
+            try {
+                File file = new File(resolvedPath);
+                file.getParentFile().mkdirs();
+                try (FileWriter writer = new FileWriter(file)) {
+                    writer.write("id,name,value\n");
+                }
+                data.add(new String[]{"id", "name", "value"});
+                LOG.info("Created default file at: " + resolvedPath);
+            } catch (Exception ex) {
+                LOG.error("Failed to create default file: " + ex.getMessage());
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public void writeTable(String table, List<String[]> rows) throws IOException {
+        String resolvedPath = DataPathManager.resolveDataPath(table);
+        write(Paths.get(resolvedPath).toAbsolutePath(), rows, DataManager.getFsyncPolicy(),
+                CachedTable.forPath(resolvedPath).metrics);
+    }
+
+    @Override
+    public List<String> listTables() throws IOException {
+        return listFiles(".csv");
+    }
+
+    /**
+     * Reads a table from the same places as {@link #readTable(String)}, without copying it into
+     * the data directory or creating it.
+     *
+     * @param table The name of the table
+     * @return The rows, or null if the table exists nowhere
+     */
+    static List<String[]> readExisting(String table) {
+        String resolvedPath = DataPathManager.resolveDataPath(table);
+        TableMetrics metrics = CachedTable.forPath(resolvedPath).metrics;
+        List<String[]> data = new ArrayList<>();
+        try {
+            parseFile(Paths.get(resolvedPath), data, metrics);
+            return data;
+        } catch (IOException e) {
+            data.clear();
+        }
+        try (InputStream is = ResourceLoader.getResourceAsStream(table)) {
+            if (is != null) {
+                parseLines(new BufferedReader(new InputStreamReader(is)), data, metrics);
+                return data;
+            }
+        } catch (IOException e) {
+            data.clear();
+        }
+        try {
+            parseFile(Paths.get(table), data, metrics);
+            return data;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces a file with rows, through a temporary sibling file that is renamed over it.
+     *
+     * @param target The file
+     * @param data The rows to write
+     * @param policy How far the file is forced to disk
+     * @param metrics Receives the characters written
+     * @return The CRC-32 checksum of the written bytes
+     * @throws IOException if the file cannot be written; the temporary file is deleted
+     */
+    static long write(Path target, List<String[]> data, FsyncPolicy policy, TableMetrics metrics) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(target.getParent());
+
+            // Write to the temporary file
+            CRC32 crc = new CRC32();
+            try (FileOutputStream out = new FileOutputStream(temp.toFile());
+                 BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                         new CheckedOutputStream(out, crc), Charset.defaultCharset()))) {
+                long chars = 0;
+                for (String[] row : data) {
+                    String line = String.join(",", row);
+                    bw.write(line);
+                    bw.newLine();
+                    chars += line.length() + 1;
+                }
+                bw.flush();
+                metrics.writtenChars.add(chars);
+                if (policy != FsyncPolicy.NONE) {
+                    out.getChannel().force(policy == FsyncPolicy.ALWAYS);
+                }
+            }
+
+            // Replace the original in a single step
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (policy == FsyncPolicy.ALWAYS) {
+                forceDirectory(target.getParent());
+            }
+            return crc.getValue();
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException cleanup) {
+                LOG.warn("Failed to delete temporary file: " + cleanup.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lists the files with a suffix below the data directory, or below the working directory
+     * if there is none, as table names relative to it.
+     *
+     * @param suffix The file name suffix, e.g. {@code ".csv"}
+     * @return The table names, with forward slashes
+     * @throws IOException if a directory cannot be listed
+     */
+    static List<String> listFiles(String suffix) throws IOException {
+        String dataDir = DataPathManager.getDataDir();
+        Path base = Paths.get(dataDir != null ? dataDir : ".").toAbsolutePath().normalize();
+        if (!Files.isDirectory(base)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(base, LIST_DEPTH)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix) && Files.isRegularFile(file))
+                    .map(file -> base.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Parses every line of a reader into the rows, counting the characters read.
+     *
+     * @param br The reader
+     * @param data The rows to add to
+     * @param metrics Receives the characters read
+     * @throws IOException if the reader fails
+     */
+    private static void parseLines(BufferedReader br, List<String[]> data, TableMetrics metrics) throws IOException {
+        long chars = 0;
+        String line;
+        while ((line = br.readLine()) != null) {
+            data.add(line.split(","));
+            chars += line.length() + 1;
+        }
+        metrics.readChars.add(chars);
+    }
+
+    /**
+     * Parses a file on disk, with the mapped reader if it is enabled and supports the platform charset.
+     *
+     * @param file The file
+     * @param data The rows to add to
+     * @param metrics Receives the characters read
+     * @throws IOException if the file cannot be read
+     */
+    private static void parseFile(Path file, List<String[]> data, TableMetrics metrics) throws IOException {
+        if (DataManager.isMappedReader() && MappedCsv.supports(Charset.defaultCharset())) {
+            MappedCsv csv = MappedCsv.open(file);
+            data.addAll(csv.readAll());
+            metrics.readChars.add(csv.getLineBytes());
+            return;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(file.toFile()))) {
+            parseLines(br, data, metrics);
+        }
+    }
+
+    /**
+     * Forces a directory entry to disk so that a rename inside it survives a crash.
+     * Not every platform allows opening a directory, in which case this does nothing.
+     *
+     * @param directory The directory to force
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on some platforms (e.g. Windows)
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package Implementation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Reads the last rows of a CSV file by scanning it backwards from the end, a chunk at a time,
+ * so the cost depends on how many rows are wanted rather than on the size of the file.
+ * <p>
+ * Lines are split where {@code BufferedReader.readLine()} would split them ({@code \n},
+ * {@code \r\n} or {@code \r}, with no empty line after a final line break) and each line is
+ * split on commas like {@code line.split(",")}. Line breaks are found by byte, so the charset
+ * must be one that {@link MappedCsv#supports(Charset)}.
+ */
+final class CsvTail {
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    /** Bytes read from the file at a time while looking for line breaks */
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+    /** File offset of the first byte in the chunk */
+    private long chunkStart;
+    /** Bytes read, counting line breaks, for the table's metrics */
+    private long bytesRead;
+    /** Lines decoded */
+    private int linesRead;
+
+    private CsvTail(FileChannel channel, Charset charset, long size) {
+        this.channel = channel;
+        this.charset = charset;
+        this.chunkStart = size;
+        chunk.limit(0);
+    }
+
+    /**
+     * Returns the last rows of a file that pass a filter.
+     *
+     * @param file The CSV file
+     * @param charset The charset of the file
+     * @param count The number of rows wanted
+     * @param filter Decides which rows count, e.g. only complete ones
+     * @param metrics Receives the characters and rows read
+     * @return Up to {@code count} rows in file order
+     * @throws IOException if the file cannot be read
+     */
+    static List<String[]> readLast(Path file, Charset charset, int count, Predicate<String[]> filter,
+                                   TableMetrics metrics) throws IOException {
+        Deque<String[]> found = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CsvTail tail = new CsvTail(channel, charset, size);
+            try {
+                if (size > 0 && count > 0) {
+                    tail.scan(size, count, filter, found);
+                }
+            } finally {
+                metrics.readChars.add(tail.bytesRead);
+                metrics.scannedRows.add(tail.linesRead);
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    private void scan(long size, int count, Predicate<String[]> filter, Deque<String[]> found) throws IOException {
+        // The line break that ends the file does not start another line
+        long end = size;
+        byte last = byteAt(size - 1);
+        if (last == LF) {
+            end = size - 1;
+            if (end > 0 && byteAt(end - 1) == CR) {
+                end--;
+            }
+        } else if (last == CR) {
+            end = size - 1;
+        }
+        for (long position = end - 1; ; position--) {
+            byte b = position >= 0 ? byteAt(position) : 0;
+            if (position >= 0 && b != LF && b != CR) {
+                continue;
+            }
+            String[] row = decode(position + 1, end).split(",");
+            linesRead++;
+            if (filter.test(row)) {
+                found.addFirst(row);
+                if (found.size() == count) {
+                    return;
+                }
+            }
+            if (position < 0) {
+                return;
+            }
+            end = position;
+            if (b == LF && position > 0 && byteAt(position - 1) == CR) {
+                // Both halves of a CRLF belong to the same line break
+                end = --position;
+            }
+        }
+    }
+
+    /** Returns the byte at an offset, reading the chunk that ends there if it is not loaded */
+    private byte byteAt(long position) throws IOException {
+        if (position < chunkStart) {
+            chunkStart = Math.max(0, position + 1 - CHUNK_SIZE);
+            chunk.clear().limit((int) (position + 1 - chunkStart));
+            readFully(chunk, chunkStart);
+            chunk.flip();
+        }
+        return chunk.get((int) (position - chunkStart));
+    }
+
+    private String decode(long start, long end) throws IOException {
+        int length = (int) (end - start);
+        bytesRead += length + 1;
+        if (length == 0) {
+            return "";
+        }
+        ByteBuffer line = ByteBuffer.allocate(length);
+        readFully(line, start);
+        return new String(line.array(), 0, length, charset);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("File shrank while reading its tail");
+            }
+            offset += read;
+        }
+    }
+}
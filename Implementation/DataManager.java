@@ -1,15 +1,113 @@
 package Implementation;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 
 /**
  * A base class for managing data operations on CSV files.
  * This class provides basic functionality for reading and writing CSV data,
  * as well as accessing and modifying specific data points within the CSV structure.
+ * <p>
+ * The rows are stored by a {@link StorageBackend}, chosen with the {@code app.data.backend} property
+ * or {@link #setStorageBackend(StorageBackend)}. The default backend keeps them in the CSV files;
+ * the others keep them in memory or in the files of binary mode and are handed each change as a
+ * {@link TableMutation}. Everything below that mentions files, such as change detection, log mode,
+ * binary mode, the mapped reader and streaming scans, applies to the CSV backend only; with the
+ * others the rows are served from memory and the backend is assumed to be their only writer.
+ * <p>
+ * By default the parsed rows are cached in memory and shared by every manager of the same file.
+ * Reads are served from the cache, writes go to the cache and through to the file, and the file
+ * is only parsed again when its modification time or size changes. Caching can be switched off
+ * with the {@code app.data.cache} system property or {@link #setCacheEnabled(boolean)}.
+ * <p>
+ * A file can also be switched to write-behind mode with {@link #setWriteBehind(boolean)}.
+ * Cell edits made through {@link #setData(int, int, String)} are then kept in memory and
+ * coalesced into a single write of the file, which happens after the flush interval
+ * ({@code app.data.flushInterval}, in milliseconds), as soon as the number of dirty rows
+ * reaches the threshold ({@code app.data.flushThreshold}), or on an explicit
+ * {@link #flush()} or {@link #flushAll()}. Adding or removing rows always writes immediately.
+ * <p>
+ * Every write goes to a temporary file next to the target, which is then renamed over it,
+ * so a crash mid-write leaves the previous contents intact. How much is forced to disk before
+ * the rename is set by the {@code app.data.fsync} property or {@link #setFsyncPolicy(FsyncPolicy)}.
+ * <p>
+ * In log mode ({@code app.data.log} or {@link #setLogMode(boolean)}) changes are not written to
+ * the CSV file at all but appended to a log file next to it, making every change a small append
+ * regardless of the size of the table. The log is replayed on top of the CSV file whenever the
+ * file is loaded, and folded into it by a background compaction once it grows past
+ * {@code app.data.compactBytes} bytes.
+ * <p>
+ * Every operation also has an {@code Async} variant that runs it on the {@link PersistenceExecutor}
+ * thread and returns a {@link CompletableFuture}, for callers such as the GUI that must not block
+ * on the disk. Asynchronous operations run in the order they were submitted.
+ * <p>
+ * In binary mode the rows are also kept in a {@link BinaryTable} of fixed-size records next to the
+ * CSV file, which is what the table is loaded from. A cell edit is then a positional write of a few
+ * bytes to its record, and the CSV file is only brought up to date by {@link #flush()}, including
+ * the flush at exit, or when rows are added or removed. Replacing the CSV file, e.g. by resetting
+ * the game data or editing it by hand, makes the table import it again.
+ * <p>
+ * Files are parsed with a {@code BufferedReader} by default, or through a memory mapping with
+ * {@link MappedCsv} if the {@code app.data.reader} property is {@code mapped} or
+ * {@link #setMappedReader(boolean)} is called.
+ * <p>
+ * Callers that search the rows or only need some of them should use {@link #forEachRow(RowVisitor)},
+ * which streams the file instead of loading all of it when it is not already cached, or
+ * {@link #readLastRows(int, Predicate)}, which reads the most recent rows from the end of the file.
+ * <p>
+ * Reads, writes and key lookups of every file are timed and counted in the {@link Metrics} registry
+ * under {@code data.<file name>}.
  */
 public class DataManager {
+    private static final Log LOG = Log.get(DataManager.class);
+    private static final String CACHE_PROPERTY = "app.data.cache";
+    private static final String FLUSH_INTERVAL_PROPERTY = "app.data.flushInterval";
+    private static final String FLUSH_THRESHOLD_PROPERTY = "app.data.flushThreshold";
+    private static final String FSYNC_PROPERTY = "app.data.fsync";
+    private static final String LOG_PROPERTY = "app.data.log";
+    private static final String COMPACT_PROPERTY = "app.data.compactBytes";
+    private static final String READER_PROPERTY = "app.data.reader";
+    /** Suffix of the mutation log kept next to a CSV file in log mode */
+    private static final String LOG_SUFFIX = ".log";
+
+    /** Delay between the first buffered edit and the write that flushes it, in milliseconds */
+    private static volatile long flushIntervalMillis = Long.getLong(FLUSH_INTERVAL_PROPERTY, 2000L);
+    /** Number of dirty rows that triggers an immediate flush */
+    private static volatile int flushThreshold = Integer.getInteger(FLUSH_THRESHOLD_PROPERTY, 16);
+    /** How far written files are forced to disk */
+    private static volatile FsyncPolicy fsyncPolicy =
+            FsyncPolicy.parse(System.getProperty(FSYNC_PROPERTY), FsyncPolicy.ON_CLOSE);
+    /** Log size in bytes that triggers a background compaction */
+    private static volatile long compactThresholdBytes = Long.getLong(COMPACT_PROPERTY, 64 * 1024L);
+    /** Whether files on disk are parsed through a memory mapping instead of a reader */
+    private static volatile boolean mappedReader = "mapped".equalsIgnoreCase(System.getProperty(READER_PROPERTY));
+    /** Where the rows of every table are stored */
+    private static volatile StorageBackend backend = StorageBackend.named(DataPathManager.getBackendName());
+    /** Managers that buffered edits since their last flush */
+    private static final Set<DataManager> PENDING = ConcurrentHashMap.newKeySet();
+    static {
+        Metrics.gauge("data.pendingFlushes", PENDING::size);
+    }
+    /** Runs timed flushes and compactions, created on first use */
+    private static ScheduledExecutorService background;
+
     protected String filePath;
     protected String resolvedPath;
+    /** The in-memory rows shared with other managers of the same file */
+    private final CachedTable table;
+    /** Whether reads are served from the cached rows */
+    private boolean cacheEnabled;
 
     /**
      * Constructs a DataManager with the given file path.
@@ -19,81 +117,695 @@ public class DataManager {
     public DataManager(String filePath) {
         this.filePath = filePath;
         this.resolvedPath = DataPathManager.resolveDataPath(filePath);
-        System.out.println("DataManager initialized with path: " + filePath);
-        System.out.println("Resolved to: " + resolvedPath);
+        this.table = CachedTable.forPath(resolvedPath);
+        this.cacheEnabled = Boolean.parseBoolean(System.getProperty(CACHE_PROPERTY, "true"));
+        LOG.debug(() -> "DataManager initialized with path: " + filePath + ", resolved to: " + resolvedPath);
+        if (Boolean.getBoolean(LOG_PROPERTY) && usesCsvFiles()) {
+            setLogMode(true);
+        }
+    }
+
+    /**
+     * Returns whether rows are served from the in-memory cache.
+     *
+     * @return true if caching is enabled for this manager
+     */
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    /**
+     * Enables or disables the in-memory row cache for this manager.
+     * When disabled, every access parses the file again.
+     *
+     * @param enabled Whether to serve rows from the cache
+     */
+    public void setCacheEnabled(boolean enabled) {
+        this.cacheEnabled = enabled;
+    }
+
+    /**
+     * Drops the cached rows so the next access reads the file again.
+     * Buffered edits are flushed first.
+     */
+    public void invalidateCache() {
+        synchronized (table) {
+            flush();
+            table.invalidate();
+        }
+    }
+
+    /**
+     * Returns whether cell edits to this file are buffered and written in batches.
+     *
+     * @return true if write-behind is enabled for the file
+     */
+    public boolean isWriteBehind() {
+        synchronized (table) {
+            return table.writeBehind;
+        }
+    }
+
+    /**
+     * Enables or disables write-behind for this file. The setting is shared by all
+     * managers of the same file. Disabling it flushes any buffered edits. In log mode
+     * every edit is appended to the log as it is made, whatever this setting.
+     *
+     * @param enabled Whether to buffer cell edits
+     */
+    public void setWriteBehind(boolean enabled) {
+        synchronized (table) {
+            table.writeBehind = enabled;
+            if (!enabled) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered edits of this file in a single write.
+     * Does nothing if there are none. If the write fails the edits stay
+     * buffered and are retried by the next flush.
+     */
+    public void flush() {
+        synchronized (table) {
+            table.flushScheduled = false;
+            if (table.isDirty()) {
+                if (!writeFile(table.rows)) {
+                    return;
+                }
+                table.stamp();
+            }
+            if (table.binary != null && table.binary.exportPending && !exportBinary()) {
+                return;
+            }
+            PENDING.remove(this);
+        }
+    }
+
+    /**
+     * Flushes the buffered edits of every file, typically right before the application exits.
+     */
+    public static void flushAll() {
+        for (DataManager manager : PENDING) {
+            manager.flush();
+        }
+    }
+
+    /**
+     * Changes when buffered edits are flushed. Applies to edits made after the call.
+     *
+     * @param intervalMillis Delay between the first buffered edit and its flush, in milliseconds
+     * @param dirtyRowThreshold Number of dirty rows that triggers an immediate flush
+     */
+    public static void setFlushPolicy(long intervalMillis, int dirtyRowThreshold) {
+        if (intervalMillis < 0 || dirtyRowThreshold < 1) {
+            throw new IllegalArgumentException("Invalid flush policy: " + intervalMillis + "ms, " + dirtyRowThreshold + " rows");
+        }
+        flushIntervalMillis = intervalMillis;
+        flushThreshold = dirtyRowThreshold;
+    }
+
+    /**
+     * Returns whether changes to this file are appended to a mutation log.
+     *
+     * @return true if log mode is enabled for the file
+     */
+    public boolean isLogMode() {
+        synchronized (table) {
+            return table.log != null;
+        }
+    }
+
+    /**
+     * Enables or disables log mode for this file. The setting is shared by all managers
+     * of the same file. Enabling it replays a log left behind by an earlier run; disabling it
+     * folds the log into the CSV file and deletes it.
+     *
+     * @param enabled Whether to append changes to a log instead of rewriting the file
+     */
+    public void setLogMode(boolean enabled) {
+        synchronized (table) {
+            if (enabled == (table.log != null)) {
+                return;
+            }
+            if (enabled) {
+                if (!usesCsvFiles()) {
+                    LOG.warn("Log mode needs the csv storage backend, not " + backend.getName());
+                    return;
+                }
+                if (table.binary != null && !leaveBinaryMode()) {
+                    return;
+                }
+                flush();
+                table.log = new TableLog(Paths.get(resolvedPath + LOG_SUFFIX).toAbsolutePath());
+                // Reload so that an existing log is replayed
+                table.invalidate();
+            } else {
+                List<String[]> rows = rows();
+                if (!writeFile(rows)) {
+                    LOG.warn("Failed to fold log into " + resolvedPath + ", staying in log mode");
+                    return;
+                }
+                table.stamp();
+                table.log.delete();
+                table.log = null;
+            }
+        }
+    }
+
+    /**
+     * Folds the mutation log into the CSV file and starts an empty log.
+     * Does nothing outside log mode. Normally run in the background once the log grows too large.
+     */
+    public void compact() {
+        synchronized (table) {
+            if (table.log == null) {
+                return;
+            }
+            table.log.compactionScheduled = false;
+            persist(rows());
+        }
+    }
+
+    /**
+     * Sets the log size that triggers a background compaction. Applies to all managers.
+     *
+     * @param bytes The log size in bytes
+     */
+    public static void setCompactThreshold(long bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("Invalid compaction threshold: " + bytes);
+        }
+        compactThresholdBytes = bytes;
+    }
+
+    /**
+     * Returns whether the rows are kept in a binary record store next to the CSV file.
+     *
+     * @return true if binary mode is enabled for the file
+     */
+    public boolean isBinaryMode() {
+        synchronized (table) {
+            return table.binary != null;
+        }
+    }
+
+    /**
+     * Enables or disables the binary record store for this file. The setting is shared by all
+     * managers of the same file. Enabling it leaves log mode and loads the rows from the binary
+     * files, importing the CSV file if they are missing or out of date; disabling it exports
+     * pending changes to the CSV file and deletes the binary files.
+     * The record layout depends on the file, so subclasses such as {@link VirtualPets} choose it.
+     *
+     * @param enabled Whether to keep the rows in a binary store
+     * @param width The number of columns of a record
+     * @param intColumns The columns stored as integers
+     * @see BinaryTable
+     */
+    void setBinaryMode(boolean enabled, int width, int[] intColumns) {
+        synchronized (table) {
+            if (enabled == (table.binary != null)) {
+                return;
+            }
+            if (!enabled) {
+                leaveBinaryMode();
+                return;
+            }
+            if (!usesCsvFiles()) {
+                LOG.warn("Binary mode needs the csv storage backend, not " + backend.getName());
+                return;
+            }
+            setLogMode(false);
+            if (table.log != null) {
+                return;
+            }
+            flush();
+            // The binary storage backend may still hold the same files open from before it was replaced
+            BinaryStorage.release(table);
+            table.binary = new BinaryTable(Paths.get(resolvedPath).toAbsolutePath(), width, intColumns);
+            // Pending changes are exported by the shutdown flush
+            background();
+            // Reload from the binary files, or import the CSV file into them
+            table.invalidate();
+        }
+    }
+
+    /**
+     * Exports pending changes of the binary store and deletes it. Callers must hold the table lock.
+     *
+     * @return false if the changes could not be exported, in which case binary mode stays on
+     */
+    private boolean leaveBinaryMode() {
+        if (table.binary.exportPending && !exportBinary()) {
+            LOG.warn("Failed to export binary changes to " + resolvedPath + ", staying in binary mode");
+            return false;
+        }
+        table.binary.delete();
+        table.binary = null;
+        return true;
+    }
+
+    /**
+     * Returns whether files on disk are parsed through a memory mapping.
+     *
+     * @return true if the mapped reader is used
+     */
+    public static boolean isMappedReader() {
+        return mappedReader;
+    }
+
+    /**
+     * Chooses how files on disk are parsed. The mapped reader scans the mapped bytes for delimiters
+     * instead of reading lines and splitting them, and produces the same rows. Applies to all
+     * managers, from their next read of a file.
+     *
+     * @param enabled Whether to use the mapped reader
+     * @see MappedCsv
+     */
+    public static void setMappedReader(boolean enabled) {
+        mappedReader = enabled;
+    }
+
+    /**
+     * Returns where the rows of every table are stored.
+     *
+     * @return The current storage backend
+     */
+    public static StorageBackend getStorageBackend() {
+        return backend;
+    }
+
+    /**
+     * Changes where the rows of every table are stored. Buffered edits are flushed to the old
+     * backend first, and every table is read from the new one on its next access.
+     *
+     * @param storage The new storage backend
+     * @throws IllegalStateException if a table is in log or binary mode, which only the CSV backend supports
+     */
+    public static void setStorageBackend(StorageBackend storage) {
+        Objects.requireNonNull(storage, "storage");
+        flushAll();
+        for (CachedTable table : CachedTable.all()) {
+            synchronized (table) {
+                if (table.log != null || table.binary != null) {
+                    throw new IllegalStateException("Leave log and binary mode before changing the storage backend: " + table.path);
+                }
+                table.invalidate();
+            }
+        }
+        backend = storage;
+        LOG.info("Using " + storage.getName() + " storage");
+    }
+
+    /**
+     * Returns whether the rows are stored in CSV files, which the file-level features need.
+     *
+     * @return true for the csv storage backend
+     */
+    static boolean usesCsvFiles() {
+        return backend instanceof CsvStorage;
+    }
+
+    /**
+     * Returns how far written files are forced to disk.
+     *
+     * @return The current fsync policy
+     */
+    public static FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Sets how far written files are forced to disk. Applies to all managers.
+     *
+     * @param policy The fsync policy to use for subsequent writes
+     */
+    public static void setFsyncPolicy(FsyncPolicy policy) {
+        fsyncPolicy = Objects.requireNonNull(policy, "policy");
     }
 
     /**
      * Reads the CSV file and returns its contents as a list of string arrays.
      * Each array represents a row in the CSV file, with each element representing a column.
+     * The returned list is a copy and may be freely modified by the caller.
      * 
      * @return A list of string arrays representing CSV rows
      * @throws IOException if there is an error reading the file
      */
     public List<String[]> readCSV() {
-        List<String[]> data = new ArrayList<>();
-        
-        // First try to read from the resolved path (external data directory)
+        synchronized (table) {
+            if (!cacheEnabled && !table.isDirty() && table.log == null && table.binary == null) {
+                return readSource();
+            }
+            List<String[]> rows = rows();
+            List<String[]> copy = new ArrayList<>(rows.size());
+            for (String[] row : rows) {
+                copy.add(row.clone());
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Finds the row matching a key using a hash index over the key columns.
+     * The index is shared by all managers of the same file, built on first use
+     * and kept consistent across {@code addRow}, {@code removeRow} and {@code setData}.
+     *
+     * @param spec The key columns and duplicate policy of the index
+     * @param key The key values, one per key column
+     * @return The index of the matching row, or -1 if not found
+     */
+    protected int lookupRow(IndexSpec spec, String... key) {
+        long start = System.nanoTime();
+        synchronized (table) {
+            rows();
+            int row = table.index(spec).find(key);
+            table.metrics.lookups.recordSince(start);
+            return row;
+        }
+    }
+
+    /**
+     * Passes the rows to a visitor in order until it returns false, without building a list of them.
+     * <p>
+     * If the table is not loaded in the cache, the file is parsed one line at a time while it is
+     * visited and nothing is kept, so memory use does not grow with the size of the file, and a
+     * visitor that stops early only costs the lines before the match. A loaded table, buffered
+     * edits and log mode are served from memory instead, so the visitor sees the same rows as
+     * {@link #getData(int, int)}. Either way the cache is left as it was.
+     * <p>
+     * The visitor runs while the table is locked. It may read the table but must not add or
+     * remove rows of the same file.
+     *
+     * @param visitor Receives each row
+     * @return The index of the row at which the visitor stopped, or -1 if it saw every row
+     */
+    public int forEachRow(RowVisitor visitor) {
+        synchronized (table) {
+            if (!isInMemory()) {
+                try (BufferedReader br = openSource()) {
+                    if (br != null) {
+                        return streamLines(br, visitor);
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Failed to stream " + filePath + ", reading it whole: " + e.getMessage());
+                }
+            }
+            List<String[]> rows = rows();
+            for (int i = 0; i < rows.size(); i++) {
+                if (!visitor.visit(i, rows.get(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the last rows of the table that pass a filter, e.g. the most recent complete saves.
+     * <p>
+     * If the table is not loaded in the cache, the file is read backwards from its end until
+     * enough rows are found, so the cost does not depend on how many rows come before them.
+     * A loaded table, buffered edits and log mode are served from memory instead, like
+     * {@link #forEachRow(RowVisitor)}.
+     *
+     * @param count The number of rows wanted
+     * @param filter Decides which rows count; rows it rejects are skipped
+     * @return Up to {@code count} rows in file order, as copies the caller may modify
+     */
+    public List<String[]> readLastRows(int count, Predicate<String[]> filter) {
+        synchronized (table) {
+            if (!isInMemory()) {
+                Path file = sourceFile();
+                if (file != null && MappedCsv.supports(Charset.defaultCharset())) {
+                    try {
+                        return CsvTail.readLast(file, Charset.defaultCharset(), count, filter, table.metrics);
+                    } catch (IOException e) {
+                        LOG.warn("Failed to read the end of " + file + ", scanning it instead: " + e.getMessage());
+                    }
+                }
+                // Keep only the last rows while streaming the whole file
+                Deque<String[]> last = new ArrayDeque<>();
+                forEachRow((row, cells) -> {
+                    if (count > 0 && filter.test(cells)) {
+                        last.addLast(cells.clone());
+                        if (last.size() > count) {
+                            last.removeFirst();
+                        }
+                    }
+                    return true;
+                });
+                return new ArrayList<>(last);
+            }
+            List<String[]> rows = rows();
+            LinkedList<String[]> last = new LinkedList<>();
+            for (int i = rows.size() - 1; i >= 0 && last.size() < count; i--) {
+                if (filter.test(rows.get(i))) {
+                    last.addFirst(rows.get(i).clone());
+                }
+            }
+            return new ArrayList<>(last);
+        }
+    }
+
+    /**
+     * Returns whether scans have to be served from the rows in memory rather than the file:
+     * when the table is loaded and up to date, has buffered edits, is in log or binary mode,
+     * or is not stored in a CSV file at all. Callers must hold the table lock.
+     */
+    private boolean isInMemory() {
+        return !usesCsvFiles() || table.isDirty() || table.log != null || table.binary != null || (table.rows != null && !table.isStale());
+    }
+
+    /**
+     * Finds the file that {@link CsvStorage#readTable(String)} would read first, for readers that need the file itself.
+     *
+     * @return The file, or null if it does not exist or is packed in a JAR
+     */
+    private Path sourceFile() {
         if (!resolvedPath.equals(filePath)) {
-            try (BufferedReader br = new BufferedReader(new FileReader(resolvedPath))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    data.add(line.split(","));
-                }
-                System.out.println("Successfully read from resolved path: " + resolvedPath);
-                return data;
-            } catch (IOException e) {
-                System.err.println("Failed to read from resolved path, trying alternative methods: " + e.getMessage());
-                // Fall through to try alternative methods
-            }
-        }
-        
-        // Then attempt to use ResourceLoader to get the stream
-        try (InputStream is = ResourceLoader.getResourceAsStream(filePath);
-             BufferedReader br = (is != null) ? new BufferedReader(new InputStreamReader(is)) : null) {
-             
-             if (br != null) {
-                 String line;
-                 while ((line = br.readLine()) != null) {
-                     data.add(line.split(","));
-                 }
-                 // If we read from ResourceLoader but should be writing to a data directory,
-                 // immediately save to the resolved path for future use
-                 if (!resolvedPath.equals(filePath)) {
-                     writeCSV(data);
-                 }
-                 System.out.println("Successfully read from ResourceLoader: " + filePath);
-                 return data;
-             }
-        } catch (Exception e) {
-            System.err.println("Failed to read CSV via ResourceLoader: " + e.getMessage());
-            // Fall back to direct file access if ResourceLoader fails
-        }
-        
-        // Fall back to the original direct file access method
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            Path file = Paths.get(resolvedPath);
+            return Files.isRegularFile(file) ? file : null;
+        }
+        return ResourceLoader.getResourceFile(filePath);
+    }
+
+    /**
+     * Opens the file that {@link CsvStorage#readTable(String)} would read first, without any of its fallbacks.
+     *
+     * @return A reader, or null if the rows have to be loaded by the storage backend
+     * @throws IOException if the file exists but cannot be opened
+     */
+    private BufferedReader openSource() throws IOException {
+        if (!resolvedPath.equals(filePath)) {
+            // A missing file in the data directory is first copied there by CsvStorage
+            File file = new File(resolvedPath);
+            return file.isFile() ? new BufferedReader(new FileReader(file)) : null;
+        }
+        InputStream is = ResourceLoader.getResourceAsStream(filePath);
+        return is != null ? new BufferedReader(new InputStreamReader(is)) : null;
+    }
+
+    /**
+     * Parses lines one at a time and passes each to a visitor until it returns false.
+     * The characters and rows seen are recorded in the table's metrics.
+     *
+     * @param br The reader
+     * @param visitor Receives each row
+     * @return The index of the row at which the visitor stopped, or -1 if it saw every row
+     * @throws IOException if the reader fails
+     */
+    private int streamLines(BufferedReader br, RowVisitor visitor) throws IOException {
+        long chars = 0;
+        int row = 0;
+        int stoppedAt = -1;
+        try {
             String line;
             while ((line = br.readLine()) != null) {
-                data.add(line.split(","));
+                chars += line.length() + 1;
+                if (!visitor.visit(row, line.split(","))) {
+                    stoppedAt = row;
+                    break;
+                }
+                row++;
+            }
+        } finally {
+            table.metrics.readChars.add(chars);
+            table.metrics.scans.increment();
+            table.metrics.scannedRows.add(stoppedAt >= 0 ? row + 1 : row);
+        }
+        return stoppedAt;
+    }
+
+    /**
+     * Returns a typed view of the rows, shared by all managers of the same file.
+     * The view is built on first use, follows changes made through {@code setData}
+     * and is rebuilt after rows are added, removed or reloaded.
+     *
+     * @param type The class of the view
+     * @param factory Creates an empty view of that class
+     * @return The up-to-date view
+     */
+    <V extends TableView> V view(Class<V> type, Supplier<V> factory) {
+        synchronized (table) {
+            rows();
+            return table.view(type, factory);
+        }
+    }
+
+    /**
+     * Returns the live rows of the table, loading them from disk if the cache is
+     * disabled, empty or out of date. Callers must hold the table lock.
+     *
+     * @return The mutable list of rows backing the table
+     */
+    private List<String[]> rows() {
+        if ((!cacheEnabled && !table.isDirty()) || table.isStale()) {
+            List<String[]> rows;
+            if (table.binary != null) {
+                rows = loadBinary();
+            } else {
+                rows = readSource();
+                if (table.log != null) {
+                    replayLog(rows);
+                }
             }
-            System.out.println("Successfully read from original path: " + filePath);
+            table.load(rows);
+        }
+        return table.rows;
+    }
+
+    /**
+     * Loads the rows from the binary store, importing the CSV file into it if the store is missing
+     * or belongs to an older version of the file. Callers must hold the table lock.
+     *
+     * @return A newly loaded list of rows
+     */
+    private List<String[]> loadBinary() {
+        long start = System.nanoTime();
+        long[] stamp = table.readStamp();
+        List<String[]> rows = table.binary.load(stamp[0], stamp[1]);
+        if (rows != null) {
+            table.metrics.reads.recordSince(start);
+            LOG.debug(() -> "Loaded binary copy of " + resolvedPath);
+            return rows;
+        }
+        rows = readSource();
+        if (table.binary != null) {
+            rebuildBinary(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces the binary store with rows that match the CSV file, leaving binary mode if
+     * that fails, e.g. because a row has more columns than a record. Callers must hold the table lock.
+     *
+     * @param rows The rows just read from or written to the CSV file
+     */
+    private void rebuildBinary(List<String[]> rows) {
+        long[] stamp = table.readStamp();
+        try {
+            table.binary.rebuild(rows, stamp[0], stamp[1], fsyncPolicy);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Failed to write binary copy of " + resolvedPath + ", leaving binary mode: " + e.getMessage());
+            table.binary.delete();
+            table.binary = null;
+        }
+    }
+
+    /**
+     * Writes changed cells to their record in the binary store, falling back to a full write
+     * if that fails. Callers must hold the table lock.
+     *
+     * @param row The row index
+     * @param columns The changed columns
+     * @param cells The row's cells after the change
+     */
+    private void updateBinary(int row, int[] columns, String[] cells) {
+        long start = System.nanoTime();
+        try {
+            table.binary.update(row, columns, cells, fsyncPolicy);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Failed to update binary record, rewriting file instead: " + e.getMessage());
+            persist(table.rows);
+            return;
+        }
+        table.metrics.binaryWrites.recordSince(start);
+        PENDING.add(this);
+    }
+
+    /**
+     * Writes the rows of the binary store to the CSV file, e.g. so that it can be edited by hand.
+     * Callers must hold the table lock.
+     *
+     * @return true if the CSV file was written
+     */
+    private boolean exportBinary() {
+        List<String[]> rows = rows();
+        if (table.binary == null) {
+            // Reloading left binary mode, the CSV file is the only copy again
+            return true;
+        }
+        if (!writeFile(rows)) {
+            return false;
+        }
+        table.stamp();
+        long[] stamp = table.readStamp();
+        try {
+            table.binary.exported(stamp[0], stamp[1]);
         } catch (IOException e) {
-            System.err.println("Failed to read from original path: " + e.getMessage());
-            
-            // If everything fails, try to create a default file structure
-            try {
-                File file = new File(resolvedPath);
-                file.getParentFile().mkdirs();
-                try (FileWriter writer = new FileWriter(file)) {
-                    writer.write("id,name,value\n");
+            LOG.warn("Failed to update binary header, importing again: " + e.getMessage());
+            rebuildBinary(rows);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the mutation log to rows freshly parsed from the CSV file.
+     * Callers must hold the table lock.
+     *
+     * @param rows The parsed rows, modified in place
+     */
+    private void replayLog(List<String[]> rows) {
+        try {
+            CRC32 crc = new CRC32();
+            try (InputStream in = new FileInputStream(resolvedPath)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
                 }
-                data.add(new String[]{"id", "name", "value"});
-                System.out.println("Created default file at: " + resolvedPath);
-            } catch (Exception ex) {
-                System.err.println("Failed to create default file: " + ex.getMessage());
             }
+            long modified = Files.getLastModifiedTime(Paths.get(resolvedPath)).toMillis();
+            int applied = table.log.recover(rows, crc.getValue(), modified, fsyncPolicy);
+            if (applied > 0) {
+                LOG.info("Replayed " + applied + " logged changes onto " + resolvedPath);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to replay log: " + e.getMessage());
         }
-        return data;
+    }
+
+    /**
+     * Reads the rows from the storage backend, which for CSV files falls back to the bundled
+     * resource and then the original path. The time taken is recorded in the table's metrics.
+     *
+     * @return A newly read list of rows, empty if the table does not exist or cannot be read
+     */
+    private List<String[]> readSource() {
+        StorageBackend storage = backend;
+        long start = System.nanoTime();
+        List<String[]> data;
+        try {
+            data = storage.readTable(filePath);
+        } catch (IOException e) {
+            LOG.error("Failed to read " + filePath + " from " + storage.getName() + " storage: " + e.getMessage(), e);
+            data = null;
+        }
+        table.metrics.reads.recordSince(start);
+        return data != null ? data : new ArrayList<>();
     }
 
     /**
@@ -104,24 +816,148 @@ public class DataManager {
      * @throws IOException if there is an error writing to the file
      */
     public void writeCSV(List<String[]> data) {
-        try {
-            // Always write to the resolved path
-            File file = new File(resolvedPath);
-            if (file.getParentFile() != null) {
-                file.getParentFile().mkdirs();
-            }
-            
-            // Write to file
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(resolvedPath))) {
+        synchronized (table) {
+            if (writeFile(data)) {
+                List<String[]> copy = new ArrayList<>(data.size());
                 for (String[] row : data) {
-                    bw.write(String.join(",", row));
-                    bw.newLine();
+                    copy.add(row.clone());
+                }
+                table.load(copy);
+                if (table.binary != null) {
+                    rebuildBinary(copy);
+                }
+            } else {
+                table.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Writes rows to the storage backend, replacing the table's contents. CSV files are written
+     * to the resolved path through a temporary sibling file, forced to disk according to the
+     * fsync policy and then renamed over the original, so the file is never seen half-written.
+     *
+     * @param data The rows to write
+     * @return true if the rows were written successfully
+     */
+    private boolean writeFile(List<String[]> data) {
+        StorageBackend storage = backend;
+        long start = System.nanoTime();
+        try {
+            if (storage instanceof CsvStorage) {
+                // Always write to the resolved path
+                Path target = Paths.get(resolvedPath).toAbsolutePath();
+                FsyncPolicy policy = fsyncPolicy;
+                long crc = CsvStorage.write(target, data, policy, table.metrics);
+                // The old log is now part of the file
+                if (table.log != null) {
+                    table.log.reset(crc, Files.getLastModifiedTime(target).toMillis(), policy);
                 }
-                System.out.println("Successfully wrote to: " + resolvedPath);
+            } else {
+                storage.writeTable(filePath, data);
             }
+            table.metrics.writes.recordSince(start);
+            LOG.debug(() -> "Successfully wrote to: " + resolvedPath);
+            return true;
         } catch (IOException e) {
-            System.err.println("Failed to write CSV: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to write CSV: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Hands changes to a storage backend other than CSV files, so that it can apply them without
+     * rewriting the table, falling back to a full write if that fails. Callers must hold the table lock.
+     *
+     * @param mutations The changes, in order
+     */
+    private void applyToBackend(TableMutation... mutations) {
+        StorageBackend storage = backend;
+        long start = System.nanoTime();
+        try {
+            for (TableMutation mutation : mutations) {
+                storage.applyMutation(filePath, mutation);
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            LOG.warn("Failed to apply change to " + storage.getName() + " storage, rewriting table instead: " + e.getMessage());
+            persist(table.rows);
+            return;
+        }
+        table.metrics.writes.recordSince(start);
+        table.stamp();
+    }
+
+    /**
+     * Records buffered edits to rows and flushes or schedules a flush as needed, at most
+     * one flush for all of them. Callers must hold the table lock.
+     *
+     * @param rows The edited rows
+     */
+    private void deferWrite(int... rows) {
+        for (int row : rows) {
+            table.markDirty(row);
+        }
+        PENDING.add(this);
+        if (table.dirtyCount() >= flushThreshold) {
+            flush();
+        } else if (!table.flushScheduled) {
+            table.flushScheduled = true;
+            background().schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Appends a change to the mutation log, falling back to a full write if that fails,
+     * and requests a compaction once the log is large enough. Callers must hold the table lock.
+     *
+     * @param record The log record describing the change
+     */
+    private void appendToLog(String record) {
+        try {
+            table.log.append(record, fsyncPolicy);
+        } catch (IOException e) {
+            LOG.warn("Failed to append to log, rewriting file instead: " + e.getMessage());
+            persist(table.rows);
+            return;
+        }
+        if (table.log.size() >= compactThresholdBytes && !table.log.compactionScheduled) {
+            table.log.compactionScheduled = true;
+            background().execute(this::compact);
+        }
+    }
+
+    /**
+     * Returns the executor that runs timed flushes and compactions, creating it on first use.
+     * Its thread is a daemon, so a shutdown hook flushes whatever is still buffered.
+     *
+     * @return The background executor
+     */
+    private static synchronized ScheduledExecutorService background() {
+        if (background == null) {
+            background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DataManager-background");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(DataManager::flushAll, "DataManager-shutdown-flush"));
+        }
+        return background;
+    }
+
+    /**
+     * Writes the table's live rows through to the file after an in-place change.
+     * Any buffered edits are written along with it. Callers must hold the table lock.
+     *
+     * @param rows The live rows of the table
+     */
+    private void persist(List<String[]> rows) {
+        if (writeFile(rows)) {
+            table.stamp();
+            if (table.binary != null) {
+                rebuildBinary(rows);
+            }
+        } else {
+            table.invalidate();
         }
     }
 
@@ -133,40 +969,173 @@ public class DataManager {
      * @return The data at the specified position, or null if the position is invalid
      */
     public String getData(int row, int index) {
-        List<String[]> data = readCSV();
-        if (row >= 0 && row < data.size()) {
+        synchronized (table) {
+            List<String[]> data = rows();
+            if (row >= 0 && row < data.size()) {
+                String[] rowData = data.get(row);
+                if (index >= 0 && index < rowData.length) {
+                    return rowData[index];
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the number of columns in a row.
+     *
+     * @param row The row index (0-based)
+     * @return The number of columns, or -1 if the row does not exist
+     */
+    public int getRowLength(int row) {
+        synchronized (table) {
+            List<String[]> data = rows();
+            return (row >= 0 && row < data.size()) ? data.get(row).length : -1;
+        }
+    }
+    
+    /**
+     * Returns the number of rows in the CSV file.
+     *
+     * @return The number of rows
+     */
+    public int getRowCount() {
+        synchronized (table) {
+            return rows().size();
+        }
+    }
+    
+    /**
+     * Pads a row with empty columns so that it has at least the given length.
+     * The padding is persisted by the next write to the file.
+     *
+     * @param row The row index (0-based)
+     * @param length The minimum number of columns the row should have
+     */
+    protected void ensureRowLength(int row, int length) {
+        synchronized (table) {
+            List<String[]> data = rows();
             String[] rowData = data.get(row);
-            if (index >= 0 && index < rowData.length) {
-                return rowData[index];
+            if (rowData.length < length) {
+                String[] padded = Arrays.copyOf(rowData, length);
+                Arrays.fill(padded, rowData.length, length, "");
+                data.set(row, padded);
+                for (int column = rowData.length; column < length; column++) {
+                    table.cellChanged(row, column, padded);
+                }
             }
         }
-        return null;
     }
     
     /**
      * Sets data at a specific row and column index in the CSV file.
+     * In write-behind mode the file is written by a later flush.
      * 
      * @param row The row index (0-based)
      * @param index The column index (0-based)
      * @param data The new data to set at the specified position
      */
     public void setData(int row, int index, String data) {
-    	List<String[]> file = readCSV();
-    	String[] currRow = file.get(row);
-    	currRow[index] = data;
-        file.set(row, currRow);
-        writeCSV(file);
+        setCells(row, new int[]{index}, new String[]{data});
+    }
+
+    /**
+     * Sets several cells of one row as a single change, so the file is written once.
+     *
+     * @param row The row index (0-based)
+     * @param indexes The column indexes (0-based)
+     * @param data The new data for each column, in the same order
+     */
+    protected void setCells(int row, int[] indexes, String[] data) {
+        setCells(new int[]{row}, indexes, new String[][]{data});
     }
     
+    /**
+     * Sets the same columns of several rows as a single change, so the file is written once,
+     * or in write-behind mode flushed at most once, however many rows change.
+     *
+     * @param rows The row indexes (0-based)
+     * @param indexes The column indexes (0-based), the same for every row
+     * @param data The new data of each row, in the order of {@code rows}, and within a row in the order of {@code indexes}
+     */
+    protected void setCells(int[] rows, int[] indexes, String[][] data) {
+        if (rows.length != data.length) {
+            throw new IllegalArgumentException("Expected " + rows.length + " rows of values but got " + data.length);
+        }
+        for (String[] values : data) {
+            if (values.length != indexes.length) {
+                throw new IllegalArgumentException("Expected " + indexes.length + " values but got " + values.length);
+            }
+        }
+        if (rows.length == 0) {
+            return;
+        }
+        synchronized (table) {
+            List<String[]> file = rows();
+            for (int row : rows) {
+                String[] currRow = file.get(row);
+                for (int index : indexes) {
+                    // Fail before changing anything, with the exception a direct array write would throw
+                    if (index < 0 || index >= currRow.length) {
+                        throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + currRow.length);
+                    }
+                }
+            }
+            for (int r = 0; r < rows.length; r++) {
+                String[] currRow = file.get(rows[r]);
+                for (int i = 0; i < indexes.length; i++) {
+                    currRow[indexes[i]] = data[r][i];
+                    table.cellChanged(rows[r], indexes[i], currRow);
+                }
+            }
+            if (table.binary != null) {
+                for (int row : rows) {
+                    // A failed update rewrites the whole file, which may leave binary mode
+                    if (table.binary == null) {
+                        break;
+                    }
+                    updateBinary(row, indexes, file.get(row));
+                }
+            } else if (table.log != null) {
+                for (int r = 0; r < rows.length; r++) {
+                    for (int i = 0; i < indexes.length; i++) {
+                        appendToLog(TableLog.setCell(rows[r], indexes[i], data[r][i]));
+                    }
+                }
+            } else if (table.writeBehind) {
+                deferWrite(rows);
+            } else if (!usesCsvFiles()) {
+                TableMutation[] mutations = new TableMutation[rows.length * indexes.length];
+                for (int r = 0; r < rows.length; r++) {
+                    for (int i = 0; i < indexes.length; i++) {
+                        mutations[r * indexes.length + i] = TableMutation.setCell(rows[r], indexes[i], data[r][i]);
+                    }
+                }
+                applyToBackend(mutations);
+            } else {
+                persist(file);
+            }
+        }
+    }
+
     /**
      * Removes a row from the CSV file.
      * 
      * @param index The index of the row to remove (0-based)
      */
     public void removeRow(int index) {
-    	List<String[]> file = readCSV();
-    	file.remove(index);
-    	writeCSV(file);
+        synchronized (table) {
+            List<String[]> file = rows();
+            file.remove(index);
+            table.rowRemoved();
+            if (table.log != null) {
+                appendToLog(TableLog.removeRow(index));
+            } else if (!usesCsvFiles()) {
+                applyToBackend(TableMutation.removeRow(index));
+            } else {
+                persist(file);
+            }
+        }
     }
     
     /**
@@ -175,8 +1144,102 @@ public class DataManager {
      * @param rowData A string array representing the new row
      */
     public void addRow(String[] rowData) {
-    	List<String[]> file = readCSV();
-    	file.add(rowData);
-    	writeCSV(file);
+        synchronized (table) {
+            List<String[]> file = rows();
+            String[] copy = rowData.clone();
+            file.add(copy);
+            table.rowAdded(copy, file.size() - 1);
+            if (table.log != null) {
+                appendToLog(TableLog.addRow(copy));
+            } else if (!usesCsvFiles()) {
+                applyToBackend(TableMutation.addRow(copy));
+            } else {
+                persist(file);
+            }
+        }
+    }
+
+    /**
+     * Reads all rows of the CSV file on the persistence thread.
+     *
+     * @return A future completed with a copy of the rows
+     * @see #readCSV()
+     */
+    public CompletableFuture<List<String[]>> readCSVAsync() {
+        return PersistenceExecutor.submit(this::readCSV);
+    }
+
+    /**
+     * Replaces the contents of the CSV file on the persistence thread.
+     *
+     * @param data The rows to write; the list is copied before the call returns
+     * @return A future completed once the rows are written
+     * @see #writeCSV(List)
+     */
+    public CompletableFuture<Void> writeCSVAsync(List<String[]> data) {
+        List<String[]> copy = new ArrayList<>(data.size());
+        for (String[] row : data) {
+            copy.add(row.clone());
+        }
+        return PersistenceExecutor.run(() -> writeCSV(copy));
+    }
+
+    /**
+     * Retrieves data from a specific row and column on the persistence thread.
+     *
+     * @param row The row index (0-based)
+     * @param index The column index (0-based)
+     * @return A future completed with the data, or with null if the position is invalid
+     * @see #getData(int, int)
+     */
+    public CompletableFuture<String> getDataAsync(int row, int index) {
+        return PersistenceExecutor.submit(() -> getData(row, index));
+    }
+
+    /**
+     * Sets data at a specific row and column on the persistence thread.
+     *
+     * @param row The row index (0-based)
+     * @param index The column index (0-based)
+     * @param data The new data to set at the specified position
+     * @return A future completed once the change is made
+     * @see #setData(int, int, String)
+     */
+    public CompletableFuture<Void> setDataAsync(int row, int index, String data) {
+        return PersistenceExecutor.run(() -> setData(row, index, data));
+    }
+
+    /**
+     * Removes a row on the persistence thread.
+     *
+     * @param index The index of the row to remove (0-based)
+     * @return A future completed once the row is removed
+     * @see #removeRow(int)
+     */
+    public CompletableFuture<Void> removeRowAsync(int index) {
+        return PersistenceExecutor.run(() -> removeRow(index));
+    }
+
+    /**
+     * Adds a new row on the persistence thread.
+     *
+     * @param rowData The new row; it is copied before the call returns
+     * @return A future completed once the row is added
+     * @see #addRow(String[])
+     */
+    public CompletableFuture<Void> addRowAsync(String[] rowData) {
+        String[] copy = rowData.clone();
+        return PersistenceExecutor.run(() -> addRow(copy));
+    }
+
+    /**
+     * Writes any buffered edits of this file on the persistence thread,
+     * after every operation submitted before it.
+     *
+     * @return A future completed once the edits are written
+     * @see #flush()
+     */
+    public CompletableFuture<Void> flushAsync() {
+        return PersistenceExecutor.run(this::flush);
     }
-} 
\ No newline at end of file
+}
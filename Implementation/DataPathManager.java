@@ -10,6 +10,27 @@ import java.io.File;
 public class DataPathManager {
     
     private static final String DATA_DIR_PROPERTY = "app.data.dir";
+    private static final String BACKEND_PROPERTY = "app.data.backend";
+
+    /**
+     * Returns the data directory set with the app.data.dir system property.
+     *
+     * @return The data directory, or null if data files are read from their original paths
+     */
+    public static String getDataDir() {
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        return dataDir == null || dataDir.isEmpty() ? null : dataDir;
+    }
+
+    /**
+     * Returns the name of the storage backend set with the app.data.backend system property.
+     *
+     * @return The backend name, "csv" by default
+     * @see StorageBackend#named(String)
+     */
+    public static String getBackendName() {
+        return System.getProperty(BACKEND_PROPERTY, "csv");
+    }
     
     /**
      * Resolves a data file path with consideration to the app.data.dir system property.
@@ -20,8 +41,18 @@ public class DataPathManager {
      * @return The resolved file path, potentially adjusted to use the data directory
      */
     public static String resolveDataPath(String filePath) {
-        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
-        
+        return resolveDataPath(System.getProperty(DATA_DIR_PROPERTY), filePath);
+    }
+
+    /**
+     * Resolves a data file path against a given data directory, the way the game resolves it
+     * against the app.data.dir system property.
+     *
+     * @param dataDir The data directory, or null to use the original path
+     * @param filePath The original file path, relative to the workspace
+     * @return The resolved file path
+     */
+    public static String resolveDataPath(String dataDir, String filePath) {
         // If data directory is specified and the file is a CSV (or other data file)
         if (dataDir != null && !dataDir.isEmpty() && 
             (filePath.endsWith(".csv") || filePath.endsWith(".data"))) {
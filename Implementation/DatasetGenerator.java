@@ -0,0 +1,382 @@
+package Implementation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates synthetic game data at production scale, for load testing and benchmarks.
+ * <p>
+ * The tables are written with the column layouts the game itself writes, e.g. the 14 pet columns
+ * of {@code PetSelectionGUI}, into the files the game reads when {@code app.data.dir} points at the
+ * output directory. Rows are streamed to disk one at a time, so the row counts are only limited by
+ * disk space. All values come from a seeded random number generator and a fixed reference date,
+ * so the same settings always produce the same files.
+ * <p>
+ * Run it from the command line:
+ * <pre>
+ * java -cp target/classes Implementation.DatasetGenerator --dir /tmp/game-data --players 100000
+ *     [--pets N] [--transactions N] [--store N] [--seed N] [--date yyyy-MM-dd]
+ * </pre>
+ * Without {@code --dir} the directory is taken from the {@code app.data.dir} system property.
+ */
+public final class DatasetGenerator {
+    static final String PETS = "Implementation/pets.csv";
+    static final String PLAYERS = "Implementation/player_data.csv";
+    static final String INVENTORY = "Implementation/inventory.csv";
+    static final String STORE = "Implementation/store.csv";
+    static final String PROGRESS = "Implementation/progress.csv";
+    static final String TRANSACTIONS = "Implementation/transactions.csv";
+    static final String PLAYTIME = "Implementation/playtime_tracking.csv";
+
+    /** Slots in each player's inventory, as {@code InventoryManager} saves it */
+    private static final int INVENTORY_SLOTS = 9;
+
+    /** Pet types with their share of all pets, in percent */
+    private static final String[] PET_TYPES = {"cat", "dog", "dragon"};
+    private static final int[] PET_TYPE_WEIGHTS = {45, 40, 15};
+
+    /** The store catalog of {@code StoreManager.populateStore}: name, category and price */
+    private static final String[] ITEM_NAMES = {"acorn", "avocado", "bear", "dreidel", "bandaid", "dumbbell",
+            "potion", "sword", "shield", "feast"};
+    private static final String[] ITEM_CATEGORIES = {"food", "food", "toy", "toy", "equipment", "equipment",
+            "consumable", "weapon", "armor", "food"};
+    private static final int[] ITEM_PRICES = {50, 75, 150, 120, 30, 200, 100, 300, 250, 125};
+    /** How often each item is held, relative to the others; cheap food is the most common */
+    private static final int[] ITEM_WEIGHTS = {25, 20, 10, 8, 12, 4, 9, 3, 3, 6};
+
+    private static final String[] PET_NAMES = {"Fluffy", "Rex", "Sparky", "Bubbles", "Max", "Luna", "Charlie",
+            "Bella", "Ember", "Smaug", "Milo", "Daisy", "Shadow", "Coco", "Ziggy", "Pebbles"};
+    private static final String[] BADGES = {"NewbieBadge", "FeederBadge", "PlayBadge", "VetBadge", "GoldBadge"};
+
+    private final long seed;
+    private LocalDate referenceDate = LocalDate.now();
+    private int players = 1000;
+    private int pets = -1;
+    private int transactions = -1;
+    private int storeItems = ITEM_NAMES.length;
+
+    /**
+     * Creates a generator with 1000 players, two pets and five transactions per player on average,
+     * and the full store catalog.
+     *
+     * @param seed The seed of the random data
+     */
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of players, which is also the row count of the progress and playtime tables.
+     * The inventory table has nine rows per player.
+     *
+     * @param players The number of players
+     * @return This generator
+     */
+    public DatasetGenerator players(int players) {
+        this.players = requirePositive(players, "players");
+        return this;
+    }
+
+    /**
+     * Sets the number of pets. Defaults to two per player.
+     *
+     * @param pets The number of pets
+     * @return This generator
+     */
+    public DatasetGenerator pets(int pets) {
+        this.pets = requirePositive(pets, "pets");
+        return this;
+    }
+
+    /**
+     * Sets the number of transactions. Defaults to five per player.
+     *
+     * @param transactions The number of transactions
+     * @return This generator
+     */
+    public DatasetGenerator transactions(int transactions) {
+        this.transactions = requirePositive(transactions, "transactions");
+        return this;
+    }
+
+    /**
+     * Sets the number of store rows. Rows beyond the catalog repeat its items with new IDs.
+     *
+     * @param storeItems The number of store rows
+     * @return This generator
+     */
+    public DatasetGenerator storeItems(int storeItems) {
+        this.storeItems = requirePositive(storeItems, "storeItems");
+        return this;
+    }
+
+    /**
+     * Sets the day the data is generated for. Join, login and last accessed dates lie before it.
+     * Defaults to today; set it to make the output independent of the day it is generated on.
+     *
+     * @param referenceDate The reference day
+     * @return This generator
+     */
+    public DatasetGenerator referenceDate(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+        return this;
+    }
+
+    private static int requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Writes all tables into a data directory, replacing any existing files.
+     *
+     * @param dataDir The directory the game's {@code app.data.dir} points at
+     * @return The written files
+     * @throws IOException if a file cannot be written
+     */
+    public List<Path> generate(File dataDir) throws IOException {
+        int petCount = pets > 0 ? pets : players * 2;
+        int transactionCount = transactions > 0 ? transactions : players * 5;
+        List<Path> files = new ArrayList<>();
+        files.add(writePlayers(open(dataDir, PLAYERS)));
+        files.add(writePets(open(dataDir, PETS), petCount));
+        files.add(writeInventory(open(dataDir, INVENTORY)));
+        files.add(writeStore(open(dataDir, STORE)));
+        files.add(writeProgress(open(dataDir, PROGRESS)));
+        files.add(writeTransactions(open(dataDir, TRANSACTIONS), transactionCount));
+        files.add(writePlaytime(open(dataDir, PLAYTIME)));
+        return files;
+    }
+
+    private static Path open(File dataDir, String file) throws IOException {
+        Path path = Path.of(DataPathManager.resolveDataPath(dataDir.getAbsolutePath(), file));
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    /** Returns a random number generator for one table, independent of the other tables */
+    private Random random(int table) {
+        return new Random(seed * 31 + table);
+    }
+
+    private static String playerId(int player) {
+        return "player" + player;
+    }
+
+    /**
+     * Picks an owner so that a few players own many pets and most own one or two.
+     */
+    private int owner(Random random) {
+        double skewed = Math.pow(random.nextDouble(), 2);
+        return (int) (skewed * players);
+    }
+
+    private static int weighted(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /** A stat around the given mean, within 0 and 100 */
+    private static int stat(Random random, int mean, int spread) {
+        return Math.max(0, Math.min(100, (int) Math.round(mean + random.nextGaussian() * spread)));
+    }
+
+    private LocalDate daysAgo(Random random, int maxDays) {
+        return referenceDate.minusDays(random.nextInt(maxDays + 1));
+    }
+
+    private String instantDaysAgo(Random random, int maxDays) {
+        long seconds = daysAgo(random, maxDays).atStartOfDay().toEpochSecond(ZoneOffset.UTC) + random.nextInt(86_400);
+        return Instant.ofEpochSecond(seconds).toString();
+    }
+
+    private Path writePlayers(Path file) throws IOException {
+        Random random = random(1);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int player = 0; player < players; player++) {
+                String id = playerId(player);
+                writeRow(out, id, "user" + player, "user" + player + "@example.com",
+                        daysAgo(random, 730).toString(), instantDaysAgo(random, 60),
+                        String.valueOf(random.nextInt(20) * 50), String.valueOf((int) (random.nextDouble() * random.nextDouble() * 5000)));
+            }
+        }
+        return file;
+    }
+
+    private Path writePets(Path file, int count) throws IOException {
+        Random random = random(2);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int pet = 0; pet < count; pet++) {
+                String id = new UUID(random.nextLong(), random.nextLong()).toString();
+                // A small share of pets were neglected until they died
+                boolean dead = random.nextInt(50) == 0;
+                String[] cells = {id, playerId(owner(random)), PET_NAMES[random.nextInt(PET_NAMES.length)],
+                        String.valueOf(random.nextInt(15)),
+                        String.valueOf(stat(random, 65, 25)),
+                        String.valueOf(stat(random, 70, 20)),
+                        dead ? "0" : String.valueOf(Math.max(1, stat(random, 80, 20))),
+                        String.valueOf(stat(random, 60, 30)),
+                        "0",
+                        String.valueOf(random.nextInt(4) == 0 ? random.nextInt(120) : 0),
+                        String.valueOf(random.nextInt(4) == 0 ? random.nextInt(60) : 0),
+                        daysAgo(random, 90).toString(),
+                        PET_TYPES[weighted(random, PET_TYPE_WEIGHTS)],
+                        null};
+                // Last seen at some second of the day the pet was last accessed, in seconds since the epoch
+                cells[13] = String.valueOf(LocalDate.parse(cells[11]).atStartOfDay().toEpochSecond(ZoneOffset.UTC)
+                        + random.nextInt(86_400));
+                writeRow(out, cells);
+            }
+        }
+        return file;
+    }
+
+    private Path writeInventory(Path file) throws IOException {
+        Random random = random(3);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int player = 0; player < players; player++) {
+                String id = playerId(player);
+                int filled = random.nextInt(INVENTORY_SLOTS + 1);
+                for (int slot = 0; slot < INVENTORY_SLOTS; slot++) {
+                    if (slot < filled) {
+                        int item = weighted(random, ITEM_WEIGHTS);
+                        // Most stacks are small, a few are large
+                        int quantity = 1 + (int) (-Math.log(1 - random.nextDouble()) * 4);
+                        writeRow(out, id, String.valueOf(slot), ITEM_NAMES[item], String.valueOf(quantity), ITEM_CATEGORIES[item]);
+                    } else {
+                        writeRow(out, id, String.valueOf(slot), "", "0", "");
+                    }
+                }
+            }
+        }
+        return file;
+    }
+
+    private Path writeStore(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int row = 0; row < storeItems; row++) {
+                int item = row % ITEM_NAMES.length;
+                writeRow(out, String.valueOf(row + 1), ITEM_NAMES[item], "1", ITEM_CATEGORIES[item], String.valueOf(ITEM_PRICES[item]));
+            }
+        }
+        return file;
+    }
+
+    private Path writeProgress(Path file) throws IOException {
+        Random random = random(4);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int player = 0; player < players; player++) {
+                int level = 1 + (int) (random.nextDouble() * random.nextDouble() * 50);
+                List<String> cells = new ArrayList<>();
+                cells.add(playerId(player));
+                cells.add(String.valueOf(level));
+                cells.add(String.valueOf(level * 200 + random.nextInt(200)));
+                cells.add(String.valueOf(random.nextInt(level * 2)));
+                for (String badge : BADGES) {
+                    if (random.nextInt(60) < level) {
+                        cells.add(badge);
+                    }
+                }
+                writeRow(out, cells.toArray(new String[0]));
+            }
+        }
+        return file;
+    }
+
+    private Path writeTransactions(Path file, int count) throws IOException {
+        Random random = random(5);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int transaction = 0; transaction < count; transaction++) {
+                int item = weighted(random, ITEM_WEIGHTS);
+                boolean refund = random.nextInt(20) == 0;
+                writeRow(out, "T" + transaction, playerId(owner(random)), refund ? "REFUND" : "PURCHASE",
+                        String.valueOf(ITEM_PRICES[item]), instantDaysAgo(random, 365));
+            }
+        }
+        return file;
+    }
+
+    private Path writePlaytime(Path file) throws IOException {
+        Random random = random(6);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int player = 0; player < players; player++) {
+                int sessions = random.nextInt(200);
+                int average = sessions == 0 ? 0 : 5 + random.nextInt(55);
+                boolean limited = random.nextInt(3) == 0;
+                writeRow(out, playerId(player), String.valueOf(limited), String.valueOf(sessions * average),
+                        String.valueOf(average), limited ? String.valueOf(30 + 15 * random.nextInt(8)) : "60",
+                        String.valueOf(sessions));
+            }
+        }
+        return file;
+    }
+
+    private static void writeRow(BufferedWriter out, String... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(cells[i]);
+        }
+        out.newLine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dir = System.getProperty("app.data.dir");
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[i + 1]);
+            }
+        }
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--dir": dir = value; break;
+                case "--players": generator.players(Integer.parseInt(value)); break;
+                case "--pets": generator.pets(Integer.parseInt(value)); break;
+                case "--transactions": generator.transactions(Integer.parseInt(value)); break;
+                case "--store": generator.storeItems(Integer.parseInt(value)); break;
+                case "--date": generator.referenceDate(LocalDate.parse(value)); break;
+                case "--seed": break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (dir == null || dir.isEmpty()) {
+            // Never write into the working copy's own game data by accident
+            System.err.println("Set --dir or -Dapp.data.dir to the directory to generate the data into");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        for (Path file : generator.generate(new File(dir))) {
+            System.out.println(file + ": " + Files.size(file) + " bytes");
+        }
+        System.out.println("Generated in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -1,5 +1,7 @@
 package Implementation;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.Locale;
 
 /**
@@ -34,6 +36,27 @@ public class Date {
         return new Date(FORMAT.get().format(new java.util.Date()));
     }
 
+    /**
+     * Creates a {@code Date} object representing the day of an instant in the system's time zone.
+     *
+     * @param epochMillis The instant, in milliseconds since the epoch
+     * @return A new {@code Date} object with that day
+     */
+    public static Date of(long epochMillis) {
+        return new Date(FORMAT.get().format(new java.util.Date(epochMillis)));
+    }
+
+    /**
+     * Counts the days from this date to another date.
+     *
+     * @param later The other date
+     * @return The number of days, negative if the other date is earlier
+     * @throws java.time.format.DateTimeParseException if either date is not in the format "yyyy-MM-dd"
+     */
+    public long daysUntil(Date later) {
+        return ChronoUnit.DAYS.between(LocalDate.parse(date), LocalDate.parse(later.date));
+    }
+
     /**
      * Returns a string representation of the date in the format "yyyy-MM-dd".
      *
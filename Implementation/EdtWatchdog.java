@@ -0,0 +1,118 @@
+package Implementation;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports Event Dispatch Thread tasks that take longer than a threshold, so blocking work that
+ * creeps back onto the EDT shows up in the log.
+ * <p>
+ * The watchdog replaces the system event queue with one that times every dispatched event.
+ * A slow event is logged with its duration once it finishes, and a monitor thread logs the stack
+ * of the EDT while it is still stuck, which points at the blocking call. The threshold is read from
+ * the {@code app.edt.watchdogMillis} system property; 0 disables the watchdog.
+ */
+public final class EdtWatchdog extends EventQueue {
+    private static final Log LOG = Log.get(EdtWatchdog.class);
+    private static final String THRESHOLD_PROPERTY = "app.edt.watchdogMillis";
+    /** Threshold used when the property is not set, in milliseconds */
+    private static final long DEFAULT_THRESHOLD_MILLIS = 250;
+
+    private static EdtWatchdog installed;
+
+    private final long thresholdNanos;
+    /** Start of the event being dispatched, or 0 between events */
+    private volatile long dispatchStart;
+    /** Whether the stack of the current event was already logged */
+    private volatile boolean reported;
+    private volatile Thread dispatchThread;
+    /** Nesting depth of dispatches, above 1 while a modal dialog runs its own event loop */
+    private int depth;
+    /** Number of nested dispatches so far, used to recognise events that waited on a modal dialog */
+    private long nestedDispatches;
+
+    private EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Installs the watchdog with the threshold from the system properties, unless it is disabled.
+     */
+    public static void install() {
+        install(Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MILLIS));
+    }
+
+    /**
+     * Installs the watchdog. Does nothing if it is already installed or the threshold is not positive.
+     *
+     * @param thresholdMillis The longest time an EDT task may take before it is logged, in milliseconds
+     */
+    public static synchronized void install(long thresholdMillis) {
+        if (installed != null || thresholdMillis <= 0) {
+            return;
+        }
+        installed = new EdtWatchdog(thresholdMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+        Thread monitor = new Thread(installed::monitor, "EdtWatchdog");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        dispatchThread = Thread.currentThread();
+        if (++depth > 1) {
+            nestedDispatches++;
+        }
+        long nestedBefore = nestedDispatches;
+        long start = System.nanoTime();
+        dispatchStart = start;
+        reported = false;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            depth--;
+            dispatchStart = 0;
+            long elapsed = System.nanoTime() - start;
+            // An event that showed a modal dialog waited for the user, not for blocking work
+            if (elapsed > thresholdNanos && nestedDispatches == nestedBefore) {
+                LOG.warn("Slow EDT task took " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms: " + describe(event));
+            }
+        }
+    }
+
+    /**
+     * Checks the EDT twice per threshold and logs its stack once per event that overruns.
+     */
+    private void monitor() {
+        long interval = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            Thread thread = dispatchThread;
+            if (start != 0 && !reported && thread != null && System.nanoTime() - start > thresholdNanos) {
+                reported = true;
+                StringBuilder trace = new StringBuilder("EDT blocked for over ")
+                        .append(TimeUnit.NANOSECONDS.toMillis(thresholdNanos)).append(" ms at:");
+                for (StackTraceElement element : thread.getStackTrace()) {
+                    trace.append(System.lineSeparator()).append("\tat ").append(element);
+                }
+                LOG.warn(trace.toString());
+            }
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        String name = event.paramString();
+        int comma = name.indexOf(',');
+        Object source = event.getSource();
+        return event.getClass().getSimpleName() + " from " + (source == null ? "unknown" : source.getClass().getName())
+                + (comma > 0 ? " (" + name.substring(0, comma) + ")" : "");
+    }
+}
@@ -0,0 +1,35 @@
+package Implementation;
+
+/**
+ * Controls how hard {@code DataManager} pushes a written CSV file to the storage device
+ * before replacing the original. Every write goes to a temporary sibling file that is then
+ * renamed over the original, so readers never see a half-written file regardless of the policy;
+ * the policy only decides what survives a power loss or operating system crash.
+ */
+public enum FsyncPolicy {
+    /** Never force data to disk, leaving it to the operating system */
+    NONE,
+    /** Force the temporary file's contents to disk once, right before it is renamed */
+    ON_CLOSE,
+    /** Like {@link #ON_CLOSE}, and also force the file metadata and the directory entry after the rename */
+    ALWAYS;
+
+    /**
+     * Parses a policy name, ignoring case and accepting dashes in place of underscores.
+     *
+     * @param name The policy name, e.g. {@code "on-close"}
+     * @param fallback The policy to use if the name is null or unknown
+     * @return The matching policy, or the fallback
+     */
+    public static FsyncPolicy parse(String name, FsyncPolicy fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Log.get(FsyncPolicy.class).warn("Unknown fsync policy '" + name + "', using " + fallback);
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package Implementation;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single scheduler for all periodic game work, such as stat decay, sprite animation and cooldowns.
+ * <p>
+ * Handlers register with a period and run on the Event Dispatch Thread. They are kept in a
+ * hierarchical timing wheel: four levels of 64 slots, the first of which covers the next 64 ticks
+ * of {@value #TICK_MILLIS} ms and each further level 64 times the span of the one below. Adding,
+ * cancelling and firing a handler are constant time. The clock is driven by one non-repeating
+ * Swing timer that is only set for the next tick that has work, so handlers that fall due on the
+ * same tick share one wakeup and an idle clock does not wake up at all.
+ * <p>
+ * Besides periodic handlers the clock runs one-shot events at a deadline, which lets subsystems
+ * wake up exactly when something is due instead of polling for it.
+ * <p>
+ * Handlers belong to a group, typically one per window. Pausing a group takes its handlers off
+ * the wheel until the group is resumed, and every handler records how often it ran and how long it took.
+ * The durations are also recorded in the {@link Metrics} registry as {@code clock.<handler name>}.
+ */
+public final class GameClock {
+    private static final Log LOG = Log.get(GameClock.class);
+    /** Resolution of the clock in milliseconds; periods are rounded up to whole ticks */
+    public static final long TICK_MILLIS = 100;
+    /** Group of handlers registered without one */
+    public static final String DEFAULT_GROUP = "default";
+
+    private static final int LEVEL_BITS = 6;
+    private static final int SLOTS = 1 << LEVEL_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    /** Largest distance in ticks that fits in the wheel */
+    private static final long MAX_DELAY_TICKS = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+    private static GameClock instance;
+
+    /** Slot lists by level and slot index */
+    private final List<List<Registration>> wheel = new ArrayList<>();
+    /** Handlers of paused groups, waiting to be put back on the wheel */
+    private final List<Registration> parked = new ArrayList<>();
+    private final Set<String> pausedGroups = new HashSet<>();
+    /** Every live registration, for statistics */
+    private final List<Registration> registrations = new ArrayList<>();
+    /** The Swing timer driving the clock, or null for a manually advanced clock */
+    private final Timer timer;
+    private final long startNanos;
+    /** Time of a manually advanced clock, in nanoseconds since it was created */
+    private long manualNanos;
+    /** The last tick that was processed */
+    private long currentTick;
+    /** Number of registrations on the wheel */
+    private int scheduled;
+    /** Number of times the clock woke up to process ticks */
+    private long wakeups;
+
+    private GameClock(boolean manual) {
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        startNanos = System.nanoTime();
+        if (manual) {
+            timer = null;
+        } else {
+            timer = new Timer(0, e -> wake());
+            timer.setRepeats(false);
+        }
+    }
+
+    /**
+     * Returns the application-wide clock, driven by the Swing timer.
+     *
+     * @return The shared clock
+     */
+    public static synchronized GameClock getInstance() {
+        if (instance == null) {
+            instance = new GameClock(false);
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a clock that only moves when {@link #advance(long)} is called and runs handlers
+     * on the calling thread. Intended for tests and headless simulation.
+     *
+     * @return A new manually advanced clock
+     */
+    public static GameClock createManual() {
+        return new GameClock(true);
+    }
+
+    /**
+     * Registers a handler in the default group.
+     *
+     * @param name A name for the handler, used in statistics
+     * @param periodMillis How often to run the handler, in milliseconds
+     * @param handler The work to run
+     * @return The registration, used to cancel the handler
+     */
+    public Registration schedule(String name, long periodMillis, Runnable handler) {
+        return schedule(name, DEFAULT_GROUP, periodMillis, handler);
+    }
+
+    /**
+     * Registers a handler that first runs one period from now and then once every period.
+     *
+     * @param name A name for the handler, used in statistics
+     * @param group The group of the handler, used to pause and resume it together with others
+     * @param periodMillis How often to run the handler, in milliseconds
+     * @param handler The work to run
+     * @return The registration, used to cancel the handler
+     */
+    public Registration schedule(String name, String group, long periodMillis, Runnable handler) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + periodMillis);
+        }
+        return register(new Registration(name, group, toTicks(periodMillis), false, handler));
+    }
+
+    /**
+     * Registers an event in the default group that runs once after a delay.
+     *
+     * @param name A name for the event, used in statistics
+     * @param delayMillis The delay in milliseconds, rounded up to whole ticks; 0 runs it on the next tick
+     * @param handler The work to run
+     * @return The registration, used to cancel the event before it runs
+     */
+    public Registration scheduleOnce(String name, long delayMillis, Runnable handler) {
+        return scheduleOnce(name, DEFAULT_GROUP, delayMillis, handler);
+    }
+
+    /**
+     * Registers an event that runs once after a delay and is then removed. If its group is paused
+     * when the event falls due, it runs one full delay after the group is resumed.
+     *
+     * @param name A name for the event, used in statistics
+     * @param group The group of the event
+     * @param delayMillis The delay in milliseconds, rounded up to whole ticks; 0 runs it on the next tick
+     * @param handler The work to run
+     * @return The registration, used to cancel the event before it runs
+     */
+    public Registration scheduleOnce(String name, String group, long delayMillis, Runnable handler) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative: " + delayMillis);
+        }
+        return register(new Registration(name, group, toTicks(delayMillis), true, handler));
+    }
+
+    /**
+     * Returns the time of this clock, which is also the time its handlers are scheduled by.
+     *
+     * @return Nanoseconds since the clock was created
+     */
+    public synchronized long nanoTime() {
+        return timer == null ? manualNanos : System.nanoTime() - startNanos;
+    }
+
+    private Registration register(Registration registration) {
+        String group = registration.group;
+        synchronized (this) {
+            registrations.add(registration);
+            registration.due = nowTick() + registration.periodTicks;
+            if (pausedGroups.contains(group)) {
+                parked.add(registration);
+            } else {
+                insert(registration);
+            }
+        }
+        reschedule();
+        return registration;
+    }
+
+    /**
+     * Stops running the handlers of a group until {@link #resume(String)} is called.
+     * Their remaining time is forgotten; on resume each runs one full period later.
+     *
+     * @param group The group to pause
+     */
+    public synchronized void pause(String group) {
+        pausedGroups.add(group);
+    }
+
+    /**
+     * Resumes the handlers of a paused group.
+     *
+     * @param group The group to resume
+     */
+    public void resume(String group) {
+        synchronized (this) {
+            if (!pausedGroups.remove(group)) {
+                return;
+            }
+            long now = nowTick();
+            for (int i = parked.size() - 1; i >= 0; i--) {
+                Registration registration = parked.get(i);
+                if (registration.group.equals(group)) {
+                    parked.remove(i);
+                    if (!registration.cancelled) {
+                        registration.due = now + registration.periodTicks;
+                        insert(registration);
+                    }
+                }
+            }
+        }
+        reschedule();
+    }
+
+    /**
+     * Returns whether a group is paused.
+     *
+     * @param group The group
+     * @return true if the group's handlers are paused
+     */
+    public synchronized boolean isPaused(String group) {
+        return pausedGroups.contains(group);
+    }
+
+    /**
+     * Cancels every handler of a group.
+     *
+     * @param group The group to cancel
+     */
+    public void cancelGroup(String group) {
+        List<Registration> matches = new ArrayList<>();
+        synchronized (this) {
+            for (Registration registration : registrations) {
+                if (registration.group.equals(group)) {
+                    matches.add(registration);
+                }
+            }
+        }
+        for (Registration registration : matches) {
+            registration.cancel();
+        }
+    }
+
+    /**
+     * Moves a manually advanced clock forward and runs every handler that falls due.
+     *
+     * @param millis How far to move the clock, in milliseconds
+     */
+    public void advance(long millis) {
+        if (timer != null) {
+            throw new IllegalStateException("Only a manual clock can be advanced");
+        }
+        synchronized (this) {
+            manualNanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+        wake();
+    }
+
+    /**
+     * Returns the execution statistics of all live handlers.
+     *
+     * @return One snapshot per registered handler
+     */
+    public synchronized List<HandlerStats> getStats() {
+        List<HandlerStats> stats = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            stats.add(registration.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Returns how many times the clock woke up to run handlers.
+     *
+     * @return The number of wakeups
+     */
+    public synchronized long getWakeups() {
+        return wakeups;
+    }
+
+    /**
+     * Formats the statistics of all handlers, one line per handler.
+     *
+     * @return A human readable report
+     */
+    public String statsReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("GameClock: %d wakeups%n", getWakeups()));
+        for (HandlerStats stats : getStats()) {
+            report.append(String.format("  %-24s %-28s every %6d ms: %6d runs, avg %8.1f us, max %8.1f us%n",
+                    stats.getName(), stats.getGroup(), stats.getPeriodMillis(), stats.getInvocations(),
+                    stats.getAverageMicros(), stats.getMaxNanos() / 1_000.0));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Processes every tick up to now, runs the handlers that fell due and sets the next wakeup.
+     */
+    private void wake() {
+        List<Registration> due = new ArrayList<>();
+        synchronized (this) {
+            wakeups++;
+            long target = nowTick();
+            while (currentTick < target) {
+                currentTick++;
+                cascade(currentTick);
+                collect(currentTick, target, due);
+            }
+        }
+        for (Registration registration : due) {
+            registration.run();
+        }
+        reschedule();
+    }
+
+    /**
+     * Takes the handlers due at a tick off the wheel and puts periodic ones back for their next run.
+     * A handler that fell behind skips the runs it missed rather than running several times in a row.
+     */
+    private void collect(long tick, long target, List<Registration> due) {
+        List<Registration> slot = wheel.get((int) (tick & SLOT_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Registration> entries = new ArrayList<>(slot);
+        slot.clear();
+        scheduled -= entries.size();
+        for (Registration registration : entries) {
+            if (registration.cancelled) {
+                continue;
+            }
+            if (pausedGroups.contains(registration.group)) {
+                parked.add(registration);
+                continue;
+            }
+            due.add(registration);
+            if (registration.oneShot) {
+                continue;
+            }
+            long next = registration.due + registration.periodTicks;
+            if (next <= target) {
+                next += ((target - next) / registration.periodTicks + 1) * registration.periodTicks;
+            }
+            registration.due = next;
+            insert(registration);
+        }
+    }
+
+    /**
+     * Moves the handlers of the higher level slots that start at this tick down the wheel.
+     */
+    private void cascade(long tick) {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((tick & ((1L << (LEVEL_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((tick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+            List<Registration> slot = wheel.get(level * SLOTS + index);
+            if (!slot.isEmpty()) {
+                List<Registration> entries = new ArrayList<>(slot);
+                slot.clear();
+                scheduled -= entries.size();
+                for (Registration registration : entries) {
+                    if (!registration.cancelled) {
+                        insert(registration);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts a handler in the slot of its due tick.
+     */
+    private void insert(Registration registration) {
+        if (registration.due < currentTick) {
+            registration.due = currentTick;
+        }
+        long delay = Math.min(registration.due - currentTick, MAX_DELAY_TICKS);
+        long due = currentTick + delay;
+        int level = 0;
+        while (delay >= (1L << (LEVEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((due >>> (LEVEL_BITS * level)) & SLOT_MASK);
+        wheel.get(level * SLOTS + index).add(registration);
+        scheduled++;
+    }
+
+    /**
+     * Returns the number of ticks until the next tick that has work or moves work down from a
+     * higher level, or -1 if nothing is scheduled. Only that tick needs a wakeup, so a clock with
+     * nothing but distant events sleeps until the first of them is near.
+     */
+    private long ticksUntilNextWork() {
+        if (scheduled == 0) {
+            return -1;
+        }
+        long next = Long.MAX_VALUE;
+        for (long distance = 1; distance <= SLOTS; distance++) {
+            if (!wheel.get((int) ((currentTick + distance) & SLOT_MASK)).isEmpty()) {
+                next = distance;
+                break;
+            }
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = LEVEL_BITS * level;
+            long position = currentTick >>> shift;
+            for (long offset = 1; offset <= SLOTS; offset++) {
+                long start = (position + offset) << shift;
+                if (start - currentTick >= next) {
+                    break;
+                }
+                if (!wheel.get(level * SLOTS + (int) ((position + offset) & SLOT_MASK)).isEmpty()) {
+                    next = start - currentTick;
+                    break;
+                }
+            }
+        }
+        return next == Long.MAX_VALUE ? SLOTS : next;
+    }
+
+    /**
+     * Sets the Swing timer for the next tick with work, or stops it if there is none.
+     */
+    private void reschedule() {
+        if (timer == null) {
+            return;
+        }
+        long delayMillis;
+        synchronized (this) {
+            long ticks = ticksUntilNextWork();
+            if (ticks < 0) {
+                delayMillis = -1;
+            } else {
+                long wakeNanos = startNanos + (currentTick + ticks) * TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+                // Round up so the timer never fires before the tick has started
+                delayMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(wakeNanos - System.nanoTime() + 999_999));
+            }
+        }
+        Runnable update = () -> {
+            if (delayMillis < 0) {
+                timer.stop();
+            } else {
+                timer.setInitialDelay((int) delayMillis);
+                timer.restart();
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
+        }
+    }
+
+    private synchronized void unregister(Registration registration) {
+        registrations.remove(registration);
+        parked.remove(registration);
+    }
+
+    private long nowTick() {
+        return nanoTime() / TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    }
+
+    private static long toTicks(long millis) {
+        return Math.max(1, (millis + TICK_MILLIS - 1) / TICK_MILLIS);
+    }
+
+    /**
+     * A handler registered with the clock.
+     */
+    public final class Registration {
+        private final String name;
+        private final String group;
+        private final long periodTicks;
+        private final Runnable handler;
+        /** Whether the handler runs once instead of periodically */
+        private final boolean oneShot;
+        /** The tick the handler runs next; guarded by the clock */
+        private long due;
+        private volatile boolean cancelled;
+        private long invocations;
+        private long totalNanos;
+        private long maxNanos;
+        /** Duration of the handler in the metrics registry, shared by handlers of the same name */
+        private final LatencyHistogram latency;
+
+        private Registration(String name, String group, long periodTicks, boolean oneShot, Runnable handler) {
+            this.name = name;
+            this.group = group;
+            this.periodTicks = periodTicks;
+            this.oneShot = oneShot;
+            this.handler = handler;
+            this.latency = Metrics.histogram("clock." + name);
+        }
+
+        /**
+         * Stops running the handler. It is removed from the wheel lazily when its slot comes up.
+         * Cancelling from inside the handler itself is allowed.
+         */
+        public void cancel() {
+            cancelled = true;
+            unregister(this);
+        }
+
+        /**
+         * Returns whether the handler was cancelled.
+         *
+         * @return true if the handler no longer runs
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns the execution statistics of the handler.
+         *
+         * @return A snapshot of the statistics
+         */
+        public synchronized HandlerStats getStats() {
+            return new HandlerStats(name, group, periodTicks * TICK_MILLIS, invocations, totalNanos, maxNanos);
+        }
+
+        private void run() {
+            if (cancelled) {
+                return;
+            }
+            if (oneShot) {
+                cancel();
+            }
+            long start = System.nanoTime();
+            try {
+                handler.run();
+            } catch (RuntimeException e) {
+                LOG.error("GameClock handler '" + name + "' failed: " + e.getMessage(), e);
+            }
+            long elapsed = System.nanoTime() - start;
+            latency.record(elapsed);
+            synchronized (this) {
+                invocations++;
+                totalNanos += elapsed;
+                maxNanos = Math.max(maxNanos, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Execution statistics of one handler.
+     */
+    public static final class HandlerStats {
+        private final String name;
+        private final String group;
+        private final long periodMillis;
+        private final long invocations;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private HandlerStats(String name, String group, long periodMillis, long invocations, long totalNanos, long maxNanos) {
+            this.name = name;
+            this.group = group;
+            this.periodMillis = periodMillis;
+            this.invocations = invocations;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public long getPeriodMillis() {
+            return periodMillis;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the average execution time of the handler.
+         *
+         * @return The average time per run in microseconds, or 0 if it never ran
+         */
+        public double getAverageMicros() {
+            return invocations == 0 ? 0 : totalNanos / 1_000.0 / invocations;
+        }
+    }
+}
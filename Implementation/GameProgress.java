@@ -1,5 +1,4 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code GameProgress} class extends {@code DataManager} to provide methods for
@@ -8,6 +7,8 @@ import java.util.List;
  * and earned badges.
  */
 public class GameProgress extends DataManager {
+    /** Index of progress rows by player ID */
+    private static final IndexSpec PLAYER_ID = IndexSpec.firstMatch(0);
     
     /**
      * Constructs a {@code GameProgress} object with the specified CSV file path.
@@ -25,15 +26,7 @@ public class GameProgress extends DataManager {
      * @return The index of the player's row, or -1 if not found.
      */
     private int findRow(String playerId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(playerId)) {
-                return index;
-            }
-            index++;
-        }
-        return -1;
+        return lookupRow(PLAYER_ID, playerId);
     }
     
     /**
@@ -0,0 +1,102 @@
+package Implementation;
+import java.util.Arrays;
+
+/**
+ * Describes a key index over the rows of a CSV table.
+ * An index maps the values of one or more key columns to the offset of the matching row,
+ * so a lookup by key does not have to scan the whole table.
+ * When several rows share the same key, the spec decides whether the first or the
+ * last matching row is returned, mirroring the linear scans the index replaces.
+ */
+public final class IndexSpec {
+    private final int[] columns;
+    private final boolean lastMatchWins;
+
+    private IndexSpec(int[] columns, boolean lastMatchWins) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("An index needs at least one key column");
+        }
+        this.columns = columns.clone();
+        this.lastMatchWins = lastMatchWins;
+    }
+
+    /**
+     * Creates an index spec that resolves duplicate keys to the first matching row.
+     *
+     * @param columns The key columns, in the order the key values are given
+     * @return The index spec
+     */
+    public static IndexSpec firstMatch(int... columns) {
+        return new IndexSpec(columns, false);
+    }
+
+    /**
+     * Creates an index spec that resolves duplicate keys to the last matching row.
+     *
+     * @param columns The key columns, in the order the key values are given
+     * @return The index spec
+     */
+    public static IndexSpec lastMatch(int... columns) {
+        return new IndexSpec(columns, true);
+    }
+
+    /**
+     * Returns the number of key columns.
+     *
+     * @return The number of values a lookup key must have
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the column index of a key part.
+     *
+     * @param part The position within the key
+     * @return The column index in the CSV row
+     */
+    public int getColumn(int part) {
+        return columns[part];
+    }
+
+    /**
+     * Returns whether the last matching row wins when keys are duplicated.
+     *
+     * @return true if later rows replace earlier ones with the same key
+     */
+    public boolean isLastMatchWins() {
+        return lastMatchWins;
+    }
+
+    /**
+     * Checks whether the given column is part of the key.
+     *
+     * @param column The column index
+     * @return true if changing the column can change a row's key
+     */
+    public boolean covers(int column) {
+        for (int c : columns) {
+            if (c == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IndexSpec)) {
+            return false;
+        }
+        IndexSpec other = (IndexSpec) o;
+        return lastMatchWins == other.lastMatchWins && Arrays.equals(columns, other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(columns) + (lastMatchWins ? 1 : 0);
+    }
+}
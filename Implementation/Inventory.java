@@ -1,5 +1,4 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code Inventory} class extends {@code DataManager} to provide methods for
@@ -8,6 +7,8 @@ import java.util.List;
  * and category.
  */
 public class Inventory extends DataManager {
+    /** Index of item rows by player ID and item ID */
+    protected static final IndexSpec PLAYER_ITEM = IndexSpec.firstMatch(0, 1);
     
     /**
      * Constructs an {@code Inventory} object with the specified CSV file path.
@@ -26,15 +27,7 @@ public class Inventory extends DataManager {
      * @return The index of the item's row, or -1 if not found.
      */
     private int findRow(String playerId, String itemId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(playerId) && row[1].equals(itemId)) {
-                return index;
-            }
-            index++;
-        }
-        return -1;
+        return lookupRow(PLAYER_ITEM, playerId, itemId);
     }
 
     // Getters and setters
@@ -19,6 +19,7 @@ import java.util.Locale;
  * displaying up to 4 most recent saves with pet names and last accessed dates.
  */
 public class LoadGameGUI extends JPanel {
+    private static final Log LOG = Log.get(LoadGameGUI.class);
     /** Reference to the parent MainMenu window */
     private MainMenu parentFrame;
     /** Manager for virtual pets data */
@@ -94,28 +95,18 @@ public class LoadGameGUI extends JPanel {
      * and last accessed date.
      */
     private void loadSaveSlots() {
-        List<String[]> saves = virtualPets.readCSV();
         int displayedSaves = 0;
         
-        // Display up to MAX_SAVES most recent saves
-        for (int i = saves.size() - 1; i >= 0 && displayedSaves < MAX_SAVES; i--) {
-            String[] save = saves.get(i);
-            // Add safety checks for array indices - check up to index 11 now
-            if (save.length < 12) {  // Check if array has enough elements for LastAccessedDate
-                System.out.println("Warning: Save data at index " + i + " is incomplete (missing LastAccessedDate)");
-                continue;  // Skip this save
-            }
-            
-            String petName = save[2];
-            String lastAccessedDateString = save[11]; // Read from index 11
-            
-            if (petName == null || lastAccessedDateString == null) {
-                System.out.println("Warning: Invalid save data (name or date) at index " + i);
-                continue;  // Skip this save
-            }
+        // Read the last MAX_SAVES complete saves from the end of the file; rows too short
+        // to hold the LastAccessedDate at index 11 are skipped
+        List<String[]> recentSaves = virtualPets.readLastRows(MAX_SAVES, save -> save.length >= 12);
+        
+        // Display the saves newest first
+        for (int i = recentSaves.size() - 1; i >= 0; i--) {
+            String[] save = recentSaves.get(i);
             
-            // Create save slot button
-            JButton saveSlot = createSaveSlotButton(petName, lastAccessedDateString);
+            // Create save slot button (petId at index 0, name at index 2, date at index 11)
+            JButton saveSlot = createSaveSlotButton(save[0], save[2], save[11]);
             mainPanel.add(saveSlot);
             mainPanel.add(Box.createVerticalStrut(10));
             displayedSaves++;
@@ -132,12 +123,14 @@ public class LoadGameGUI extends JPanel {
     
     /**
      * Creates a button representing a save slot with the pet's name and last accessed date.
+     * Clicking it opens the pet of the save.
      *
+     * @param petId The ID of the pet in the save
      * @param petName The name of the pet in the save
      * @param dateString The date string when the save was last accessed
      * @return A JButton configured to display the save slot information
      */
-    private JButton createSaveSlotButton(String petName, String dateString) { // Renamed parameter
+    private JButton createSaveSlotButton(String petId, String petName, String dateString) {
         JButton button = new JButton();
         button.setLayout(new BorderLayout());
         button.setPreferredSize(new Dimension(400, 60));
@@ -151,7 +144,7 @@ public class LoadGameGUI extends JPanel {
             Date date = new Date(dateString);
             formattedTime = date.toString();
         } catch (Exception e) {
-            System.err.println("Error parsing date string: " + dateString + " for pet: " + petName + " Error: " + e.getMessage());
+            LOG.warn("Error parsing date string: " + dateString + " for pet: " + petName + " Error: " + e.getMessage());
             formattedTime = "Unknown Date"; // Better default if parsing fails
         }
         
@@ -164,22 +157,8 @@ public class LoadGameGUI extends JPanel {
         button.add(nameLabel, BorderLayout.CENTER);
         button.add(timeLabel, BorderLayout.SOUTH);
         
-        // Add action listener with safety checks
-        button.addActionListener(e -> {
-            List<String[]> saves = virtualPets.readCSV();
-            for (String[] save : saves) {
-                // Check array length and use correct indices (2 for name, 11 for date)
-                if (save.length >= 12 &&
-                    save[2] != null && save[2].equals(petName) &&
-                    save[11] != null && save[11].equals(dateString) && // Check index 11
-                    save[0] != null && save[1] != null) { // Ensure petId and playerId exist
-                    String petId = save[0];
-                    String playerId = save[1];
-                    parentFrame.openPetInteraction(petId);
-                    break;
-                }
-            }
-        });
+        // Open the pet of this save
+        button.addActionListener(e -> parentFrame.openPetInteraction(petId));
         
         return button;
     }
@@ -0,0 +1,230 @@
+package Implementation;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A leveled logger for one component of the game, such as {@code DataManager} or {@code PetInteractionWindow}.
+ * <p>
+ * Messages below the component's level are discarded on the calling thread without formatting;
+ * the {@link Supplier} variants also skip building the message. Everything else is handed to an
+ * asynchronous appender that writes it to the console from its own thread, so logging never waits
+ * for console I/O and never blocks the caller, even on the Event Dispatch Thread. If the appender's
+ * buffer is full, messages are dropped and counted as {@code log.dropped} in the {@link Metrics}.
+ * <p>
+ * The default level is {@link Level#INFO}, so debug output is off. It is set with the
+ * {@code app.log.level} system property, and per component with {@code app.log.<component>},
+ * e.g. {@code -Dapp.log.DataManager=debug}. Both can also be changed at runtime.
+ */
+public final class Log {
+    private static final String LEVEL_PROPERTY = "app.log.level";
+    private static final String COMPONENT_PROPERTY_PREFIX = "app.log.";
+
+    /**
+     * Severity of a message, in increasing order. A logger set to {@link #OFF} discards everything.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF;
+
+        /**
+         * Parses a level name, ignoring case.
+         *
+         * @param name The name, or null
+         * @param fallback The level returned for a missing or unknown name
+         * @return The level
+         */
+        public static Level parse(String name, Level fallback) {
+            if (name == null) {
+                return fallback;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+    }
+
+    private static final Map<String, Log> LOGGERS = new ConcurrentHashMap<>();
+    /** Levels set at runtime for single components */
+    private static final Map<String, Level> COMPONENT_LEVELS = new ConcurrentHashMap<>();
+    private static volatile Level defaultLevel = Level.parse(System.getProperty(LEVEL_PROPERTY), Level.INFO);
+
+    private final String component;
+    private volatile Level level;
+
+    private Log(String component) {
+        this.component = component;
+        this.level = levelOf(component);
+    }
+
+    /**
+     * Returns the logger of a class, named after its simple name.
+     *
+     * @param type The class that logs
+     * @return The shared logger of that component
+     */
+    public static Log get(Class<?> type) {
+        return get(type.getSimpleName());
+    }
+
+    /**
+     * Returns the logger of a component.
+     *
+     * @param component The name of the component
+     * @return The shared logger of that component
+     */
+    public static Log get(String component) {
+        return LOGGERS.computeIfAbsent(component, Log::new);
+    }
+
+    private static Level levelOf(String component) {
+        Level set = COMPONENT_LEVELS.get(component);
+        if (set != null) {
+            return set;
+        }
+        return Level.parse(System.getProperty(COMPONENT_PROPERTY_PREFIX + component), defaultLevel);
+    }
+
+    /**
+     * Sets the level of every component that has no level of its own.
+     *
+     * @param level The new default level
+     */
+    public static void setDefaultLevel(Level level) {
+        defaultLevel = level;
+        LOGGERS.values().forEach(logger -> logger.level = levelOf(logger.component));
+    }
+
+    /**
+     * Sets the level of one component, overriding the default and the system properties.
+     *
+     * @param component The name of the component
+     * @param level The new level
+     */
+    public static void setLevel(String component, Level level) {
+        COMPONENT_LEVELS.put(component, level);
+        get(component).level = level;
+    }
+
+    /**
+     * Waits until every message logged so far has been written, e.g. before the application exits.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds
+     * @return true if everything was written in time
+     */
+    public static boolean flush(long timeoutMillis) {
+        return LogAppender.getInstance().flush(timeoutMillis);
+    }
+
+    /**
+     * Returns the name of the component.
+     *
+     * @return The component name
+     */
+    public String getComponent() {
+        return component;
+    }
+
+    /**
+     * Returns whether messages of a level are logged.
+     *
+     * @param messageLevel The level of the message
+     * @return true if the message would be written
+     */
+    public boolean isEnabled(Level messageLevel) {
+        return messageLevel != Level.OFF && messageLevel.compareTo(level) >= 0;
+    }
+
+    /**
+     * Returns whether debug messages are logged.
+     *
+     * @return true if debug output is on for this component
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    /**
+     * Logs detail that is only of interest when tracing a problem.
+     *
+     * @param message The message
+     */
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    /**
+     * Logs a debug message that is only built if debug output is on.
+     *
+     * @param message Builds the message
+     */
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    /**
+     * Logs a normal event, such as a session starting.
+     *
+     * @param message The message
+     */
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    /**
+     * Logs a problem the game recovers from, such as a fallback to another file.
+     *
+     * @param message The message
+     */
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    /**
+     * Logs a problem the game recovers from, with the exception that caused it.
+     *
+     * @param message The message
+     * @param error The cause
+     */
+    public void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    /**
+     * Logs a failure, such as data that could not be saved.
+     *
+     * @param message The message
+     */
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    /**
+     * Logs a failure with the exception that caused it.
+     *
+     * @param message The message
+     * @param error The cause
+     */
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    /**
+     * Logs a message if its level is enabled.
+     *
+     * @param messageLevel The level of the message
+     * @param message The message
+     * @param error An exception whose stack trace is written after the message, or null
+     */
+    public void log(Level messageLevel, String message, Throwable error) {
+        if (isEnabled(messageLevel)) {
+            LogAppender.getInstance().append(System.currentTimeMillis(), messageLevel, component,
+                    Thread.currentThread().getName(), message, error);
+        }
+    }
+}
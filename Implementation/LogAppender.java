@@ -0,0 +1,126 @@
+package Implementation;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the messages of every {@link Log} to the console from a single background thread.
+ * <p>
+ * Messages are queued in a fixed-size ring buffer ({@code app.log.bufferSize} entries). Appending
+ * never waits: if the buffer is full the message is dropped and counted. The writer thread drains
+ * the buffer in batches, sending warnings and errors to {@code System.err} and everything else to
+ * {@code System.out}, and flushes the streams only once the buffer is empty.
+ */
+final class LogAppender {
+    private static final String BUFFER_PROPERTY = "app.log.bufferSize";
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    /** Most messages written between two checks of the buffer */
+    private static final int BATCH_SIZE = 256;
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /** One logged message */
+    private record Entry(long timeMillis, Log.Level level, String component, String thread,
+                         String message, Throwable error) {
+    }
+
+    private static final class Holder {
+        private static final LogAppender INSTANCE = new LogAppender(Integer.getInteger(BUFFER_PROPERTY, DEFAULT_BUFFER_SIZE));
+    }
+
+    private final BlockingQueue<Entry> buffer;
+    private final Metrics.Counter dropped = Metrics.counter("log.dropped");
+    /** Messages accepted into the buffer */
+    private final AtomicLong appended = new AtomicLong();
+    /** Messages written; guarded by this */
+    private long written;
+
+    private LogAppender(int capacity) {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Metrics.gauge("log.queued", buffer::size);
+        Thread writer = new Thread(this::drain, "Log-appender");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(1000), "Log-shutdown-flush"));
+    }
+
+    static LogAppender getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Queues a message without waiting, dropping it if the buffer is full.
+     */
+    void append(long timeMillis, Log.Level level, String component, String thread, String message, Throwable error) {
+        if (buffer.offer(new Entry(timeMillis, level, component, thread, message, error))) {
+            appended.incrementAndGet();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Waits until every message queued before the call has been written.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds
+     * @return true if the messages were written in time
+     */
+    synchronized boolean flush(long timeoutMillis) {
+        long target = appended.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written < target) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            for (Entry entry : batch) {
+                write(entry);
+            }
+            if (buffer.isEmpty()) {
+                System.out.flush();
+                System.err.flush();
+            }
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private static void write(Entry entry) {
+        PrintStream out = entry.level().compareTo(Log.Level.WARN) >= 0 ? System.err : System.out;
+        out.println(TIME_FORMAT.format(Instant.ofEpochMilli(entry.timeMillis())) + " " + entry.level()
+                + " [" + entry.thread() + "] " + entry.component() + " - " + entry.message());
+        if (entry.error() != null) {
+            entry.error().printStackTrace(out);
+        }
+    }
+}
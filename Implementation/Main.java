@@ -15,6 +15,8 @@ public class Main {
      * @param args Command line arguments (not used)
      */
     public static void main(String[] args) {
+        EdtWatchdog.install();
+        Metrics.install();
         new Main();
     }
 
@@ -23,6 +23,7 @@ import Implementation.StoreInventory.*;
  * - Exiting the game
  */
 public class MainMenu extends JFrame {
+    private static final Log LOG = Log.get(MainMenu.class);
     private JButton newGameButton, loadGameButton, parentalControlsButton, exitButton, infoButton;
     private JLabel titleLabel;
     private JPanel buttonPanel;
@@ -54,7 +55,7 @@ public class MainMenu extends JFrame {
 
         // Initialize the global playtime tracker
         playtimeTracker = PlaytimeTracker.getInstance();
-        System.out.println("MainMenu initialized global playtime tracker");
+        LOG.debug("MainMenu initialized global playtime tracker");
 
         // Main content panel
         contentPanel = new JPanel(new CardLayout());
@@ -77,9 +78,19 @@ public class MainMenu extends JFrame {
                     petInteractionWindow.saveGame();
                 }
                 
+                // Wait for background writes, then write out any buffered pet stat updates
+                PersistenceExecutor.drain(5000);
+                DataManager.flushAll();
+                
                 // Save playtime statistics and shut down the tracker
                 playtimeTracker.shutdown();
-                System.out.println("MainMenu closing, playtime tracker shut down");
+
+                // Print how long the periodic game work took, if asked for
+                if (Boolean.getBoolean("app.clock.report")) {
+                    LOG.info(GameClock.getInstance().statsReport());
+                }
+                LOG.info("MainMenu closing, playtime tracker shut down");
+                Log.flush(1000);
             }
         });
         
@@ -332,7 +343,7 @@ public class MainMenu extends JFrame {
             CardLayout cl = (CardLayout) contentPanel.getLayout();
             cl.show(contentPanel, "PET_INTERACTION");
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Error opening pet interaction window", e);
             showErrorDialog("Error opening pet interaction window: " + e.getMessage());
         }
     }
@@ -400,6 +411,7 @@ public class MainMenu extends JFrame {
      * @param args Command line arguments (not used)
      */
     public static void main(String[] args) {
+        EdtWatchdog.install();
         SwingUtilities.invokeLater(() -> new MainMenu());
     }
 }
\ No newline at end of file
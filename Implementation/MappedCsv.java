@@ -0,0 +1,377 @@
+package Implementation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A CSV file mapped into memory, read without copying it into lines or splitting them.
+ * <p>
+ * Opening the file scans its bytes once for line breaks and remembers where each line starts
+ * and ends. Fields are only located and decoded when they are asked for, so a lookup that
+ * compares column 0 of every row with {@link #findRow(int, String)} decodes no strings at all,
+ * and {@link #getField(int, int)} builds just the one string it returns. {@link #getRow(int)} and
+ * {@link #readAll()} produce the same arrays as {@code line.split(",")} on the lines returned by
+ * {@code BufferedReader.readLine()}, so the class can stand in for that loop.
+ * <p>
+ * Lines may end in {@code \n}, {@code \r\n} or {@code \r}. Delimiters are found by byte, which is
+ * only valid for charsets that encode commas and line breaks as single ASCII bytes, such as UTF-8
+ * and the ISO-8859 family; see {@link #supports(Charset)}. Files must be smaller than 2 GB.
+ * <p>
+ * Instances are not thread-safe. The mapping is released by the garbage collector, which on some
+ * platforms keeps the file from being replaced until then.
+ */
+public final class MappedCsv {
+    private static final byte COMMA = ',';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    /** Bytes copied out of the mapping at a time while finding the lines */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final MappedByteBuffer data;
+    private final Charset charset;
+    /** Offset of the first byte of each line */
+    private final int[] starts;
+    /** Offset just past the last byte of each line, before its line break */
+    private final int[] ends;
+    private final int rowCount;
+    /** Reused buffer for decoding fields */
+    private byte[] scratch = new byte[256];
+    /** Reused buffer for the comma offsets of a line */
+    private int[] fieldEnds = new int[16];
+
+    private MappedCsv(MappedByteBuffer data, Charset charset) {
+        this.data = data;
+        this.charset = charset;
+        int limit = data.limit();
+        int capacity = 16;
+        int[] lineStarts = new int[capacity];
+        int[] lineEnds = new int[capacity];
+        int rows = 0;
+        int start = 0;
+        // Scan a chunk at a time out of the mapping; a CR at the end of a chunk is resolved in the next
+        byte[] chunk = new byte[CHUNK_SIZE];
+        boolean afterCr = false;
+        for (int offset = 0; offset < limit; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, limit - offset);
+            data.get(offset, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                byte b = chunk[i];
+                if (b == LF && afterCr) {
+                    // Second half of a CRLF, the line already ended
+                    start = offset + i + 1;
+                    afterCr = false;
+                    continue;
+                }
+                afterCr = false;
+                if (b == LF || b == CR) {
+                    if (rows == lineStarts.length) {
+                        lineStarts = Arrays.copyOf(lineStarts, rows * 2);
+                        lineEnds = Arrays.copyOf(lineEnds, rows * 2);
+                    }
+                    lineStarts[rows] = start;
+                    lineEnds[rows] = offset + i;
+                    rows++;
+                    start = offset + i + 1;
+                    afterCr = b == CR;
+                }
+            }
+        }
+        // A last line without a line break
+        if (start < limit) {
+            if (rows == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, rows + 1);
+                lineEnds = Arrays.copyOf(lineEnds, rows + 1);
+            }
+            lineStarts[rows] = start;
+            lineEnds[rows] = limit;
+            rows++;
+        }
+        this.starts = lineStarts;
+        this.ends = lineEnds;
+        this.rowCount = rows;
+    }
+
+    /**
+     * Maps a file decoded with the platform's default charset, like {@code FileReader}.
+     *
+     * @param file The CSV file
+     * @return The mapped file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedCsv open(Path file) throws IOException {
+        return open(file, Charset.defaultCharset());
+    }
+
+    /**
+     * Maps a file.
+     *
+     * @param file The CSV file
+     * @param charset The charset of the file, which must be {@link #supports(Charset) supported}
+     * @return The mapped file
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedCsv open(Path file, Charset charset) throws IOException {
+        if (!supports(charset)) {
+            throw new IllegalArgumentException("Delimiters cannot be found by byte in " + charset);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + file + " (" + size + " bytes)");
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappedCsv(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), charset);
+        }
+    }
+
+    /**
+     * Returns whether commas and line breaks can be found by byte in text of a charset.
+     *
+     * @param charset The charset
+     * @return true for UTF-8, US-ASCII and the ISO-8859 charsets
+     */
+    public static boolean supports(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.name().startsWith("ISO-8859-");
+    }
+
+    /**
+     * Returns the number of lines in the file.
+     *
+     * @return The row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of fields of a row, as {@code line.split(",").length} would count them.
+     *
+     * @param row The row index (0-based)
+     * @return The number of fields
+     */
+    public int getFieldCount(int row) {
+        return countFields(row);
+    }
+
+    /**
+     * Decodes a single field.
+     *
+     * @param row The row index (0-based)
+     * @param column The column index (0-based)
+     * @return The field, or null if the row has no such column
+     */
+    public String getField(int row, int column) {
+        int start = fieldStart(row, column);
+        if (start < 0) {
+            return null;
+        }
+        return decode(start, fieldEnd(start, ends[row]));
+    }
+
+    /**
+     * Compares a field with a value without decoding the field.
+     *
+     * @param row The row index (0-based)
+     * @param column The column index (0-based)
+     * @param value The value to compare with
+     * @return true if the row has the column and it holds the value
+     */
+    public boolean fieldEquals(int row, int column, String value) {
+        return fieldEquals(row, column, value.getBytes(charset));
+    }
+
+    /**
+     * Finds the first row whose field in a column holds a value, without decoding any fields.
+     *
+     * @param column The column index (0-based)
+     * @param value The value to look for
+     * @return The index of the first matching row, or -1 if there is none
+     */
+    public int findRow(int column, String value) {
+        byte[] encoded = value.getBytes(charset);
+        for (int row = 0; row < rowCount; row++) {
+            if (fieldEquals(row, column, encoded)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a row into the fields {@code line.split(",")} would return.
+     *
+     * @param row The row index (0-based)
+     * @return The fields of the row
+     */
+    public String[] getRow(int row) {
+        Objects.checkIndex(row, rowCount);
+        // Copy the line out in one go and find the commas in the copy, which is much faster than
+        // reading the mapping byte by byte
+        int length = ends[row] - starts[row];
+        byte[] line = scratch(length);
+        data.get(starts[row], line, 0, length);
+        int commas = 0;
+        int count = 0;
+        int fieldStart = 0;
+        for (int position = 0; position <= length; position++) {
+            if (position == length || line[position] == COMMA) {
+                if (position > fieldStart) {
+                    count = commas + 1;
+                }
+                if (position < length) {
+                    if (commas == fieldEnds.length) {
+                        fieldEnds = Arrays.copyOf(fieldEnds, commas * 2);
+                    }
+                    fieldEnds[commas++] = position;
+                }
+                fieldStart = position + 1;
+            }
+        }
+        if (commas == 0) {
+            return new String[]{length == 0 ? "" : new String(line, 0, length, charset)};
+        }
+        String[] fields = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = i < commas ? fieldEnds[i] : length;
+            fields[i] = end == start ? "" : new String(line, start, end - start, charset);
+            start = end + 1;
+        }
+        return fields;
+    }
+
+    /**
+     * Decodes every row, giving the same result as splitting each line read by a {@code BufferedReader}.
+     *
+     * @return A new list of rows
+     */
+    public List<String[]> readAll() {
+        List<String[]> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            rows.add(getRow(row));
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the length of the lines, counting one per line break, as a measure of how much
+     * text was read.
+     *
+     * @return The length of the lines in bytes plus one per line
+     */
+    public long getLineBytes() {
+        long bytes = 0;
+        for (int row = 0; row < rowCount; row++) {
+            bytes += ends[row] - starts[row] + 1;
+        }
+        return bytes;
+    }
+
+    private boolean fieldEquals(int row, int column, byte[] value) {
+        int start = fieldStart(row, column);
+        if (start < 0) {
+            return false;
+        }
+        int end = fieldEnd(start, ends[row]);
+        if (end - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (data.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the fields of a row the way {@code String.split} does: trailing empty fields are
+     * dropped, and a line without any comma is a single field even if it is empty.
+     */
+    private int countFields(int row) {
+        Objects.checkIndex(row, rowCount);
+        int start = starts[row];
+        int end = ends[row];
+        int fields = 0;
+        int nonEmpty = 0;
+        boolean comma = false;
+        int fieldStart = start;
+        for (int position = start; position <= end; position++) {
+            if (position == end || data.get(position) == COMMA) {
+                fields++;
+                if (position > fieldStart) {
+                    nonEmpty = fields;
+                }
+                if (position < end) {
+                    comma = true;
+                }
+                fieldStart = position + 1;
+            }
+        }
+        return comma ? nonEmpty : 1;
+    }
+
+    /** Returns the offset of a column of a row, or -1 if split would not return that column */
+    private int fieldStart(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0) {
+            return -1;
+        }
+        int position = starts[row];
+        int end = ends[row];
+        for (int found = 0; found < column; found++) {
+            int fieldEnd = fieldEnd(position, end);
+            if (fieldEnd == end) {
+                return -1;
+            }
+            position = fieldEnd + 1;
+        }
+        int fieldEnd = fieldEnd(position, end);
+        if (fieldEnd > position || (column == 0 && fieldEnd == end)) {
+            return position;
+        }
+        // An empty field is only kept by split if a non-empty field follows it
+        for (int rest = fieldEnd; rest < end; rest++) {
+            if (data.get(rest) != COMMA) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the offset of the comma ending the field at an offset, or the end of the line */
+    private int fieldEnd(int start, int lineEnd) {
+        int position = start;
+        while (position < lineEnd && data.get(position) != COMMA) {
+            position++;
+        }
+        return position;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = scratch(length);
+        data.get(start, bytes, 0, length);
+        return new String(bytes, 0, length, charset);
+    }
+
+    /** Returns the reused buffer, grown to hold at least the given number of bytes */
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+}
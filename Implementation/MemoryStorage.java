@@ -0,0 +1,64 @@
+package Implementation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link StorageBackend} that keeps every table in memory and never touches the disk.
+ * Tables start out missing, so a {@code DataManager} sees them as empty until rows are written.
+ * Changes are applied to the stored rows in place. Meant for tests and benchmarks; everything is
+ * lost when the backend is dropped.
+ */
+public final class MemoryStorage implements StorageBackend {
+    private final Map<String, List<String[]>> tables = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public List<String[]> readTable(String table) {
+        List<String[]> rows = tables.get(table);
+        if (rows == null) {
+            return null;
+        }
+        synchronized (rows) {
+            return copy(rows);
+        }
+    }
+
+    @Override
+    public void writeTable(String table, List<String[]> rows) {
+        tables.put(table, copy(rows));
+    }
+
+    @Override
+    public void applyMutation(String table, TableMutation mutation) {
+        List<String[]> rows = tables.computeIfAbsent(table, name -> new ArrayList<>());
+        synchronized (rows) {
+            mutation.applyTo(rows);
+        }
+    }
+
+    @Override
+    public List<String> listTables() {
+        return new ArrayList<>(tables.keySet());
+    }
+
+    /**
+     * Drops every table.
+     */
+    public void clear() {
+        tables.clear();
+    }
+
+    private static List<String[]> copy(List<String[]> rows) {
+        List<String[]> copy = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            copy.add(row.clone());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,261 @@
+package Implementation;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A registry of the game's runtime metrics: counters, gauges and latency histograms, by name.
+ * <p>
+ * Hot paths look their metrics up once, keep them in a field and only touch {@link LongAdder}s
+ * afterwards, so recording is cheap and lock free. Names are dotted, starting with the subsystem,
+ * e.g. {@code data.pets.read} or {@code clock.pet-stats}. Histograms hold durations in nanoseconds.
+ * <p>
+ * {@link #install()} publishes the registry as the JMX bean {@value #OBJECT_NAME}, with one attribute
+ * per counter and gauge and one per statistic of each histogram, and, if the {@code app.metrics.dumpMillis}
+ * property is set, prints a snapshot of every metric at that interval.
+ */
+public final class Metrics {
+    /** Name of the JMX bean exposing the metrics */
+    public static final String OBJECT_NAME = "Implementation:type=Metrics";
+    private static final String DUMP_PROPERTY = "app.metrics.dumpMillis";
+    /** Percentiles reported for every histogram */
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static boolean installed;
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with a name, creating it on first use.
+     *
+     * @param name The name of the counter
+     * @return The counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with a name, creating it on first use.
+     *
+     * @param name The name of the histogram
+     * @return The histogram
+     */
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge, a value that is read whenever the metrics are reported.
+     * A gauge with the same name is replaced.
+     *
+     * @param name The name of the gauge
+     * @param value Reads the current value; called from reporting threads
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * Returns the current value of every metric, sorted by name. A histogram contributes its
+     * count, mean, percentiles and maximum, as {@code <name>.count}, {@code <name>.mean},
+     * {@code <name>.p50} and so on.
+     *
+     * @return The values by name
+     */
+    public static SortedMap<String, Long> snapshot() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.get()));
+        GAUGES.forEach((name, gauge) -> values.put(name, readGauge(gauge)));
+        HISTOGRAMS.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean", histogram.getMean());
+            for (double percentile : PERCENTILES) {
+                values.put(name + ".p" + (int) percentile, histogram.getPercentile(percentile));
+            }
+            values.put(name + ".max", histogram.getMax());
+        });
+        return values;
+    }
+
+    private static long readGauge(LongSupplier gauge) {
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Formats a snapshot of every metric, one per line.
+     *
+     * @return The formatted metrics
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Metrics:");
+        snapshot().forEach((name, value) -> report.append(System.lineSeparator())
+                .append("  ").append(name).append(" = ").append(value));
+        return report.toString();
+    }
+
+    /**
+     * Resets every counter and histogram, e.g. between benchmark runs. Gauges are unaffected.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(counter -> counter.adder.reset());
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Publishes the metrics over JMX and starts the periodic dump if {@code app.metrics.dumpMillis}
+     * is set. Does nothing if already installed.
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException e) {
+            System.err.println("Failed to register metrics with JMX: " + e.getMessage());
+        }
+        long dumpMillis = Long.getLong(DUMP_PROPERTY, 0L);
+        if (dumpMillis > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> System.out.println(report()), dumpMillis, dumpMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A count of events, such as reads of a table.
+     */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Counts one event.
+         */
+        public void increment() {
+            adder.increment();
+        }
+
+        /**
+         * Adds to the count, e.g. a number of bytes.
+         *
+         * @param amount The amount to add
+         */
+        public void add(long amount) {
+            adder.add(amount);
+        }
+
+        /**
+         * Returns the count.
+         *
+         * @return The sum of everything counted since the last reset
+         */
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    /**
+     * Exposes the snapshot as read-only attributes. The attribute list follows the registry, so
+     * metrics created after registration appear the next time a JMX client reads the bean info.
+     */
+    private static final class MetricsBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws javax.management.AttributeNotFoundException {
+            Long value = snapshot().get(attribute);
+            if (value == null) {
+                throw new javax.management.AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Metrics are read-only");
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            SortedMap<String, Long> values = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Long value = values.get(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws javax.management.ReflectionException {
+            switch (actionName) {
+                case "report":
+                    return report();
+                case "reset":
+                    reset();
+                    return null;
+                default:
+                    throw new javax.management.ReflectionException(new NoSuchMethodException(actionName));
+            }
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : snapshot().keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+            }
+            MBeanOperationInfo[] operations = {
+                    new MBeanOperationInfo("report", "Formats every metric", null, "java.lang.String", MBeanOperationInfo.INFO),
+                    new MBeanOperationInfo("reset", "Resets the counters and histograms", null, "void", MBeanOperationInfo.ACTION)
+            };
+            return new MBeanInfo(Metrics.class.getName(), "Game runtime metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+        }
+    }
+}
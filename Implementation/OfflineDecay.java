@@ -0,0 +1,208 @@
+package Implementation;
+
+import java.util.Set;
+
+/**
+ * Computes where a pet ends up after many ticks of {@link VitalStats#updateStats()} without
+ * running them one by one, so a pet that was left alone for a long time can be caught up on load.
+ * <p>
+ * Each stat follows a simple pattern between ticks: sleep declines to zero and recovers to the
+ * maximum in a fixed cycle, fullness declines to zero and stays there, and happiness only declines.
+ * Health only loses the flat penalties and the per-tick hunger decline, so the damage done after
+ * any number of ticks has a closed form. The tick on which the pet dies is found by a binary search
+ * over that form, and all stats are frozen at that tick, as {@code updateStats} does. Catching up any
+ * number of ticks therefore costs a few dozen arithmetic operations.
+ */
+public final class OfflineDecay {
+    /** Length of one game tick, the period of the pet window's stats update, in milliseconds */
+    public static final long TICK_MILLIS = 5000;
+
+    private static final int MAX = VitalStats.MAX_STAT;
+
+    private final int sleepDecline;
+    private final int sleepRecovery;
+    private final int sleepPenalty;
+    private final int fullnessDecline;
+    private final int hungerPenalty;
+    private final int hungerDecline;
+    private final int happinessDecline;
+    private final int hungryHappinessDecline;
+
+    private final int health;
+    private final int sleep;
+    private final int hunger;
+    private final int happiness;
+    private final boolean sleeping;
+    private final boolean hungry;
+    private final boolean angry;
+
+    /** Tick on which a sleeping pet wakes up, or 0 if it starts awake */
+    private final long wakeTick;
+    /** Tick on which sleep first reaches zero */
+    private final long firstExhaustedTick;
+    /** Ticks from zero sleep back to the maximum */
+    private final long recoveryTicks;
+    /** Ticks of one full sleep cycle */
+    private final long cycleTicks;
+    /** Tick on which fullness first reaches zero */
+    private final long starvingTick;
+
+    private OfflineDecay(VitalStats stats) {
+        SpeciesProfile species = stats.getSpecies();
+        sleepDecline = species.getSleepDeclineRate();
+        sleepRecovery = species.getSleepRecoveryRate();
+        sleepPenalty = species.getSleepHealthPenalty();
+        fullnessDecline = species.getFullnessDeclineRate();
+        hungerPenalty = species.getHungerHealthPenalty();
+        hungerDecline = species.getHungerHealthDecline();
+        happinessDecline = species.getHappinessDeclineRate();
+        hungryHappinessDecline = happinessDecline + species.getExtraHappinessDeclineRate();
+
+        health = stats.getHealth();
+        sleep = stats.getSleep();
+        hunger = stats.getHunger();
+        happiness = stats.getHappiness();
+        Set<VitalStats.PetState> states = stats.getActiveStates();
+        sleeping = states.contains(VitalStats.PetState.SLEEPING);
+        hungry = states.contains(VitalStats.PetState.HUNGRY);
+        angry = states.contains(VitalStats.PetState.ANGRY);
+
+        recoveryTicks = ceilDiv(MAX, sleepRecovery);
+        cycleTicks = recoveryTicks + ceilDiv(MAX, sleepDecline);
+        if (sleeping) {
+            wakeTick = Math.max(1, ceilDiv(MAX - sleep, sleepRecovery));
+            firstExhaustedTick = wakeTick + ceilDiv(MAX, sleepDecline);
+        } else {
+            wakeTick = 0;
+            firstExhaustedTick = Math.max(1, ceilDiv(sleep, sleepDecline));
+        }
+        starvingTick = Math.max(1, ceilDiv(hunger, fullnessDecline));
+    }
+
+    /**
+     * Advances a pet by a number of ticks, leaving it exactly as that many calls of
+     * {@link VitalStats#updateStats()} would.
+     *
+     * @param stats The pet to advance
+     * @param ticks The number of ticks
+     */
+    public static void advance(VitalStats stats, long ticks) {
+        if (ticks <= 0 || stats.isDead()) {
+            return;
+        }
+        OfflineDecay decay = new OfflineDecay(stats);
+        long deathTick = decay.deathTick(ticks);
+        long end = deathTick > 0 ? deathTick : ticks;
+
+        stats.setHealth(deathTick > 0 ? 0 : (int) (decay.health - decay.damage(end)));
+        stats.setSleep(decay.sleepAt(end));
+        stats.setHunger(decay.hungerAt(end));
+        stats.setHappiness(decay.happinessAt(end));
+
+        Set<VitalStats.PetState> states = stats.getActiveStates();
+        states.clear();
+        if (deathTick > 0) {
+            states.add(VitalStats.PetState.DEAD);
+            return;
+        }
+        if (decay.isSleepingAt(end)) {
+            states.add(VitalStats.PetState.SLEEPING);
+        }
+        if (end >= decay.starvingTick) {
+            states.add(VitalStats.PetState.HUNGRY);
+        }
+        if (decay.isAngryAt(end)) {
+            states.add(VitalStats.PetState.ANGRY);
+        }
+    }
+
+    /**
+     * Counts the ticks in a period of time.
+     *
+     * @param elapsedMillis The elapsed time in milliseconds
+     * @return The number of whole ticks, zero if the time is negative
+     */
+    public static long ticksFor(long elapsedMillis) {
+        return Math.max(0, elapsedMillis / TICK_MILLIS);
+    }
+
+    /**
+     * Finds the first tick after which the pet has no health left.
+     *
+     * @param ticks The last tick to consider
+     * @return The tick of death, or 0 if the pet survives all ticks
+     */
+    private long deathTick(long ticks) {
+        if (damage(ticks) < health) {
+            return 0;
+        }
+        long low = 1;
+        long high = ticks;
+        while (low < high) {
+            long middle = low + (high - low) / 2;
+            if (damage(middle) >= health) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Total health lost in the first ticks, before clamping at zero.
+     */
+    private long damage(long tick) {
+        long exhaustions = tick < firstExhaustedTick ? 0 : 1 + (tick - firstExhaustedTick) / cycleTicks;
+        long starving = 0;
+        if (tick >= starvingTick) {
+            // A pet that is already hungry when fullness hits zero gets the per-tick decline instead of the flat penalty
+            long first = starvingTick == 1 && hungry ? hungerDecline : hungerPenalty;
+            starving = first + hungerDecline * (tick - starvingTick);
+        }
+        return exhaustions * sleepPenalty + starving;
+    }
+
+    private int sleepAt(long tick) {
+        if (tick < firstExhaustedTick) {
+            if (!sleeping) {
+                return (int) (sleep - sleepDecline * tick);
+            }
+            if (tick < wakeTick) {
+                return (int) (sleep + sleepRecovery * tick);
+            }
+            return (int) (MAX - sleepDecline * (tick - wakeTick));
+        }
+        long phase = (tick - firstExhaustedTick) % cycleTicks;
+        if (phase < recoveryTicks) {
+            return (int) (sleepRecovery * phase);
+        }
+        return (int) (MAX - sleepDecline * (phase - recoveryTicks));
+    }
+
+    private boolean isSleepingAt(long tick) {
+        if (tick < firstExhaustedTick) {
+            return sleeping && tick < wakeTick;
+        }
+        return (tick - firstExhaustedTick) % cycleTicks < recoveryTicks;
+    }
+
+    private int hungerAt(long tick) {
+        return (int) Math.max(0, hunger - fullnessDecline * tick);
+    }
+
+    private int happinessAt(long tick) {
+        long calm = Math.min(tick, starvingTick - 1);
+        long starving = tick - calm;
+        return (int) Math.max(0, happiness - happinessDecline * calm - hungryHappinessDecline * starving);
+    }
+
+    private boolean isAngryAt(long tick) {
+        // Happiness never rises between ticks, so an angry pet calms down on the first tick or not at all
+        return happinessAt(tick) == 0 || (angry && happinessAt(1) < MAX / 2);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
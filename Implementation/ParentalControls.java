@@ -1,11 +1,14 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code ParentalControls} class extends {@code DataManager} to manage parental control settings
  * for players, including playtime limits and playtime statistics.
  */
 public class ParentalControls extends DataManager {
+    private static final Log LOG = Log.get(ParentalControls.class);
+
+    /** Index of player rows by player ID, resolving duplicates to the most recently added row */
+    private static final IndexSpec PLAYER_ID = IndexSpec.lastMatch(0);
     
     /**
      * Constructs a {@code ParentalControls} object with the specified CSV file path.
@@ -31,18 +34,7 @@ public class ParentalControls extends DataManager {
      * @return The index of the player's row, or -1 if not found.
      */
     public int findRow(String playerId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        int foundIndex = -1;
-        
-        for (String[] row : data) {
-            if (row.length > 0 && row[0].equals(playerId)) {
-                foundIndex = index; // Keep updating - will end up with the last match
-            }
-            index++;
-        }
-        
-        return foundIndex;
+        return lookupRow(PLAYER_ID, playerId);
     }
 
     // Getters and setters
@@ -77,7 +69,7 @@ public class ParentalControls extends DataManager {
         try {
             return Boolean.parseBoolean(getData(findRow(playerId), 1));
         } catch (Exception e) {
-            System.err.println("Error getting playtime limit enabled status: " + e.getMessage());
+            LOG.warn("Error getting playtime limit enabled status: " + e.getMessage());
             return false; // Default to no limits if there's an error
         }
     }
@@ -92,7 +84,7 @@ public class ParentalControls extends DataManager {
         try {
             setData(findRow(playerId), 1, String.valueOf(enabled));
         } catch (Exception e) {
-            System.err.println("Error setting playtime limit enabled status: " + e.getMessage());
+            LOG.warn("Error setting playtime limit enabled status: " + e.getMessage());
         }
     }
     
@@ -107,7 +99,7 @@ public class ParentalControls extends DataManager {
             String value = getData(findRow(playerId), 2);
             return safeParseInt(value, 0);
         } catch (Exception e) {
-            System.err.println("Error getting playtime minutes: " + e.getMessage());
+            LOG.warn("Error getting playtime minutes: " + e.getMessage());
             return 0; // Return 0 if there's an error
         }
     }
@@ -119,7 +111,7 @@ public class ParentalControls extends DataManager {
         try {
             return Integer.parseInt(value);
         } catch (NumberFormatException e) {
-            System.err.println("Invalid number format '" + value + "', using default value: " + defaultValue);
+            LOG.warn("Invalid number format '" + value + "', using default value: " + defaultValue);
             return defaultValue;
         }
     }
@@ -134,7 +126,7 @@ public class ParentalControls extends DataManager {
         try {
             setData(findRow(playerId), 2, String.valueOf(minutes));
         } catch (Exception e) {
-            System.err.println("Error setting playtime minutes: " + e.getMessage());
+            LOG.warn("Error setting playtime minutes: " + e.getMessage());
         }
     }
     
@@ -149,7 +141,7 @@ public class ParentalControls extends DataManager {
             String value = getData(findRow(playerId), 3);
             return safeParseInt(value, 0);
         } catch (Exception e) {
-            System.err.println("Error getting average playtime minutes: " + e.getMessage());
+            LOG.warn("Error getting average playtime minutes: " + e.getMessage());
             return 0; // Return 0 if there's an error
         }
     }
@@ -164,7 +156,7 @@ public class ParentalControls extends DataManager {
         try {
             setData(findRow(playerId), 3, String.valueOf(minutes));
         } catch (Exception e) {
-            System.err.println("Error setting average playtime minutes: " + e.getMessage());
+            LOG.warn("Error setting average playtime minutes: " + e.getMessage());
         }
     }
     
@@ -179,7 +171,7 @@ public class ParentalControls extends DataManager {
             String value = getData(findRow(playerId), 4);
             return safeParseInt(value, 60); // Default to 60 minutes
         } catch (Exception e) {
-            System.err.println("Error getting max allowed playtime: " + e.getMessage());
+            LOG.warn("Error getting max allowed playtime: " + e.getMessage());
             return 60; // Return a reasonable default if there's an error
         }
     }
@@ -194,7 +186,7 @@ public class ParentalControls extends DataManager {
         try {
             setData(findRow(playerId), 4, String.valueOf(minutes));
         } catch (Exception e) {
-            System.err.println("Error setting max allowed playtime: " + e.getMessage());
+            LOG.warn("Error setting max allowed playtime: " + e.getMessage());
         }
     }
     
@@ -209,7 +201,7 @@ public class ParentalControls extends DataManager {
             String value = getData(findRow(playerId), 5);
             return safeParseInt(value, 0);
         } catch (Exception e) {
-            System.err.println("Error getting session count: " + e.getMessage());
+            LOG.warn("Error getting session count: " + e.getMessage());
             return 0; // Return 0 if there's an error
         }
     }
@@ -224,7 +216,7 @@ public class ParentalControls extends DataManager {
         try {
             setData(findRow(playerId), 5, String.valueOf(sessionCount));
         } catch (Exception e) {
-            System.err.println("Error setting session count: " + e.getMessage());
+            LOG.warn("Error setting session count: " + e.getMessage());
         }
     }
 }
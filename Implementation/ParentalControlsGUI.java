@@ -3,7 +3,6 @@ package Implementation;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.List;
 import java.io.File;
 import java.io.PrintWriter;
 import java.io.IOException;
@@ -14,6 +13,7 @@ import java.io.IOException;
  * including playtime limits, viewing statistics, and managing game restrictions.
  */
 public class ParentalControlsGUI extends JPanel {
+    private static final Log LOG = Log.get(ParentalControlsGUI.class);
     
     private ParentalControls parentalControls;
     private String currentPlayerId;
@@ -197,6 +197,7 @@ public class ParentalControlsGUI extends JPanel {
                 // Save settings
                 parentalControls.setMaxAllowedPlaytimeMinutes(currentPlayerId, minutesSlider.getValue());
                 parentalControls.setPlaytimeLimitEnabled(currentPlayerId, enableLimits.isSelected());
+                PlaytimeTracker.getInstance().invalidatePolicy(currentPlayerId);
                 
                 JOptionPane.showMessageDialog(this, 
                     "Playtime limits updated successfully!", 
@@ -278,6 +279,7 @@ public class ParentalControlsGUI extends JPanel {
                 parentalControls.setPlaytimeMinutes(currentPlayerId, 0);
                 parentalControls.setAveragePlaytimeMinutes(currentPlayerId, 0);
                 parentalControls.setSessionCount(currentPlayerId, 0);
+                PlaytimeTracker.getInstance().invalidatePolicy(currentPlayerId);
                 
                 // Reset player score to 0
                 Players players = new Players("Implementation/player_data.csv");
@@ -302,10 +304,13 @@ public class ParentalControlsGUI extends JPanel {
             Players players = new Players("Implementation/player_data.csv");
             VirtualPets virtualPets = new VirtualPets("Implementation/pets.csv");
             // print virtual pets csv properly
-            List<String[]> petsData = virtualPets.readCSV();
-            System.out.println("Virtual Pets CSV contents:");
-            for (String[] row : petsData) {
-                System.out.println(String.join(",", row));
+            if (LOG.isDebugEnabled()) {
+                StringBuilder contents = new StringBuilder("Virtual Pets CSV contents:");
+                virtualPets.forEachRow((i, row) -> {
+                    contents.append(System.lineSeparator()).append(String.join(",", row));
+                    return true;
+                });
+                LOG.debug(contents.toString());
             }
             Inventory inventory = new Inventory("Implementation/inventory.csv");
             Store store = new Store("Implementation/store.csv");
@@ -313,15 +318,15 @@ public class ParentalControlsGUI extends JPanel {
             Commands commands = new Commands(players, virtualPets, inventory, store, gameProgress, parentalControls);
             
             // Manually get pets for the current player
-            List<String[]> petData = virtualPets.readCSV();
             java.util.List<String> playerPets = new java.util.ArrayList<>();
             
             // Filter pets belonging to this player
-            for (String[] row : petData) {
+            virtualPets.forEachRow((i, row) -> {
                 if (row.length > 1 && row[1].equals(currentPlayerId)) {
                     playerPets.add(row[0]); // Add petId
                 }
-            }
+                return true;
+            });
             
             if (playerPets.isEmpty()) {
                 JOptionPane.showMessageDialog(
@@ -432,6 +437,7 @@ public class ParentalControlsGUI extends JPanel {
             parentalControls.setPlaytimeMinutes(currentPlayerId, 0);
             parentalControls.setAveragePlaytimeMinutes(currentPlayerId, 0);
             parentalControls.setSessionCount(currentPlayerId, 0);
+            PlaytimeTracker.getInstance().invalidatePolicy(currentPlayerId);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 "Error initializing player data: " + e.getMessage(),
@@ -447,9 +453,6 @@ public class ParentalControlsGUI extends JPanel {
      */
     private void createNewPlayer(String playerId) {
         try {
-            // Get current data
-            List<String[]> data = parentalControls.readCSV();
-            
             // Create a new row for the player with default values
             String[] newRow = new String[6]; // Assuming 6 columns in ParentalControls CSV
             newRow[0] = playerId;                  // Player ID
@@ -459,11 +462,9 @@ public class ParentalControlsGUI extends JPanel {
             newRow[4] = "60";                      // Max allowed playtime minutes
             newRow[5] = "0";                       // Session count
             
-            // Add the row
-            data.add(newRow);
-            
-            // Write back to CSV
-            parentalControls.writeCSV(data);
+            // Append the row
+            parentalControls.addRow(newRow);
+            PlaytimeTracker.getInstance().invalidatePolicy(playerId);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 "Error creating new player: " + e.getMessage(),
@@ -0,0 +1,99 @@
+package Implementation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs file reads and writes on a single background thread, so slow disks do not freeze the UI.
+ * <p>
+ * All tasks run one at a time in the order they were submitted, so a sequence of writes reaches the
+ * files in the order the GUI made them. Each submission returns a {@link CompletableFuture}; a task
+ * that fails is logged and completes its future exceptionally. The thread is a daemon, so a shutdown
+ * hook waits for the queued tasks and then flushes buffered edits before the process exits.
+ */
+public final class PersistenceExecutor {
+    private static final Log LOG = Log.get(PersistenceExecutor.class);
+    /** How long the shutdown hook waits for queued tasks, in milliseconds */
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    private static ExecutorService executor;
+
+    private PersistenceExecutor() {
+    }
+
+    /**
+     * Runs a task that produces a value on the persistence thread.
+     *
+     * @param task The task to run
+     * @param <T> The type of the value
+     * @return A future completed with the value, or exceptionally if the task failed
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                LOG.error("Background file operation failed", e);
+                throw e;
+            }
+        }, executor());
+    }
+
+    /**
+     * Runs a task on the persistence thread.
+     *
+     * @param task The task to run
+     * @return A future completed when the task has run, or exceptionally if it failed
+     */
+    public static CompletableFuture<Void> run(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits until every task submitted so far has run.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds
+     * @return true if the queue was drained, false if the wait timed out or was interrupted
+     */
+    public static boolean drain(long timeoutMillis) {
+        try {
+            run(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | CompletionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            LOG.warn("Timed out waiting for background file operations");
+            return false;
+        }
+    }
+
+    /**
+     * Returns the executor, creating it and its shutdown hook on first use.
+     */
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DataManager-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                drain(SHUTDOWN_WAIT_MILLIS);
+                DataManager.flushAll();
+            }, "DataManager-io-shutdown"));
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,415 @@
+package Implementation;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances the vital stats of many pets at once, applying exactly the rules of
+ * {@link VitalStats#updateStats()}.
+ * <p>
+ * The stats of all pets are stored in primitive arrays, one array per stat, and the active states
+ * of each pet are a bitmask instead of a set. A tick is one loop over the arrays without any
+ * allocation. Each pet is loaded into local variables once and advanced through all requested ticks
+ * before moving on to the next. Batches of at least {@link #PARALLEL_THRESHOLD} pets are split into
+ * slices that run on the common fork-join pool; pets never interact, so the slices share nothing.
+ * The engine itself is not thread-safe.
+ */
+public final class PetBatchEngine {
+    /** State bit of a sleeping pet */
+    public static final int SLEEPING = bit(VitalStats.PetState.SLEEPING);
+    /** State bit of a hungry pet */
+    public static final int HUNGRY = bit(VitalStats.PetState.HUNGRY);
+    /** State bit of an angry pet */
+    public static final int ANGRY = bit(VitalStats.PetState.ANGRY);
+    /** State bit of a dead pet, which is never set together with any other bit */
+    public static final int DEAD = bit(VitalStats.PetState.DEAD);
+
+    /** Smallest batch that is split across cores */
+    public static final int PARALLEL_THRESHOLD = 16_384;
+    /** Number of pets one fork-join task advances without splitting further */
+    private static final int SLICE_SIZE = 4_096;
+
+    private int[] health;
+    private int[] sleep;
+    private int[] hunger;
+    private int[] happiness;
+    private int[] type;
+    private int[] states;
+    private int size;
+
+    /**
+     * Creates an empty engine.
+     *
+     * @param capacity The number of pets to reserve room for
+     */
+    public PetBatchEngine(int capacity) {
+        int length = Math.max(capacity, 1);
+        health = new int[length];
+        sleep = new int[length];
+        hunger = new int[length];
+        happiness = new int[length];
+        type = new int[length];
+        states = new int[length];
+    }
+
+    /**
+     * Adds a pet with the states {@link VitalStats} would derive from these stats.
+     *
+     * @param health The health stat
+     * @param sleep The sleep stat
+     * @param hunger The fullness stat
+     * @param happiness The happiness stat
+     * @param type The type index of the pet: 0 for dog, 1 for cat and 2 for dragon
+     * @return The index of the pet in the engine
+     * @throws IllegalArgumentException if the type index is unknown
+     */
+    public int add(int health, int sleep, int hunger, int happiness, int type) {
+        return add(health, sleep, hunger, happiness, type, 0);
+    }
+
+    /**
+     * Adds a pet that had the given states before its stats were last read, e.g. in an earlier batch.
+     * The states are brought up to date with the stats the way {@link VitalStats} does when its stats
+     * change, so a sleeping pet keeps sleeping until it is fully rested and an angry pet stays angry
+     * until it is half happy again.
+     *
+     * @param health The health stat
+     * @param sleep The sleep stat
+     * @param hunger The fullness stat
+     * @param happiness The happiness stat
+     * @param type The type index of the pet: 0 for dog, 1 for cat and 2 for dragon
+     * @param previousStates The earlier state bitmask, or 0 if unknown
+     * @return The index of the pet in the engine
+     * @throws IllegalArgumentException if the type index is unknown
+     */
+    public int add(int health, int sleep, int hunger, int happiness, int type, int previousStates) {
+        return insert(health, sleep, hunger, happiness, type, settle(previousStates, health, sleep, hunger, happiness));
+    }
+
+    /**
+     * Adds a pet with the stats and active states of a {@link VitalStats}.
+     *
+     * @param stats The stats to copy
+     * @return The index of the pet in the engine
+     */
+    public int add(VitalStats stats) {
+        return insert(stats.getHealth(), stats.getSleep(), stats.getHunger(), stats.getHappiness(), stats.getType(),
+                toMask(stats.getActiveStates()));
+    }
+
+    private int insert(int health, int sleep, int hunger, int happiness, int type, int mask) {
+        // Rejects unknown type indexes
+        SpeciesProfile.forIndex(type);
+        if (size == this.health.length) {
+            grow();
+        }
+        int index = size++;
+        this.health[index] = health;
+        this.sleep[index] = sleep;
+        this.hunger[index] = hunger;
+        this.happiness[index] = happiness;
+        this.type[index] = type;
+        this.states[index] = mask;
+        return index;
+    }
+
+    private void grow() {
+        int length = health.length * 2;
+        health = Arrays.copyOf(health, length);
+        sleep = Arrays.copyOf(sleep, length);
+        hunger = Arrays.copyOf(hunger, length);
+        happiness = Arrays.copyOf(happiness, length);
+        type = Arrays.copyOf(type, length);
+        states = Arrays.copyOf(states, length);
+    }
+
+    /**
+     * Replaces the stats of a pet, e.g. after they were changed outside the engine, and updates its
+     * states as {@link #add(int, int, int, int, int, int)} does.
+     *
+     * @param index The index of the pet
+     * @param health The health stat
+     * @param sleep The sleep stat
+     * @param hunger The fullness stat
+     * @param happiness The happiness stat
+     */
+    public void setStats(int index, int health, int sleep, int hunger, int happiness) {
+        checkIndex(index);
+        this.health[index] = health;
+        this.sleep[index] = sleep;
+        this.hunger[index] = hunger;
+        this.happiness[index] = happiness;
+        this.states[index] = settle(states[index], health, sleep, hunger, happiness);
+    }
+
+    /**
+     * Applies the state rules of {@link VitalStats} for changed stats to a state bitmask.
+     * A dead pet whose health is positive again, i.e. a revived one, starts over without states.
+     */
+    private static int settle(int mask, int health, int sleep, int hunger, int happiness) {
+        if (health == 0) {
+            return DEAD;
+        }
+        int s = (mask & DEAD) != 0 ? 0 : mask;
+        if (sleep == 0) {
+            s |= SLEEPING;
+        } else if ((s & SLEEPING) != 0 && sleep >= VitalStats.MAX_STAT) {
+            s &= ~SLEEPING;
+        }
+        s = hunger == 0 ? s | HUNGRY : s & ~HUNGRY;
+        if (happiness == 0) {
+            s |= ANGRY;
+        } else if ((s & ANGRY) != 0 && happiness >= VitalStats.MAX_STAT / 2) {
+            s &= ~ANGRY;
+        }
+        return s;
+    }
+
+    /**
+     * Gets the number of pets in the engine.
+     *
+     * @return The number of pets
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Advances every pet by one tick.
+     */
+    public void tick() {
+        tick(1);
+    }
+
+    /**
+     * Advances every pet by a number of ticks, as if {@link VitalStats#updateStats()} was called that often.
+     *
+     * @param ticks The number of ticks
+     */
+    public void tick(int ticks) {
+        if (ticks <= 0 || size == 0) {
+            return;
+        }
+        if (size >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new Slice(0, size, ticks));
+        } else {
+            advance(0, size, ticks);
+        }
+    }
+
+    /**
+     * Advances the pets in a range of indexes.
+     */
+    private void advance(int from, int to, int ticks) {
+        final int max = VitalStats.MAX_STAT;
+        final int angryRecovery = VitalStats.MAX_STAT / 2;
+        for (int i = from; i < to; i++) {
+            int s = states[i];
+            if ((s & DEAD) != 0) {
+                continue;
+            }
+            SpeciesProfile species = SpeciesProfile.forIndex(type[i]);
+            int sleepDecline = species.getSleepDeclineRate();
+            int sleepRecovery = species.getSleepRecoveryRate();
+            int sleepPenalty = species.getSleepHealthPenalty();
+            int fullnessDecline = species.getFullnessDeclineRate();
+            int hungerPenalty = species.getHungerHealthPenalty();
+            int hungerDecline = species.getHungerHealthDecline();
+            int happinessDecline = species.getHappinessDeclineRate();
+            int hungryHappinessDecline = happinessDecline + species.getExtraHappinessDeclineRate();
+            int he = health[i];
+            int sl = sleep[i];
+            int hu = hunger[i];
+            int ha = happiness[i];
+
+            for (int tick = 0; tick < ticks; tick++) {
+                if ((s & SLEEPING) != 0) {
+                    sl = Math.min(max, sl + sleepRecovery);
+                    if (sl >= max) {
+                        s &= ~SLEEPING;
+                    }
+                } else {
+                    sl = Math.max(0, sl - sleepDecline);
+                    if (sl == 0) {
+                        he = Math.max(0, he - sleepPenalty);
+                        s |= SLEEPING;
+                    }
+                }
+
+                hu = Math.max(0, hu - fullnessDecline);
+                if (hu == 0) {
+                    if ((s & HUNGRY) == 0) {
+                        s |= HUNGRY;
+                        he = Math.max(0, he - hungerPenalty);
+                    } else {
+                        he = Math.max(0, he - hungerDecline);
+                    }
+                } else {
+                    s &= ~HUNGRY;
+                }
+
+                ha = Math.max(0, ha - ((s & HUNGRY) != 0 ? hungryHappinessDecline : happinessDecline));
+                if (ha == 0) {
+                    s |= ANGRY;
+                } else if ((s & ANGRY) != 0 && ha >= angryRecovery) {
+                    s &= ~ANGRY;
+                }
+
+                if (he == 0) {
+                    s = DEAD;
+                    break;
+                }
+            }
+
+            health[i] = he;
+            sleep[i] = sl;
+            hunger[i] = hu;
+            happiness[i] = ha;
+            states[i] = s;
+        }
+    }
+
+    /** A range of pets advanced by one fork-join task */
+    private final class Slice extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int ticks;
+
+        Slice(int from, int to, int ticks) {
+            this.from = from;
+            this.to = to;
+            this.ticks = ticks;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_SIZE) {
+                advance(from, to, ticks);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Slice(from, middle, ticks), new Slice(middle, to, ticks));
+        }
+    }
+
+    /**
+     * Gets the health of a pet.
+     *
+     * @param index The index of the pet
+     * @return The health stat
+     */
+    public int getHealth(int index) {
+        checkIndex(index);
+        return health[index];
+    }
+
+    /**
+     * Gets the sleep of a pet.
+     *
+     * @param index The index of the pet
+     * @return The sleep stat
+     */
+    public int getSleep(int index) {
+        checkIndex(index);
+        return sleep[index];
+    }
+
+    /**
+     * Gets the fullness of a pet.
+     *
+     * @param index The index of the pet
+     * @return The fullness stat
+     */
+    public int getHunger(int index) {
+        checkIndex(index);
+        return hunger[index];
+    }
+
+    /**
+     * Gets the happiness of a pet.
+     *
+     * @param index The index of the pet
+     * @return The happiness stat
+     */
+    public int getHappiness(int index) {
+        checkIndex(index);
+        return happiness[index];
+    }
+
+    /**
+     * Gets the type index of a pet.
+     *
+     * @param index The index of the pet
+     * @return The type index: 0 for dog, 1 for cat and 2 for dragon
+     */
+    public int getType(int index) {
+        checkIndex(index);
+        return type[index];
+    }
+
+    /**
+     * Gets the active states of a pet as a bitmask of {@link #SLEEPING}, {@link #HUNGRY},
+     * {@link #ANGRY} and {@link #DEAD}.
+     *
+     * @param index The index of the pet
+     * @return The state bitmask
+     */
+    public int getStateMask(int index) {
+        checkIndex(index);
+        return states[index];
+    }
+
+    /**
+     * Gets the active states of a pet in the form {@link VitalStats#getActiveStates()} returns them.
+     *
+     * @param index The index of the pet
+     * @return A new set of the active states
+     */
+    public Set<VitalStats.PetState> getActiveStates(int index) {
+        int mask = getStateMask(index);
+        Set<VitalStats.PetState> result = EnumSet.noneOf(VitalStats.PetState.class);
+        for (VitalStats.PetState state : VitalStats.PetState.values()) {
+            if ((mask & bit(state)) != 0) {
+                result.add(state);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a pet is dead.
+     *
+     * @param index The index of the pet
+     * @return true if the pet is dead
+     */
+    public boolean isDead(int index) {
+        return (getStateMask(index) & DEAD) != 0;
+    }
+
+    /**
+     * Converts a set of states to a bitmask.
+     *
+     * @param activeStates The states
+     * @return The bitmask
+     */
+    public static int toMask(Set<VitalStats.PetState> activeStates) {
+        int mask = 0;
+        for (VitalStats.PetState state : activeStates) {
+            mask |= bit(state);
+        }
+        return mask;
+    }
+
+    private static int bit(VitalStats.PetState state) {
+        return state == VitalStats.PetState.NORMAL ? 0 : 1 << state.ordinal();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Pet index " + index + " out of range for " + size + " pets");
+        }
+    }
+}
@@ -52,6 +52,7 @@ import Implementation.PlayerInventory.*;
  * @see Implementation.Players
  */
 public class PetInteractionWindow extends JPanel {
+    private static final Log LOG = Log.get(PetInteractionWindow.class);
     // Constants
     /** Width of the main window */
     private static final int WINDOW_WIDTH = 800;
@@ -128,17 +129,25 @@ public class PetInteractionWindow extends JPanel {
     private JButton shopButton;
 
     // Timers
+    /** Clock group of this window's timers, paused while the window is not showing */
+    private final String clockGroup = "PetInteractionWindow@" + Integer.toHexString(System.identityHashCode(this));
     /** Timer for updating UI elements */
-    private Timer uiUpdateTimer;
+    private GameClock.Registration uiUpdateTimer;
     /** Timer for updating pet sprite animation */
-    private Timer spriteUpdateTimer;
+    private GameClock.Registration spriteUpdateTimer;
     /** Timer for vet visit cooldown */
-    private Timer vetCooldownTimer;
+    private GameClock.Registration vetCooldownTimer;
     /** Timer for play action cooldown */
-    private Timer playCooldownTimer;
+    private GameClock.Registration playCooldownTimer;
+    /** Timer for sleep recovery */
+    private GameClock.Registration sleepTimer;
 
     /** Manager for virtual pets data */
     private VitalStats stats;
+    /** The player's score as last loaded or changed by this window; the file is updated in the background */
+    private int score;
+    /** The type of the current pet, loaded on first use */
+    private String petType;
     /** Reference to the parent MainMenu window */
     private MainMenu parentFrame;
     /** Current pet's vital statistics */
@@ -178,7 +187,7 @@ public class PetInteractionWindow extends JPanel {
     /** Manager for game commands */
     private Commands commands;
     /** Timer for tracking playtime */
-    private Timer playtimeTimer;
+    private GameClock.Registration playtimeTimer;
     /** Start time of the current session */
     private long sessionStartTime;
     /** Minutes played in current session */
@@ -204,15 +213,17 @@ public class PetInteractionWindow extends JPanel {
         this.petId = petId;
         this.playerId = "player"; // Fixed player ID for all pets
 
-        System.out.println(
+        LOG.debug(
                 "Creating PetInteractionWindow for pet: " + petId + ", using fixed player ID: " + this.playerId);
 
         // Instantiate backend (pass the appropriate CSV file path)
         virtualPets = new VirtualPets("Implementation/pets.csv");
+        // Stat updates arrive every few seconds, batch them instead of rewriting the file each time
+        virtualPets.setWriteBehind(true);
 
         // Initialize Commands with required dependencies
         players = new Players("Implementation/player_data.csv");
-        players.setScore(playerId, String.valueOf(players.getScore(playerId))); // Set the score to 0 initially
+        score = players.getScore(this.playerId); // Read once, later changes are written in the background
         Inventory inventory = new Inventory("Implementation/inventory.csv");
         invManager = new InventoryManager(playerId, "Implementation/inventory.csv", petId);
 
@@ -238,7 +249,7 @@ public class PetInteractionWindow extends JPanel {
         playtimeTracker = PlaytimeTracker.getInstance();
 
         // Log creation of commands object for debugging
-        System.out.println("Commands object created with parental controls: " + (parentalControls != null));
+        LOG.debug("Commands object created with parental controls: " + (parentalControls != null));
 
         setLayout(new BorderLayout());
         setPreferredSize(new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT));
@@ -283,8 +294,19 @@ public class PetInteractionWindow extends JPanel {
             }
         });
 
+        // Pause the timers while the window is not on screen, e.g. when its frame is hidden
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    GameClock.getInstance().resume(clockGroup);
+                } else {
+                    GameClock.getInstance().pause(clockGroup);
+                }
+            }
+        });
+
         // Load initial stats from backend
-        stats = virtualPets.getVitalStats(petId);
+        loadStats();
 
         // Set pet name from CSV
         petNameLabel.setText(virtualPets.getPetName(petId));
@@ -298,7 +320,7 @@ public class PetInteractionWindow extends JPanel {
 
     /**
      * Initializes and starts all timers used for UI updates, sprite animations,
-     * and cooldown tracking. This includes:
+     * and cooldown tracking. The timers are handlers of the shared {@link GameClock}. This includes:
      * <ul>
      *   <li>UI update timer (every 5 seconds)</li>
      *   <li>Sprite update timer (every 500ms)</li>
@@ -308,46 +330,19 @@ public class PetInteractionWindow extends JPanel {
      */
     private void initializeTimers() {
         // Stop any existing timers to prevent duplicates
-        if (uiUpdateTimer != null)
-            uiUpdateTimer.stop();
-        if (spriteUpdateTimer != null)
-            spriteUpdateTimer.stop();
-        if (vetCooldownTimer != null)
-            vetCooldownTimer.stop();
-        if (playCooldownTimer != null)
-            playCooldownTimer.stop();
+        GameClock.getInstance().cancelGroup(clockGroup);
 
         // Initialize and start UI update timer (every 5 seconds)
-        uiUpdateTimer = new Timer(5000, new ActionListener() {
-            /**
-             * Handles UI update timer events to refresh stats and score.
-             * 
-             * @param e the ActionEvent containing timer information
-             * @return void
-             */
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                getStats().updateStats();
-                updateStats();
-                updateScore();
-            }
+        uiUpdateTimer = GameClock.getInstance().schedule("pet-stats", clockGroup, OfflineDecay.TICK_MILLIS, () -> {
+            getStats().updateStats();
+            updateStats();
+            updateScore();
+            // The other pets in the save file decay too; this window's pet is persisted by updateStats
+            PersistenceExecutor.run(() -> virtualPets.updateAllPetVitals(1, petId));
         });
-        uiUpdateTimer.start();
 
         // Initialize and start sprite update timer (every 500ms)
-        spriteUpdateTimer = new Timer(500, new ActionListener() {
-            /**
-             * Handles sprite update timer events to refresh pet display.
-             * 
-             * @param e the ActionEvent containing timer information
-             * @return void
-             */
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                updatePetDisplay();
-            }
-        });
-        spriteUpdateTimer.start();
+        spriteUpdateTimer = GameClock.getInstance().schedule("pet-sprite", clockGroup, 500, this::updatePetDisplay);
 
         // Load saved cooldown times
         int savedVetCooldown = virtualPets.getVetCooldown(petId);
@@ -386,29 +381,19 @@ public class PetInteractionWindow extends JPanel {
         vetCooldownSeconds = remainingSeconds;
 
         if (vetCooldownTimer != null) {
-            vetCooldownTimer.stop();
+            vetCooldownTimer.cancel();
         }
 
-        vetCooldownTimer = new Timer(1000, new ActionListener() {
-            /**
-             * Handles vet cooldown timer events to update button state.
-             * 
-             * @param e the ActionEvent containing timer information
-             * @return void
-             */
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                vetCooldownSeconds--;
-                updateVetButtonText();
+        vetCooldownTimer = GameClock.getInstance().schedule("vet-cooldown", clockGroup, 1000, () -> {
+            vetCooldownSeconds--;
+            updateVetButtonText();
 
-                if (vetCooldownSeconds <= 0) {
-                    vetCooldownTimer.stop();
-                    vetButton.setEnabled(true);
-                    updateVetButtonText();
-                }
+            if (vetCooldownSeconds <= 0) {
+                vetCooldownTimer.cancel();
+                vetButton.setEnabled(true);
+                updateVetButtonText();
             }
         });
-        vetCooldownTimer.start();
     }
 
     /**
@@ -421,29 +406,19 @@ public class PetInteractionWindow extends JPanel {
         playCooldownSeconds = remainingSeconds;
 
         if (playCooldownTimer != null) {
-            playCooldownTimer.stop();
+            playCooldownTimer.cancel();
         }
 
-        playCooldownTimer = new Timer(1000, new ActionListener() {
-            /**
-             * Handles play cooldown timer events to update button state.
-             * 
-             * @param e the ActionEvent containing timer information
-             * @return void
-             */
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                playCooldownSeconds--;
-                updatePlayButtonText();
+        playCooldownTimer = GameClock.getInstance().schedule("play-cooldown", clockGroup, 1000, () -> {
+            playCooldownSeconds--;
+            updatePlayButtonText();
 
-                if (playCooldownSeconds <= 0) {
-                    playCooldownTimer.stop();
-                    playButton.setEnabled(true);
-                    updatePlayButtonText();
-                }
+            if (playCooldownSeconds <= 0) {
+                playCooldownTimer.cancel();
+                playButton.setEnabled(true);
+                updatePlayButtonText();
             }
         });
-        playCooldownTimer.start();
 
         // Playtime tracking is now started in initializeTimers
         // No need to call startPlaytimeTracking() here
@@ -461,7 +436,7 @@ public class PetInteractionWindow extends JPanel {
      */
     private void updatePetDisplay() {
         // Get pet type from CSV
-        String petType = virtualPets.getPetType(petId);
+        String petType = getPetType();
         String petState;
 
         // Determine pet state based on conditions
@@ -487,7 +462,7 @@ public class PetInteractionWindow extends JPanel {
                 iconPath = petType.toLowerCase() + "/" + petState + "_1.png";
             }
         }
-        ImageIcon petIcon = loadPetIcon(iconPath);
+        ImageIcon petIcon = loadPetIcon(petType, iconPath);
         if (petIcon != null) {
             petSpriteLabel.setIcon(petIcon);
             petSpriteLabel.setText("");
@@ -497,30 +472,20 @@ public class PetInteractionWindow extends JPanel {
     }
 
     /**
-     * Loads and resizes a pet icon from the icons directory.
+     * Loads a pet icon from the icons directory, sized to fit well in the UI.
+     * Icons come from the shared {@link SpriteCache}, so each frame is only decoded and scaled once.
      *
+     * @param petType the type of the pet, which determines the size of the icon
      * @param filename the name of the icon file to load
      * @return the loaded and resized ImageIcon, or null if loading fails
      */
-    private ImageIcon loadPetIcon(String filename) {
-        // Try to load from icons directory
-        ImageIcon icon = new ImageIcon("Implementation/Icons/" + filename);
-        if (icon.getIconWidth() <= 0) {
-            return null; // Image not loaded properly
-        }
-
-        // Resize icon to fit well in the UI
-        Image img = icon.getImage();
-        String petType = virtualPets.getPetType(petId);
+    private ImageIcon loadPetIcon(String petType, String filename) {
         if (petType.equals("dog")) {
-            Image resizedImg = img.getScaledInstance(400, 200, Image.SCALE_SMOOTH);
-            return new ImageIcon(resizedImg);
+            return SpriteCache.getIcon(filename, 400, 200);
         } else if (petType.equals("cat")) {
-            Image resizedImg = img.getScaledInstance(450, 300, Image.SCALE_SMOOTH);
-            return new ImageIcon(resizedImg);
+            return SpriteCache.getIcon(filename, 450, 300);
         } else {
-            Image resizedImg = img.getScaledInstance(400, 400, Image.SCALE_SMOOTH);
-            return new ImageIcon(resizedImg);
+            return SpriteCache.getIcon(filename, 400, 400);
         }
     }
 
@@ -573,7 +538,7 @@ public class PetInteractionWindow extends JPanel {
         playtimeStatusLabel.setBackground(new Color(220, 240, 255));
         playtimeStatusLabel.setOpaque(true);
 
-        scoreLabel = new JLabel("Score: " + players.getScore(playerId), SwingConstants.CENTER);
+        scoreLabel = new JLabel("Score: " + score, SwingConstants.CENTER);
         scoreLabel.setFont(new Font("Arial", Font.BOLD, 16));
         scoreLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
         scoreLabel.setOpaque(true);
@@ -794,7 +759,7 @@ public class PetInteractionWindow extends JPanel {
         petDisplayPanel.add(petContentPanel, BorderLayout.CENTER);
         petDisplayPanel.add(speechBubbleLabel, BorderLayout.NORTH);
 
-        String petType = virtualPets.getPetType(petId);
+        String petType = getPetType();
         if (petType.equals("dog")) {
             petContentPanel.setBackground(new Color(68, 0, 100)); // Purple for Dog
         } else if (petType.equals("cat")) {
@@ -1063,13 +1028,10 @@ public class PetInteractionWindow extends JPanel {
      */
     private void updateStats() {
         hunger = stats.getHunger();
-        virtualPets.setHunger(petId, hunger);
         happiness = stats.getHappiness();
-        virtualPets.setHappiness(petId, happiness);
         health = stats.getHealth();
-        virtualPets.setHealth(petId, health);
         sleep = stats.getSleep();
-        virtualPets.setSleep(petId, sleep);
+        persistStats();
         overall = (hunger + happiness + health + sleep) / 4;
 
         hungerBar.setValue(hunger);
@@ -1185,12 +1147,10 @@ public class PetInteractionWindow extends JPanel {
 
             // Apply food effects to pet stats
             stats.setHunger(Math.min(100, hunger + hungerValue));
-            virtualPets.setHunger(petId, stats.getHunger());
 
             // Some foods can affect health too
             if (healthValue > 0) {
                 stats.setHealth(Math.min(100, health + healthValue));
-                virtualPets.setHealth(petId, stats.getHealth());
             }
 
             // Decrease the item's quantity in inventory
@@ -1201,7 +1161,7 @@ public class PetInteractionWindow extends JPanel {
             foodCount--;
             updateInventory();
             updateStats();
-            players.setScore(playerId, Integer.toString(players.getScore(playerId) + 1));
+            addScore(1);
             updateScore();
             // Show feeding message
             JOptionPane.showMessageDialog(this,
@@ -1267,7 +1227,6 @@ public class PetInteractionWindow extends JPanel {
         }
 
         stats.setHappiness(Math.min(100, happiness + 10));
-        virtualPets.setHappiness(petId, stats.getHappiness());
 
         toyCount--;
         updateInventory();
@@ -1277,7 +1236,7 @@ public class PetInteractionWindow extends JPanel {
         startPlayCooldown(60);
         // Start play cooldown
         startPlayCooldown(60);
-        players.setScore(playerId, Integer.toString(players.getScore(playerId) + 1));
+        addScore(1);
         updateScore();
     }
 
@@ -1300,15 +1259,13 @@ public class PetInteractionWindow extends JPanel {
         }
 
         stats.setHealth(Math.min(100, health + 10));
-        virtualPets.setHealth(petId, stats.getHealth());
 
         // Workout makes pet hungrier
         stats.setHunger(Math.max(0, hunger - 5));
-        virtualPets.setHunger(petId, stats.getHunger());
 
         updateInventory();
         updateStats();
-        players.setScore(playerId, Integer.toString(players.getScore(playerId) + 1));
+        addScore(1);
         updateScore();
     }
 
@@ -1324,26 +1281,24 @@ public class PetInteractionWindow extends JPanel {
         if (angryBlockAction())
             return;
 
-        // Create a Timer to update sleep gradually every 1000ms (1 second)
-        Timer sleepTimer = new Timer(1000, null);
-        sleepTimer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                stats.recoverSleep();
-                stats.updateStats();
-                updateStats(); // Update the UI progress bars
-
-                // If pet's sleep has fully recovered, stop the timer and notify the user
-                if (!stats.isSleeping() && !getStats().isDead()) {
-                    sleepTimer.stop();
-                    JOptionPane.showMessageDialog(PetInteractionWindow.this,
-                            "Pet is fully rested!", "Sleep", JOptionPane.INFORMATION_MESSAGE);
-                    // Optionally re-enable user actions here.
-                }
+        // Update sleep gradually every 1000ms (1 second)
+        if (sleepTimer != null) {
+            sleepTimer.cancel();
+        }
+        sleepTimer = GameClock.getInstance().schedule("sleep-recovery", clockGroup, 1000, () -> {
+            stats.recoverSleep();
+            stats.updateStats();
+            updateStats(); // Update the UI progress bars
+
+            // If pet's sleep has fully recovered, stop the timer and notify the user
+            if (!stats.isSleeping() && !getStats().isDead()) {
+                sleepTimer.cancel();
+                JOptionPane.showMessageDialog(PetInteractionWindow.this,
+                        "Pet is fully rested!", "Sleep", JOptionPane.INFORMATION_MESSAGE);
+                // Optionally re-enable user actions here.
             }
         });
-        sleepTimer.start();
-        players.setScore(playerId, Integer.toString(players.getScore(playerId) + 1));
+        addScore(1);
         updateScore();
     }
 
@@ -1409,21 +1364,7 @@ public class PetInteractionWindow extends JPanel {
      */
     private void cleanupAndReturnToMain() {
         // Stop all timers
-        if (uiUpdateTimer != null) {
-            uiUpdateTimer.stop();
-        }
-        if (spriteUpdateTimer != null) {
-            spriteUpdateTimer.stop();
-        }
-        if (vetCooldownTimer != null) {
-            vetCooldownTimer.stop();
-        }
-        if (playCooldownTimer != null) {
-            playCooldownTimer.stop();
-        }
-        if (playtimeTimer != null) {
-            playtimeTimer.stop();
-        }
+        GameClock.getInstance().cancelGroup(clockGroup);
 
         // End tracking session in the global tracker
         if (playtimeTracker != null) {
@@ -1432,8 +1373,15 @@ public class PetInteractionWindow extends JPanel {
 
         // Save the current game state and cooldown times
         saveGame();
-        virtualPets.setVetCooldown(petId, vetCooldownSeconds);
-        virtualPets.setPlayCooldown(petId, playCooldownSeconds);
+        VirtualPets pets = virtualPets;
+        String pet = petId;
+        int vetCooldown = vetCooldownSeconds;
+        int playCooldown = playCooldownSeconds;
+        PersistenceExecutor.run(() -> {
+            pets.setVetCooldown(pet, vetCooldown);
+            pets.setPlayCooldown(pet, playCooldown);
+            pets.flush();
+        });
     }
 
     /**
@@ -1469,12 +1417,11 @@ public class PetInteractionWindow extends JPanel {
         }
 
         stats.setHealth(Math.min(100, health + 15));
-        virtualPets.setHealth(petId, stats.getHealth());
 
         // Start vet cooldown
         startVetCooldown(120);
         updateStats();
-        players.setScore(playerId, Integer.toString(players.getScore(playerId) - 1));
+        addScore(-1);
         updateScore();
     }
 
@@ -1517,7 +1464,7 @@ public class PetInteractionWindow extends JPanel {
         if (sleepingBlockAction())
             return;
 
-        System.out.println("Gift count: " + giftCount);
+        LOG.debug("Gift count: " + giftCount);
 
         // Create an inventory manager to get the actual inventory items
         InventoryManager inventoryManager = new InventoryManager(playerId, "Implementation/inventory.csv", petId);
@@ -1570,7 +1517,6 @@ public class PetInteractionWindow extends JPanel {
 
             // Apply gift effects to pet stats
             stats.setHappiness(Math.min(100, happiness + happinessValue));
-            virtualPets.setHappiness(petId, stats.getHappiness());
 
             inventoryManager.editQuantity(row, col, -1);
             inventoryManager.saveInventory();
@@ -1581,7 +1527,7 @@ public class PetInteractionWindow extends JPanel {
 
             updateInventory();
             updateStats();
-            players.setScore(playerId, Integer.toString(players.getScore(playerId) + 1));
+            addScore(1);
             updateScore();
             // Show gift message
             JOptionPane.showMessageDialog(this,
@@ -1644,16 +1590,66 @@ public class PetInteractionWindow extends JPanel {
      * Updates the player's score display.
      */
     private void updateScore() {
-        int score = players.getScore(playerId);
         scoreLabel.setText("Score: " + score);
     }
 
     /**
-     * Saves the current game state to the backend.
+     * Changes the player's score and writes it in the background.
+     *
+     * @param delta the amount to add to the score, negative to subtract
+     */
+    private void addScore(int delta) {
+        score += delta;
+        String player = playerId;
+        String value = Integer.toString(score);
+        PersistenceExecutor.run(() -> players.setScore(player, value));
+    }
+
+    /**
+     * Writes a snapshot of the current stats in the background, so the EDT never waits for the file.
+     */
+    private void persistStats() {
+        VitalStats snapshot = new VitalStats(stats.getHealth(), stats.getSleep(), stats.getHunger(),
+                stats.getHappiness(), stats.getType());
+        VirtualPets pets = virtualPets;
+        String pet = petId;
+        PersistenceExecutor.run(() -> pets.updateVitalStats(pet, snapshot));
+    }
+
+    /**
+     * Loads the stats of the current pet and catches up the decay of the time it was left alone.
+     */
+    private void loadStats() {
+        stats = virtualPets.getVitalStats(petId);
+        long offlineTicks = virtualPets.getOfflineTicks(petId);
+        if (offlineTicks > 0) {
+            OfflineDecay.advance(stats, offlineTicks);
+            // Saving also marks the pet as seen now, so the time is not counted again
+            saveGame();
+        }
+    }
+
+    /**
+     * Gets the type of the current pet, reading it only the first time.
+     *
+     * @return the pet type, e.g. "dog"
+     */
+    private String getPetType() {
+        if (petType == null) {
+            petType = virtualPets.getPetType(petId);
+        }
+        return petType;
+    }
+
+    /**
+     * Saves the current game state to the backend. The writes run in the background
+     * in the order they were made.
      */
     public void saveGame() {
-        virtualPets.updateVitalStats(petId, stats);
-        virtualPets.updateLastAccessed(petId);
+        persistStats();
+        VirtualPets pets = virtualPets;
+        String pet = petId;
+        PersistenceExecutor.run(() -> pets.updateLastAccessed(pet));
     }
 
     /**
@@ -1668,9 +1664,12 @@ public class PetInteractionWindow extends JPanel {
 
         // Update the virtual pets instance
         virtualPets = new VirtualPets("Implementation/pets.csv");
+        virtualPets.setWriteBehind(true);
+        petType = null;
+        score = players.getScore(playerId);
 
         // Load the current stats for the new pet
-        stats = virtualPets.getVitalStats(petId);
+        loadStats();
 
         // Update the pet name
         petNameLabel.setText(virtualPets.getPetName(petId));
@@ -1685,34 +1684,29 @@ public class PetInteractionWindow extends JPanel {
 
     /**
      * Starts tracking playtime for parental controls.
-     * Initializes the playtime timer and updates the status display.
+     * The tracker shows the limit warning and reports the limit at their deadlines;
+     * the playtime timer only refreshes the status display.
      */
     private void startPlaytimeTracking() {
         // Start tracking with the global tracker
         playtimeTracker.startSession(playerId, commands);
 
-        // Start local timer for UI updates (every second instead of 5 seconds)
-        playtimeTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                // Update the display first
-                updatePlaytimeStatus();
-
-                // Directly check for limits and enforce them immediately
-                boolean canContinue = playtimeTracker.checkPlaytimeLimits(playerId, PetInteractionWindow.this);
-                if (!canContinue) {
-                    // Immediately stop the timer to prevent multiple enforcements
-                    playtimeTimer.stop();
-                    
-                    // Use SwingUtilities.invokeLater to avoid timer thread issues
-                    SwingUtilities.invokeLater(() -> {
-                        System.out.println("ENFORCING PLAYTIME LIMIT - EXITING GAME");
-                        enforcePlaytimeLimit();
-                    });
-                }
+        // Enforce the limit as soon as the tracker reports it
+        playtimeTracker.watchLimits(playerId, this, () -> {
+            // Stop refreshing the status, the window is about to close
+            if (playtimeTimer != null) {
+                playtimeTimer.cancel();
             }
+
+            // Use SwingUtilities.invokeLater so the dialog does not block the clock
+            SwingUtilities.invokeLater(() -> {
+                LOG.info("ENFORCING PLAYTIME LIMIT - EXITING GAME");
+                enforcePlaytimeLimit();
+            });
         });
-        playtimeTimer.start();
+
+        // Refresh the session time shown in the status display every second
+        playtimeTimer = GameClock.getInstance().schedule("playtime-status", clockGroup, 1000, this::updatePlaytimeStatus);
 
         // Update the initial status display
         updatePlaytimeStatus();
@@ -1726,8 +1720,8 @@ public class PetInteractionWindow extends JPanel {
             String statusText = playtimeTracker.getPlaytimeStatusText(playerId);
             playtimeStatusLabel.setText(statusText);
             
-            // The limit check is already done in the timer action listener,
-            // so we don't need to check it again here to avoid duplicate enforcements
+            // The limit is enforced by the tracker's deadline events,
+            // so we don't check it here to avoid duplicate enforcements
         } else {
             playtimeStatusLabel.setText("Playtime: Not tracking");
         }
@@ -1795,7 +1789,6 @@ public class PetInteractionWindow extends JPanel {
 
             // Apply medicine effects to pet stats
             stats.setHealth(Math.min(100, health + healthValue));
-            virtualPets.setHealth(petId, stats.getHealth());
 
             // Decrease the item's quantity in inventory
             inventoryManager.editQuantity(row, col, -1);
@@ -1805,7 +1798,7 @@ public class PetInteractionWindow extends JPanel {
             updateInventory();
             updateStats();
 
-            players.setScore(playerId, Integer.toString(players.getScore(playerId) - 1));
+            addScore(-1);
             updateScore();
             // Show medicine message
             JOptionPane.showMessageDialog(this,
@@ -0,0 +1,124 @@
+package Implementation;
+
+/**
+ * The attributes of a pet that rarely change: its ID, owner, name and type.
+ * A profile is immutable; {@code VirtualPets} hands out a new one after any of these
+ * attributes changes, so callers can read it as often as they like without touching the CSV data.
+ */
+public final class PetProfile {
+    /** Column of the pet type index in rows written before the pet type column existed */
+    private static final int LEGACY_TYPE_COLUMN = 9;
+    /** Column of the pet type string */
+    private static final int TYPE_COLUMN = 12;
+
+    private final String petId;
+    private final String ownerId;
+    private final String name;
+    private final String type;
+    private final int typeIndex;
+
+    private PetProfile(String petId, String ownerId, String name, String type) {
+        this.petId = petId;
+        this.ownerId = ownerId;
+        this.name = name;
+        this.type = type;
+        this.typeIndex = indexOf(type);
+    }
+
+    /**
+     * Builds the profile of a row of pets.csv.
+     * The pet type defaults to "cat" when the type column is missing or empty, falling back to
+     * the type index stored in column 9 by older versions of the game.
+     *
+     * @param cells The cells of the row
+     * @return The profile of the pet
+     */
+    static PetProfile fromRow(String[] cells) {
+        return new PetProfile(cell(cells, 0), cell(cells, 1), cell(cells, 2), typeOf(cells));
+    }
+
+    /**
+     * Returns whether a change to the given column can change the profile of a row.
+     *
+     * @param column The changed column
+     * @param cells The cells of the row after the change
+     * @return true if the profile needs to be rebuilt
+     */
+    static boolean dependsOn(int column, String[] cells) {
+        return column <= 2 || column == TYPE_COLUMN || (column == LEGACY_TYPE_COLUMN && cells.length <= TYPE_COLUMN);
+    }
+
+    /**
+     * Gets the pet ID.
+     *
+     * @return The pet ID
+     */
+    public String getPetId() {
+        return petId;
+    }
+
+    /**
+     * Gets the ID of the player who owns the pet.
+     *
+     * @return The owner's player ID
+     */
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Gets the name of the pet.
+     *
+     * @return The pet name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the pet type as a lowercase string, e.g. "dog", "cat" or "dragon".
+     *
+     * @return The pet type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the pet type index used by {@code VitalStats}: 0 for dog, 1 for cat and 2 for dragon.
+     * Unknown types count as cats.
+     *
+     * @return The pet type index
+     */
+    public int getTypeIndex() {
+        return typeIndex;
+    }
+
+    private static String cell(String[] cells, int column) {
+        return column < cells.length ? cells[column] : null;
+    }
+
+    private static String typeOf(String[] cells) {
+        if (cells.length <= TYPE_COLUMN) {
+            if (cells.length > LEGACY_TYPE_COLUMN) {
+                try {
+                    switch (Integer.parseInt(cells[LEGACY_TYPE_COLUMN])) {
+                        case 0: return "dog";
+                        case 1: return "cat";
+                        case 2: return "dragon";
+                    }
+                } catch (NumberFormatException e) { /* ignore, proceed to default */ }
+            }
+            return "cat";
+        }
+        String type = cells[TYPE_COLUMN];
+        if (type == null || type.trim().isEmpty()) {
+            return "cat";
+        }
+        return type.toLowerCase();
+    }
+
+    private static int indexOf(String type) {
+        return SpeciesProfile.forType(type).getIndex();
+    }
+}
@@ -43,7 +43,7 @@ public class PetSelectionGUI extends JPanel {
     /** Manager for player data */
     private Players players;
     /** Timer for sprite animation */
-    private Timer spriteUpdateTimer;
+    private GameClock.Registration spriteUpdateTimer;
     /** Current path of the pet's sprite */
     private String currentSpritePath;
     /** Label for displaying the pet sprite in naming screen */
@@ -265,33 +265,20 @@ public class PetSelectionGUI extends JPanel {
 
     /**
      * Loads and resizes a pet icon from the file system.
+     * Icons come from the shared {@link SpriteCache}, so each frame is only decoded and scaled once.
      *
      * @param filename the path to the icon file
      * @param isNamingScreen whether the icon is being loaded for the naming screen
      * @return the loaded and resized ImageIcon, or null if loading fails
      */
     private ImageIcon loadPetIcon(String filename, boolean isNamingScreen) {
-        try {
-            // Try to load from icons directory
-            ImageIcon icon = new ImageIcon("Implementation/Icons/" + filename);
-            if (icon.getIconWidth() <= 0) {
-                return null; // Image not loaded properly
-            }
-
-            // Resize icon to fit well in the UI
-            Image img = icon.getImage();
-            Image resizedImg;
-            if (filename.startsWith("dog/")) {
-                resizedImg = img.getScaledInstance(200, 100, Image.SCALE_SMOOTH);
-            } else if (filename.startsWith("cat/")) {
-                resizedImg = img.getScaledInstance(150, 100, Image.SCALE_SMOOTH);
-            } else {
-                resizedImg = img.getScaledInstance(200, 200, Image.SCALE_SMOOTH);
-            }
-            return new ImageIcon(resizedImg);
-        } catch (Exception e) {
-            System.out.println("Failed to load icon: " + filename);
-            return null; // Return null if the icon cannot be loaded
+        // Resize icon to fit well in the UI
+        if (filename.startsWith("dog/")) {
+            return SpriteCache.getIcon(filename, 200, 100);
+        } else if (filename.startsWith("cat/")) {
+            return SpriteCache.getIcon(filename, 150, 100);
+        } else {
+            return SpriteCache.getIcon(filename, 200, 200);
         }
     }
 
@@ -387,24 +374,20 @@ public class PetSelectionGUI extends JPanel {
 
         // Start sprite animation timer
         if (spriteUpdateTimer != null) {
-            spriteUpdateTimer.stop();
+            spriteUpdateTimer.cancel();
         }
-        spriteUpdateTimer = new Timer(500, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (currentSpritePath.equals(petType + "/default_1.png")) {
-                    currentSpritePath = petType + "/default_2.png";
-                } else {
-                    currentSpritePath = petType + "/default_1.png";
-                }
-                ImageIcon newIcon = loadPetIcon(currentSpritePath, true);
-                if (newIcon != null) {
-                    petSpriteLabel.setIcon(newIcon);
-                    petSpriteLabel.setText(""); // Clear placeholder text
-                }
+        spriteUpdateTimer = GameClock.getInstance().schedule("selection-sprite", 500, () -> {
+            if (currentSpritePath.equals(petType + "/default_1.png")) {
+                currentSpritePath = petType + "/default_2.png";
+            } else {
+                currentSpritePath = petType + "/default_1.png";
+            }
+            ImageIcon newIcon = loadPetIcon(currentSpritePath, true);
+            if (newIcon != null) {
+                petSpriteLabel.setIcon(newIcon);
+                petSpriteLabel.setText(""); // Clear placeholder text
             }
         });
-        spriteUpdateTimer.start();
 
         // Create right panel for naming interface
         JPanel namingPanel = new JPanel();
@@ -480,7 +463,7 @@ public class PetSelectionGUI extends JPanel {
                     
                     // Stop the sprite animation timer
                     if (spriteUpdateTimer != null) {
-                        spriteUpdateTimer.stop();
+                        spriteUpdateTimer.cancel();
                     }
                     
                     // Generate a unique pet ID
@@ -493,8 +476,7 @@ public class PetSelectionGUI extends JPanel {
                     VitalStats initialStats = new VitalStats(100, 100, 100, 100, selectedPetIndex);
                     
                     // Add the new pet to the CSV file
-                    List<String[]> data = virtualPets.readCSV();
-                    String[] newPet = new String[13];  // Increased size to 13
+                    String[] newPet = new String[14];  // Increased size to 14
                     newPet[0] = petId;                    // Pet ID
                     newPet[1] = "player";                 // Player ID
                     newPet[2] = selectedPetName;          // Pet Name
@@ -508,9 +490,9 @@ public class PetSelectionGUI extends JPanel {
                     newPet[10] = "0";                     // Play Cooldown
                     newPet[11] = Implementation.Date.now().toString(); // Last Accessed Date (String)
                     newPet[12] = PET_TYPES.get(selectedPetIndex).toLowerCase(); // Pet Type String
+                    newPet[13] = String.valueOf(System.currentTimeMillis() / 1000); // Last Seen (epoch seconds)
 
-                    data.add(newPet);
-                    virtualPets.writeCSV(data);
+                    virtualPets.addRow(newPet);
                     
                     // Switch to pet interaction window
                     parentFrame.openPetInteraction(petId);
@@ -0,0 +1,107 @@
+package Implementation;
+import java.util.List;
+
+/**
+ * A columnar, typed view of pets.csv. The numeric columns (age, vital stats, cooldowns and last seen time)
+ * are parsed once into primitive arrays, one array per column, so reading a stat is an array
+ * access instead of a parse. The ID, owner, name and type of each pet are kept as a {@link PetProfile}.
+ * The view is kept in sync by {@link CachedTable} and all reads are synchronized on the view.
+ */
+final class PetTable implements TableView {
+    /** Marks a numeric cell that is missing or not a number */
+    static final int INVALID = Integer.MIN_VALUE;
+
+    static final int AGE = 3;
+    static final int HUNGER = 4;
+    static final int HAPPINESS = 5;
+    static final int HEALTH = 6;
+    static final int SLEEP = 7;
+    static final int VET_COOLDOWN = 9;
+    static final int PLAY_COOLDOWN = 10;
+    /**
+     * When the pet's stats were last brought up to date, in seconds since the epoch, so that the
+     * binary stores keep it in an int slot rather than adding a new string on every save
+     */
+    static final int LAST_SEEN = 13;
+
+    /** The CSV columns held as ints */
+    static final int[] NUMERIC_COLUMNS = {AGE, HUNGER, HAPPINESS, HEALTH, SLEEP, VET_COOLDOWN, PLAY_COOLDOWN, LAST_SEEN};
+    /** Number of columns in a full pet row */
+    static final int WIDTH = 14;
+
+    /** Parsed values by CSV column and row, or null for columns that are not numeric */
+    private final int[][] columns = new int[WIDTH][];
+    /** The profile of each row */
+    private PetProfile[] profiles = new PetProfile[0];
+    private int size;
+
+    @Override
+    public synchronized void rebuild(List<String[]> rows) {
+        size = rows.size();
+        for (int column : NUMERIC_COLUMNS) {
+            columns[column] = new int[size];
+        }
+        profiles = new PetProfile[size];
+        for (int row = 0; row < size; row++) {
+            String[] cells = rows.get(row);
+            for (int column : NUMERIC_COLUMNS) {
+                columns[column][row] = parse(cells, column);
+            }
+            profiles[row] = PetProfile.fromRow(cells);
+        }
+    }
+
+    @Override
+    public synchronized void cellChanged(int row, int column, String[] cells) {
+        if (row >= size) {
+            return;
+        }
+        if (column < WIDTH && columns[column] != null) {
+            columns[column][row] = parse(cells, column);
+        }
+        if (PetProfile.dependsOn(column, cells)) {
+            profiles[row] = PetProfile.fromRow(cells);
+        }
+    }
+
+    /**
+     * Returns the number of rows in the view.
+     *
+     * @return The number of rows
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the parsed value of a numeric cell.
+     *
+     * @param row The row index
+     * @param column One of the numeric column constants
+     * @return The value, or {@link #INVALID} if the row does not exist or the cell is missing or not a number
+     */
+    synchronized int get(int row, int column) {
+        return row >= 0 && row < size ? columns[column][row] : INVALID;
+    }
+
+    /**
+     * Returns the profile of a row.
+     *
+     * @param row The row index
+     * @return The profile, or null if the row does not exist
+     */
+    synchronized PetProfile getProfile(int row) {
+        return row >= 0 && row < size ? profiles[row] : null;
+    }
+
+    private static int parse(String[] cells, int column) {
+        if (column >= cells.length || cells[column] == null) {
+            return INVALID;
+        }
+        try {
+            return Integer.parseInt(cells[column]);
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+}
@@ -66,14 +66,13 @@ public class InventoryManager {
      * Loads inventory data from the CSV file.
      */
     public void loadInventory() {
-        List<String[]> data = inventory.readCSV();
         initializeEmptyInventory(); // Reset current inventory
         // Clear itemCount before reloading
         itemCount.clear();
         
-        int position = 0;
-        for (String[] row : data) {
-            if (row.length == 5 && row[0].equals(playerId) && position <= 8) {
+        // Only the first 9 rows are read, so stop the scan there
+        inventory.forEachRow((position, row) -> {
+            if (row.length == 5 && row[0].equals(playerId)) {
                 if (position < MAX_SPACE) {
                     int gridRow = position / GRID_SIZE;
                     int gridCol = position % GRID_SIZE;
@@ -95,8 +94,8 @@ public class InventoryManager {
                     }
                 }
             }
-            position++;
-        }
+            return position < 8;
+        });
     }
 
     /**
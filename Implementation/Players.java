@@ -1,5 +1,4 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code Player} class extends {@code DataManager} to provide specific
@@ -9,6 +8,8 @@ import java.util.List;
  * and in-game currency.
  */
 public class Players extends DataManager {
+    /** Index of player rows by player ID */
+    private static final IndexSpec PLAYER_ID = IndexSpec.firstMatch(0);
     private int score;
     /**
      * Constructs a {@code Player} object with the specified CSV file path.
@@ -46,15 +47,7 @@ public class Players extends DataManager {
      * @return The index of the player's row, or -1 if not found.
      */
     private int findRow(String playerId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(playerId)) {
-                return index;
-            }
-            index++;
-        }
-        return -1;
+        return lookupRow(PLAYER_ID, playerId);
     }
 
     /**
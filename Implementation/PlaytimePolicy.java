@@ -0,0 +1,102 @@
+package Implementation;
+
+/**
+ * An immutable snapshot of a player's playtime limit settings, as stored by {@link ParentalControls}.
+ * <p>
+ * The playtime tracker loads the policy once when a session starts and then checks the limit
+ * with plain arithmetic instead of reading the parental controls file on every check. Code that
+ * changes the settings must call {@link PlaytimeTracker#invalidatePolicy(String)} so the next
+ * check sees the new values.
+ */
+public final class PlaytimePolicy {
+    /** A policy without a limit, used when no settings are available */
+    public static final PlaytimePolicy UNLIMITED = new PlaytimePolicy(false, 0, 0);
+
+    private final boolean limitEnabled;
+    private final int savedPlaytimeMinutes;
+    private final int maxAllowedPlaytimeMinutes;
+
+    /**
+     * Creates a policy.
+     *
+     * @param limitEnabled Whether the playtime limit is enforced
+     * @param savedPlaytimeMinutes The playtime recorded before the current session, in minutes
+     * @param maxAllowedPlaytimeMinutes The maximum allowed playtime, in minutes
+     */
+    public PlaytimePolicy(boolean limitEnabled, int savedPlaytimeMinutes, int maxAllowedPlaytimeMinutes) {
+        this.limitEnabled = limitEnabled;
+        this.savedPlaytimeMinutes = savedPlaytimeMinutes;
+        this.maxAllowedPlaytimeMinutes = maxAllowedPlaytimeMinutes;
+    }
+
+    /**
+     * Reads the current settings of a player.
+     *
+     * @param controls The parental controls data to read from
+     * @param playerId The ID of the player
+     * @return The player's policy
+     */
+    public static PlaytimePolicy load(ParentalControls controls, String playerId) {
+        return new PlaytimePolicy(
+                controls.getPlaytimeLimitEnabled(playerId),
+                controls.getPlaytimeMinutes(playerId),
+                controls.getMaxAllowedPlaytimeMinutes(playerId));
+    }
+
+    /**
+     * Gets whether the playtime limit is enforced.
+     *
+     * @return true if the limit is enforced
+     */
+    public boolean isLimitEnabled() {
+        return limitEnabled;
+    }
+
+    /**
+     * Gets the playtime recorded before the current session.
+     *
+     * @return The saved playtime in minutes
+     */
+    public int getSavedPlaytimeMinutes() {
+        return savedPlaytimeMinutes;
+    }
+
+    /**
+     * Gets the maximum allowed playtime.
+     *
+     * @return The maximum allowed playtime in minutes
+     */
+    public int getMaxAllowedPlaytimeMinutes() {
+        return maxAllowedPlaytimeMinutes;
+    }
+
+    /**
+     * Gets the total playtime including the current session.
+     *
+     * @param sessionMinutes The minutes played in the current session
+     * @return The total playtime in minutes
+     */
+    public int getTotalMinutes(int sessionMinutes) {
+        return savedPlaytimeMinutes + sessionMinutes;
+    }
+
+    /**
+     * Gets the playtime left before the limit is reached.
+     *
+     * @param sessionMinutes The minutes played in the current session
+     * @return The remaining minutes, zero or negative once the limit is reached
+     */
+    public int getRemainingMinutes(int sessionMinutes) {
+        return maxAllowedPlaytimeMinutes - getTotalMinutes(sessionMinutes);
+    }
+
+    /**
+     * Checks whether the limit is enforced and reached.
+     *
+     * @param sessionMinutes The minutes played in the current session
+     * @return true if the player must stop playing
+     */
+    public boolean isExceeded(int sessionMinutes) {
+        return limitEnabled && getRemainingMinutes(sessionMinutes) <= 0;
+    }
+}
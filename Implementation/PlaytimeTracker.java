@@ -1,133 +1,327 @@
 package Implementation;
 
 import javax.swing.*;
-import java.awt.event.*;
-import java.util.HashMap;
+import java.awt.Component;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * Global playtime tracker that manages play sessions across the entire application.
  * This singleton class ensures playtime is accurately tracked even when navigating
  * between different game screens.
+ * <p>
+ * Sessions are kept in a concurrent map and only remember when they started, on a monotonic
+ * clock; the time played is computed when it is asked for. There is no per-second work, so the
+ * cost of the tracker does not grow with the number of sessions, and sessions may be started
+ * and ended from any thread.
+ * <p>
+ * The parental limits of a player are read once per session into a {@link PlaytimePolicy}, so
+ * checking the limit is an in-memory comparison. Code that changes the limits calls
+ * {@link #invalidatePolicy(String)} to have them read again.
+ * <p>
+ * When a session starts or its limits change, the tracker works out the exact instants at which
+ * the limit warning and the limit itself are due and schedules one-shot {@link GameClock} events
+ * for them, so nothing runs in between. A window registers with {@link #watchLimits} to show the
+ * warning and to be told when the limit is reached.
  */
 public class PlaytimeTracker {
-    // Singleton instance
-    private static PlaytimeTracker instance;
-    
+    private static final Log LOG = Log.get(PlaytimeTracker.class);
+
+    // Minutes before the limit at which the warning is shown
+    private static final int WARNING_MINUTES = 5;
+
+    // Session metrics, counted across all trackers
+    private static final Metrics.Counter SESSIONS_STARTED = Metrics.counter("playtime.sessionsStarted");
+    private static final Metrics.Counter SESSIONS_ENDED = Metrics.counter("playtime.sessionsEnded");
+    private static final Metrics.Counter LIMITS_REACHED = Metrics.counter("playtime.limitsReached");
+    private static final LatencyHistogram SESSION_LENGTH = Metrics.histogram("playtime.sessionLength");
+
     // Track active sessions
-    private Map<String, SessionData> activeSessions;
-    
-    // Global timer to track all sessions
-    private Timer globalTimer;
+    private final Map<String, SessionData> activeSessions = new ConcurrentHashMap<>();
+
+    // Clock providing the monotonic time of sessions and running the limit events
+    private final GameClock clock;
+
+    // Whether this tracker is independent of the game's data files
+    private final boolean standalone;
+
+    // Reads the limit policy of a player
+    private final Function<String, PlaytimePolicy> policyLoader;
     
     // Internal class to store session data
     private class SessionData {
-        private String playerId;
-        private long startTimeMillis;
-        private int secondsPlayed;
-        private boolean limitWarningShown;
-        private ParentalControls controls;
-        private Commands commands;
+        private final String playerId;
+        private final long startNanos;
+        private final AtomicBoolean limitWarningShown = new AtomicBoolean();
+        private final AtomicBoolean limitReached = new AtomicBoolean();
+        private final Commands commands;
+        private PlaytimePolicy policy;
+        // Where the warning is shown and who is told when the limit is reached, set by watchLimits
+        private Component warningParent;
+        private Runnable onLimitReached;
+        // The pending limit events, null when none is scheduled
+        private GameClock.Registration warningEvent;
+        private GameClock.Registration limitEvent;
         
         public SessionData(String playerId, Commands commands) {
             this.playerId = playerId;
-            this.startTimeMillis = System.currentTimeMillis();
-            this.secondsPlayed = 0;
-            this.limitWarningShown = false;
-            this.controls = new ParentalControls();
+            this.startNanos = clock.nanoTime();
             this.commands = commands;
         }
-        
-        public void incrementTime(int seconds) {
-            this.secondsPlayed += seconds;
+
+        /**
+         * Set who is told about the limits
+         * @return true if the limit was already reached, in which case the caller tells the watcher
+         */
+        public synchronized boolean watch(Component parent, Runnable onLimit) {
+            this.warningParent = parent;
+            this.onLimitReached = onLimit;
+            return limitReached.get();
+        }
+
+        /**
+         * Mark the limit as reached
+         * @return The callback to run, or null if there is none or the limit was already reached
+         */
+        public synchronized Runnable markLimitReached() {
+            return limitReached.compareAndSet(false, true) ? onLimitReached : null;
+        }
+
+        public synchronized Component getWarningParent() {
+            return warningParent;
+        }
+
+        /**
+         * Schedule one-shot events for the warning and the limit, replacing any pending ones
+         */
+        public synchronized void scheduleLimitEvents() {
+            cancelLimitEvents();
+            PlaytimePolicy current = getPolicy();
+            if (!current.isLimitEnabled() || limitReached.get()) {
+                return;
+            }
+            // Whole minutes played are compared with the allowance, so the limit is due once the
+            // session has lasted exactly the remaining minutes, and the warning five minutes earlier
+            long elapsed = clock.nanoTime() - startNanos;
+            long limitNanos = TimeUnit.MINUTES.toNanos(current.getRemainingMinutes(0));
+            long warningNanos = limitNanos - TimeUnit.MINUTES.toNanos(WARNING_MINUTES);
+            if (!limitWarningShown.get() && elapsed < limitNanos) {
+                warningEvent = clock.scheduleOnce("playtime-warning", "playtime",
+                        toDelayMillis(warningNanos - elapsed), () -> onDeadline(this));
+            }
+            limitEvent = clock.scheduleOnce("playtime-limit", "playtime",
+                    toDelayMillis(limitNanos - elapsed), () -> onDeadline(this));
+        }
+
+        public synchronized void cancelLimitEvents() {
+            if (warningEvent != null) {
+                warningEvent.cancel();
+                warningEvent = null;
+            }
+            if (limitEvent != null) {
+                limitEvent.cancel();
+                limitEvent = null;
+            }
+        }
+
+        /**
+         * Get the limit policy, reading it if it was never read or invalidated
+         */
+        public synchronized PlaytimePolicy getPolicy() {
+            if (policy == null) {
+                policy = policyLoader.apply(playerId);
+            }
+            return policy;
+        }
+
+        public synchronized void invalidatePolicy() {
+            policy = null;
         }
         
         public int getSecondsPlayed() {
-            return secondsPlayed;
+            return (int) TimeUnit.NANOSECONDS.toSeconds(clock.nanoTime() - startNanos);
         }
         
         public int getMinutesPlayed() {
-            return secondsPlayed / 60;
-        }
-        
-        public boolean isLimitWarningShown() {
-            return limitWarningShown;
+            return getSecondsPlayed() / 60;
         }
         
-        public void setLimitWarningShown(boolean shown) {
-            this.limitWarningShown = shown;
+        /**
+         * Marks the limit warning as shown
+         * @return true if this call marked it, false if it was already shown
+         */
+        public boolean markLimitWarningShown() {
+            return limitWarningShown.compareAndSet(false, true);
         }
     }
+
+    // Lazily created shared instance, initialized safely by the class loader
+    private static final class Holder {
+        private static final PlaytimeTracker INSTANCE = new PlaytimeTracker(GameClock.getInstance(), false,
+                playerId -> PlaytimePolicy.load(new ParentalControls(), playerId));
+    }
     
     /**
      * Private constructor for singleton pattern
      */
-    private PlaytimeTracker() {
-        activeSessions = new HashMap<>();
-        
-        // Create global timer that ticks every 1 second (was 10 seconds)
-        globalTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                updateAllSessions();
-            }
-        });
-        
-        globalTimer.start();
+    private PlaytimeTracker(GameClock clock, boolean standalone, Function<String, PlaytimePolicy> policyLoader) {
+        this.clock = clock;
+        this.standalone = standalone;
+        this.policyLoader = policyLoader;
+        if (!standalone) {
+            Metrics.gauge("playtime.activeSessions", activeSessions::size);
+        }
     }
     
     /**
      * Get the singleton instance
      */
     public static PlaytimeTracker getInstance() {
-        if (instance == null) {
-            instance = new PlaytimeTracker();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates a tracker separate from the shared instance, e.g. to track many profiles headless
+     * or in tests. A standalone tracker does not create parental control records for its players
+     * and does not limit their playtime.
+     *
+     * @param clock The clock that times sessions, e.g. {@link GameClock#createManual()}
+     * @return A new tracker without sessions
+     */
+    public static PlaytimeTracker createStandalone(GameClock clock) {
+        return createStandalone(clock, playerId -> PlaytimePolicy.UNLIMITED);
+    }
+
+    /**
+     * Creates a tracker separate from the shared instance that limits playtime by the given policies.
+     *
+     * @param clock The clock that times sessions and runs their limit events
+     * @param policyLoader Reads the limit policy of a player
+     * @return A new tracker without sessions
+     */
+    public static PlaytimeTracker createStandalone(GameClock clock, Function<String, PlaytimePolicy> policyLoader) {
+        return new PlaytimeTracker(clock, true, policyLoader);
     }
     
     /**
      * Start tracking a new session for a player
      */
     public void startSession(String playerId, Commands commands) {
-        if (activeSessions.containsKey(playerId)) {
+        // Only the caller that adds the session sets it up
+        if (activeSessions.putIfAbsent(playerId, new SessionData(playerId, commands)) != null) {
             return;
         }
+        SESSIONS_STARTED.increment();
         
-        // Create and store new session
-        activeSessions.put(playerId, new SessionData(playerId, commands));
-        
-        // Ensure the player exists in the database
-        ensurePlayerExists(playerId);
-    
-        System.out.println("Added new session for player: " + playerId);
+        SessionData session = activeSessions.get(playerId);
+        if (!standalone) {
+            // Ensure the player exists in the database
+            ensurePlayerExists(playerId);
+            LOG.info("Added new session for player: " + playerId);
+        }
+
+        // Read the limits once for the whole session and schedule their deadlines
+        if (session != null) {
+            session.scheduleLimitEvents();
+        }
     }
-    
+
     /**
-     * End tracking for a player session and update statistics
+     * Have the limit warning of a session shown on a component and be told when its limit is reached.
+     * The callback runs on the thread of the tracker's clock, which is the EDT for the shared tracker.
+     * @param parentComponent Where the warning dialog is shown, or null to not show it
+     * @param onLimitReached Called once when the playtime limit is reached
      */
-    public void endSession(String playerId) {
+    public void watchLimits(String playerId, Component parentComponent, Runnable onLimitReached) {
         SessionData session = activeSessions.get(playerId);
         if (session == null) {
-            System.out.println("No active session found for player: " + playerId);
+            LOG.debug(() -> "No active session found for player: " + playerId);
             return;
         }
-        
+        // The limit may already have been reached before anyone watched it
+        if (session.watch(parentComponent, onLimitReached) && onLimitReached != null) {
+            onLimitReached.run();
+        }
+    }
+
+    /**
+     * Handle a limit event: show the warning or report the limit if due, and schedule what is left.
+     * Events may run up to one clock tick early, in which case they are simply scheduled again.
+     */
+    private void onDeadline(SessionData session) {
+        if (activeSessions.get(session.playerId) != session) {
+            return; // The session ended
+        }
+        if (checkLimits(session, session.getWarningParent())) {
+            session.scheduleLimitEvents();
+            return;
+        }
+        LOG.info("Playtime limit reached for player: " + session.playerId);
+        LIMITS_REACHED.increment();
+        Runnable callback = session.markLimitReached();
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    private static long toDelayMillis(long nanos) {
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos + 999_999);
+    }
+
+    /**
+     * Discard the cached limit policy of a player, so the next check reads the changed settings.
+     * Must be called whenever the parental control settings or playtime statistics of a player change.
+     */
+    public void invalidatePolicy(String playerId) {
+        SessionData session = activeSessions.get(playerId);
+        if (session != null) {
+            session.invalidatePolicy();
+            session.scheduleLimitEvents();
+        }
+    }
+    
+    /**
+     * End tracking for a player session and update statistics
+     * @return The seconds played in the ended session, or 0 if the player had no session
+     */
+    public int endSession(String playerId) {
+        // Removing first ensures only one caller records the statistics of a session
+        SessionData session = activeSessions.remove(playerId);
+        if (session == null) {
+            if (!standalone) {
+                LOG.debug(() -> "No active session found for player: " + playerId);
+            }
+            return 0;
+        }
+        return recordSession(session);
+    }
+
+    /**
+     * Record the playtime statistics of a session that was removed from the active sessions
+     * @return The seconds played in the session
+     */
+    private int recordSession(SessionData session) {
+        session.cancelLimitEvents();
+        String playerId = session.playerId;
+        int secondsPlayed = session.getSecondsPlayed();
+        SESSIONS_ENDED.increment();
+        SESSION_LENGTH.record(TimeUnit.SECONDS.toNanos(secondsPlayed));
         try {
             // Update playtime statistics
-            int minutesPlayed = session.getMinutesPlayed();            
+            int minutesPlayed = secondsPlayed / 60;
             if (session.commands != null) {
                 session.commands.updatePlayTimeStatistics(playerId, minutesPlayed);
-            } else {
-                System.err.println("Commands object is null for player: " + playerId);
+            } else if (!standalone) {
+                LOG.warn("Commands object is null for player: " + playerId);
             }
         } catch (Exception e) {
-            System.err.println("Error ending session: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error ending session: " + e.getMessage(), e);
         }
-        
-        // Remove session
-        activeSessions.remove(playerId);
+        return secondsPlayed;
     }
     
     /**
@@ -137,6 +331,20 @@ public class PlaytimeTracker {
         SessionData session = activeSessions.get(playerId);
         return session != null ? session.getSecondsPlayed() : 0;
     }
+
+    /**
+     * Get the number of players with an active session
+     */
+    public int getActiveSessionCount() {
+        return activeSessions.size();
+    }
+
+    /**
+     * Check if a player has an active session
+     */
+    public boolean hasSession(String playerId) {
+        return activeSessions.containsKey(playerId);
+    }
     
     /**
      * Get the current session time in minutes
@@ -152,30 +360,32 @@ public class PlaytimeTracker {
     public boolean checkPlaytimeLimits(String playerId, JPanel parentComponent) {
         SessionData session = activeSessions.get(playerId);
         if (session == null) {
-            System.out.println("No active session found for player: " + playerId);
+            LOG.debug(() -> "No active session found for player: " + playerId);
             return true; // Allow play if no session is tracked
         }
-        
+        boolean canContinue = checkLimits(session, parentComponent);
+        if (!canContinue) {
+            LOG.info("Playtime limit reached for player: " + playerId);
+        }
+        return canContinue;
+    }
+
+    /**
+     * Show the warning if it is due and check whether the limit of a session is reached
+     * @return true if the player may continue, false if the limit is reached
+     */
+    private boolean checkLimits(SessionData session, Component parentComponent) {
         try {
             // Get parental control settings
-            ParentalControls controls = new ParentalControls();
-            boolean isLimitEnabled = controls.getPlaytimeLimitEnabled(playerId);
+            PlaytimePolicy policy = session.getPolicy();
 
-            if (isLimitEnabled) {
-                // Get current and max allowed playtime
-                int currentPlaytime = controls.getPlaytimeMinutes(playerId);
-                int maxAllowedPlaytime = controls.getMaxAllowedPlaytimeMinutes(playerId);
-                
-                // Calculate total and remaining time
+            if (policy.isLimitEnabled()) {
+                // Calculate remaining time
                 int sessionMinutes = session.getMinutesPlayed();
-                int totalPlaytime = currentPlaytime + sessionMinutes;
-                int remainingMinutes = maxAllowedPlaytime - totalPlaytime;
-                
+                int remainingMinutes = policy.getRemainingMinutes(sessionMinutes);
                 
                 // Show warning when approaching limit (5 minutes remaining)
-                if (remainingMinutes <= 5 && remainingMinutes > 0 && !session.isLimitWarningShown()) {
-                    session.setLimitWarningShown(true);
-                    
+                if (remainingMinutes <= WARNING_MINUTES && remainingMinutes > 0 && session.markLimitWarningShown()) {
                     if (parentComponent != null) {
                         SwingUtilities.invokeLater(() -> {
                             JOptionPane.showMessageDialog(parentComponent,
@@ -187,8 +397,7 @@ public class PlaytimeTracker {
                 }
                 
                 // Check if limit is exceeded
-                if (totalPlaytime >= maxAllowedPlaytime) {
-                    System.out.println("Playtime limit reached for player: " + playerId);
+                if (policy.isExceeded(sessionMinutes)) {
                     return false; // Limit exceeded, should not continue
                 }
             }
@@ -196,38 +405,30 @@ public class PlaytimeTracker {
             return true; // No limit or limit not exceeded
             
         } catch (Exception e) {
-            System.err.println("Error checking playtime limits: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error checking playtime limits: " + e.getMessage(), e);
             return true; // Allow play in case of error
         }
     }
     
-    /**
-     * Update all active sessions (called by timer)
-     */
-    private void updateAllSessions() {
-        // Add 1 second to each active session (was 10 seconds)
-        for (SessionData session : activeSessions.values()) {
-            session.incrementTime(1);
-        }  
-    }
-    
     /**
      * Force update playtime statistics for all players
      */
     public void forceUpdateAllStatistics() {
-        Map<String, SessionData> sessionsToRestore = new HashMap<>(activeSessions);
-        
-        for (String playerId : sessionsToRestore.keySet()) {
-            SessionData oldSession = sessionsToRestore.get(playerId);
-            Commands sessionCommands = oldSession != null ? oldSession.commands : null;
+        for (SessionData oldSession : new ArrayList<>(activeSessions.values())) {
+            Commands sessionCommands = oldSession.commands;
             
-            // End the session and update statistics
-            endSession(playerId);
+            // End the session and update statistics, unless another thread just ended it
+            if (!activeSessions.remove(oldSession.playerId, oldSession)) {
+                continue;
+            }
+            recordSession(oldSession);
             
-            // Restart session if we have the commands object
+            // Restart session if we have the commands object, keeping whoever watched its limits
             if (sessionCommands != null) {
-                startSession(playerId, sessionCommands);
+                startSession(oldSession.playerId, sessionCommands);
+                if (oldSession.onLimitReached != null) {
+                    watchLimits(oldSession.playerId, oldSession.getWarningParent(), oldSession.onLimitReached);
+                }
             }
         }
     }
@@ -236,14 +437,12 @@ public class PlaytimeTracker {
      * Shutdown the tracker and update all statistics
      */
     public void shutdown() {
-        globalTimer.stop();
-        
         // End all sessions
-        for (String playerId : new HashMap<>(activeSessions).keySet()) {
+        for (String playerId : new ArrayList<>(activeSessions.keySet())) {
             endSession(playerId);
         }
         
-        System.out.println("PlaytimeTracker shutdown complete");
+        LOG.info("PlaytimeTracker shutdown complete");
     }
     
     /**
@@ -256,33 +455,23 @@ public class PlaytimeTracker {
                 return "Playtime: Not tracking";
             }
             
-            ParentalControls controls = new ParentalControls();
-            int savedPlaytime = 0;
-            int maxAllowed = 0;
-            boolean limitEnabled = false;
-            
-            try {
-                savedPlaytime = controls.getPlaytimeMinutes(playerId);
-                maxAllowed = controls.getMaxAllowedPlaytimeMinutes(playerId);
-                limitEnabled = controls.getPlaytimeLimitEnabled(playerId);
-            } catch (Exception e) {
-                System.err.println("Error getting playtime data: " + e.getMessage());
-            }
+            PlaytimePolicy policy = session.getPolicy();
             
             // Calculate total playtime in minutes (including current session)
-            int sessionMinutes = session.getSecondsPlayed() / 60;
-            int sessionSeconds = session.getSecondsPlayed() % 60;
-            int totalPlaytime = savedPlaytime + sessionMinutes;
+            int secondsPlayed = session.getSecondsPlayed();
+            int sessionMinutes = secondsPlayed / 60;
+            int sessionSeconds = secondsPlayed % 60;
+            int totalPlaytime = policy.getTotalMinutes(sessionMinutes);
             
             return String.format(
                 "Playtime: %d min (Session: %d:%02d) | Limit: %s (%d/%d min)", 
                 totalPlaytime, sessionMinutes, sessionSeconds, 
-                limitEnabled ? "ON" : "OFF", 
-                totalPlaytime, maxAllowed
+                policy.isLimitEnabled() ? "ON" : "OFF", 
+                totalPlaytime, policy.getMaxAllowedPlaytimeMinutes()
             );
             
         } catch (Exception e) {
-            System.err.println("Error generating status text: " + e.getMessage());
+            LOG.warn("Error generating status text: " + e.getMessage());
             return "Playtime status unavailable";
         }
     }
@@ -297,9 +486,7 @@ public class PlaytimeTracker {
             
             if (row == -1) {
                 // Player doesn't exist, create a new entry
-                System.out.println("Creating new player in ParentalControls database: " + playerId);
-                java.util.List<String[]> data = controls.readCSV();
-                
+                LOG.info("Creating new player in ParentalControls database: " + playerId);
                 // Create a new row for the player with default values
                 String[] newRow = new String[6]; // 6 columns in ParentalControls CSV
                 newRow[0] = playerId;          // Player ID
@@ -309,27 +496,25 @@ public class PlaytimeTracker {
                 newRow[4] = "60";               // Max allowed playtime minutes (default: 3 minutes for testing)
                 newRow[5] = "0";               // Session count
                 
-                // Add the row and write back
-                data.add(newRow);
-                controls.writeCSV(data);
-                System.out.println("Created new player entry with 3 minute limit: " + playerId);
+                // Append the row
+                controls.addRow(newRow);
+                LOG.info("Created new player entry with 3 minute limit: " + playerId);
             } else {
                 // Player exists, make sure the data is valid for playtime tracking
-                System.out.println("Found existing player at row " + row + ": " + playerId);
+                LOG.debug(() -> "Found existing player at row " + row + ": " + playerId);
                 
                 try {
                     // Test if we can read playtime values from this player
                     boolean limitEnabled = controls.getPlaytimeLimitEnabled(playerId);
                     int maxAllowed = controls.getMaxAllowedPlaytimeMinutes(playerId);
                     
-                    System.out.println("Playtime limit: " + (limitEnabled ? "ON" : "OFF") + 
+                    LOG.debug(() -> "Playtime limit: " + (limitEnabled ? "ON" : "OFF") +
                                       ", Max allowed: " + maxAllowed + " minutes");
                 } catch (Exception e) {
                     // If there's an error reading values, it might be due to incompatible data format
-                    System.out.println("Error reading playtime values, updating player record: " + e.getMessage());
+                    LOG.warn("Error reading playtime values, updating player record: " + e.getMessage());
                     
                     // Update the player data to be compatible with our system
-                    java.util.List<String[]> data = controls.readCSV();
                     String[] newRow = new String[6];
                     newRow[0] = playerId;      // Keep the same ID
                     newRow[1] = "true";        // Enable limits
@@ -338,14 +523,12 @@ public class PlaytimeTracker {
                     newRow[4] = "3";           // 3 minute limit for testing
                     newRow[5] = "0";           // Reset session count
                     
-                    data.add(newRow);          // Add as a new row (will be found by findRow)
-                    controls.writeCSV(data);
-                    System.out.println("Added compatible player record for: " + playerId);
+                    controls.addRow(newRow);   // Add as a new row (will be found by findRow)
+                    LOG.info("Added compatible player record for: " + playerId);
                 }
             }
         } catch (Exception e) {
-            System.err.println("Error ensuring player exists: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error ensuring player exists: " + e.getMessage(), e);
         }
     }
 } 
\ No newline at end of file
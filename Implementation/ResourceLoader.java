@@ -3,14 +3,23 @@ package Implementation;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Utility class for loading resources consistently from both JAR files and the file system.
  * This class provides methods to load images, files, and other resources in a way that works
  * regardless of whether the application is running from a JAR or directly from the file system.
+ * The time taken to load and to scale images is recorded in the {@link Metrics} registry.
  */
 public class ResourceLoader {
+    private static final Log LOG = Log.get(ResourceLoader.class);
+    /** Time to find and decode an image, in nanoseconds */
+    static final LatencyHistogram IMAGE_LOAD_TIME = Metrics.histogram("resource.imageLoad");
+    /** Time to scale a decoded image, in nanoseconds */
+    static final LatencyHistogram IMAGE_SCALE_TIME = Metrics.histogram("resource.imageScale");
     
     /**
      * Loads an image resource from either the JAR or the file system.
@@ -19,19 +28,25 @@ public class ResourceLoader {
      * @return An ImageIcon containing the loaded image, or null if loading fails
      */
     public static ImageIcon loadImage(String path) {
+        long start = System.nanoTime();
+        try {
+            return findImage(path);
+        } finally {
+            IMAGE_LOAD_TIME.recordSince(start);
+        }
+    }
+
+    private static ImageIcon findImage(String path) {
         try {
             // Remove Implementation/ prefix if present for JAR loading
-            String jarPath = path;
-            if (path.startsWith("Implementation/")) {
-                jarPath = path.substring("Implementation/".length());
-            }
+            String jarPath = path.startsWith("Implementation/") ? path.substring("Implementation/".length()) : path;
             
             // First try loading from the classpath/JAR using no prefix
             URL resourceUrl = ResourceLoader.class.getResource("/" + jarPath);
             if (resourceUrl != null) {
                 ImageIcon icon = new ImageIcon(resourceUrl);
                 if (icon.getIconWidth() > 0) {
-                    System.out.println("Loaded resource from JAR path: " + jarPath);
+                    LOG.debug(() -> "Loaded resource from JAR path: " + jarPath);
                     return icon;
                 }
             }
@@ -41,7 +56,7 @@ public class ResourceLoader {
             if (resourceUrl != null) {
                 ImageIcon icon = new ImageIcon(resourceUrl);
                 if (icon.getIconWidth() > 0) {
-                    System.out.println("Loaded resource from classpath path: " + path);
+                    LOG.debug(() -> "Loaded resource from classpath path: " + path);
                     return icon;
                 }
             }
@@ -49,15 +64,15 @@ public class ResourceLoader {
             // If that fails, try loading directly from the file system
             ImageIcon icon = new ImageIcon(path);
             if (icon.getIconWidth() > 0) {
-                System.out.println("Loaded resource from file system path: " + path);
+                LOG.debug(() -> "Loaded resource from file system path: " + path);
                 return icon;
             }
             
             // If still no success, log the error
-            System.err.println("Failed to load image: " + path);
+            LOG.warn("Failed to load image: " + path);
             return null;
         } catch (Exception e) {
-            System.err.println("Error loading image " + path + ": " + e.getMessage());
+            LOG.warn("Error loading image " + path + ": " + e.getMessage());
             return null;
         }
     }
@@ -76,8 +91,12 @@ public class ResourceLoader {
             return null;
         }
         
+        // The scaled instance is only rendered when the icon waits for it, so time both
+        long start = System.nanoTime();
         Image scaledImage = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaledImage);
+        ImageIcon scaled = new ImageIcon(scaledImage);
+        IMAGE_SCALE_TIME.recordSince(start);
+        return scaled;
     }
     
     /**
@@ -89,41 +108,61 @@ public class ResourceLoader {
     public static InputStream getResourceAsStream(String path) {
         try {
             // Remove Implementation/ prefix if present for JAR loading
-            String jarPath = path;
-            if (path.startsWith("Implementation/")) {
-                jarPath = path.substring("Implementation/".length());
-            }
+            String jarPath = path.startsWith("Implementation/") ? path.substring("Implementation/".length()) : path;
             
             // First try loading from the classpath/JAR with no prefix
             InputStream stream = ResourceLoader.class.getResourceAsStream("/" + jarPath);
             if (stream != null) {
-                System.out.println("Loaded stream from JAR path: " + jarPath);
+                LOG.debug(() -> "Loaded stream from JAR path: " + jarPath);
                 return stream;
             }
             
             // Try with the original path (for IDE environment)
             stream = ResourceLoader.class.getResourceAsStream("/" + path);
             if (stream != null) {
-                System.out.println("Loaded stream from classpath path: " + path);
+                LOG.debug(() -> "Loaded stream from classpath path: " + path);
                 return stream;
             }
             
             // If that fails, try loading directly from the file system
             File file = new File(path);
             if (file.exists()) {
-                System.out.println("Loaded stream from file system path: " + path);
+                LOG.debug(() -> "Loaded stream from file system path: " + path);
                 return new FileInputStream(file);
             }
             
             // If still no success, log the error
-            System.err.println("Failed to open resource: " + path);
+            LOG.warn("Failed to open resource: " + path);
             return null;
         } catch (Exception e) {
-            System.err.println("Error opening resource " + path + ": " + e.getMessage());
+            LOG.warn("Error opening resource " + path + ": " + e.getMessage());
             return null;
         }
     }
     
+    /**
+     * Finds the file on disk that {@link #getResourceAsStream(String)} would open, for readers that
+     * need the file itself, such as a memory mapping.
+     *
+     * @param path The path to the resource, relative to the workspace root
+     * @return The file, or null if the resource does not exist or is packed in a JAR
+     */
+    public static Path getResourceFile(String path) {
+        String jarPath = path.startsWith("Implementation/") ? path.substring("Implementation/".length()) : path;
+        for (String name : new String[]{"/" + jarPath, "/" + path}) {
+            URL resourceUrl = ResourceLoader.class.getResource(name);
+            if (resourceUrl != null) {
+                try {
+                    return "file".equals(resourceUrl.getProtocol()) ? Paths.get(resourceUrl.toURI()) : null;
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        File file = new File(path);
+        return file.isFile() ? file.toPath() : null;
+    }
+
     /**
      * Checks if a resource exists (either in JAR or file system).
      * 
@@ -0,0 +1,135 @@
+package Implementation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hash index from key values to row offsets for one {@link CachedTable}.
+ * The index is built lazily from the table's rows, kept up to date when rows are
+ * appended, and rebuilt after any change that shifts offsets or edits a key column.
+ * All access must be synchronized on the owning table.
+ */
+final class RowIndex {
+    /** Separator between the parts of a composite key; cannot occur in a CSV cell read by split */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final IndexSpec spec;
+    private final Map<String, Integer> offsets = new HashMap<>();
+    private boolean valid;
+
+    RowIndex(IndexSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Returns whether the index reflects the table's current rows.
+     *
+     * @return true if no rebuild is needed
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Marks the index as out of date so it is rebuilt on the next lookup.
+     */
+    void invalidate() {
+        valid = false;
+        offsets.clear();
+    }
+
+    /**
+     * Rebuilds the index from scratch.
+     *
+     * @param rows The table's rows
+     */
+    void rebuild(List<String[]> rows) {
+        offsets.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            add(rows.get(i), i);
+        }
+        valid = true;
+    }
+
+    /**
+     * Records a row that was appended to the table.
+     *
+     * @param row The new row
+     * @param offset The row's offset in the table
+     */
+    void rowAdded(String[] row, int offset) {
+        if (valid) {
+            add(row, offset);
+        }
+    }
+
+    /**
+     * Records a change to a single cell.
+     *
+     * @param column The column that changed
+     */
+    void cellChanged(int column) {
+        if (spec.covers(column)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Looks up the row offset for a key.
+     *
+     * @param key The key values, one per key column
+     * @return The offset of the matching row, or -1 if there is none
+     */
+    int find(String... key) {
+        if (key.length != spec.getColumnCount()) {
+            throw new IllegalArgumentException("Expected " + spec.getColumnCount() + " key values but got " + key.length);
+        }
+        Integer offset = offsets.get(key.length == 1 ? key[0] : join(key));
+        return offset != null ? offset : -1;
+    }
+
+    private void add(String[] row, int offset) {
+        String key = keyOf(row);
+        if (key == null) {
+            return;
+        }
+        if (spec.isLastMatchWins()) {
+            offsets.put(key, offset);
+        } else {
+            offsets.putIfAbsent(key, offset);
+        }
+    }
+
+    /**
+     * Builds the key of a row, or null if the row lacks one of the key columns.
+     */
+    private String keyOf(String[] row) {
+        if (spec.getColumnCount() == 1) {
+            int column = spec.getColumn(0);
+            return column < row.length ? row[column] : null;
+        }
+        StringBuilder key = new StringBuilder();
+        for (int part = 0; part < spec.getColumnCount(); part++) {
+            int column = spec.getColumn(part);
+            if (column >= row.length || row[column] == null) {
+                return null;
+            }
+            if (part > 0) {
+                key.append(KEY_SEPARATOR);
+            }
+            key.append(row[column]);
+        }
+        return key.toString();
+    }
+
+    private static String join(String[] key) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < key.length; i++) {
+            if (i > 0) {
+                joined.append(KEY_SEPARATOR);
+            }
+            joined.append(key[i]);
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package Implementation;
+
+/**
+ * Receives the rows of a CSV table one at a time from {@link DataManager#forEachRow(RowVisitor)}
+ * and decides whether the scan goes on, so a search can stop at the first match.
+ */
+@FunctionalInterface
+public interface RowVisitor {
+    /**
+     * Visits one row.
+     *
+     * @param row The row index (0-based)
+     * @param cells The cells of the row, which must not be modified or kept after the call returns
+     * @return true to continue with the next row, false to stop the scan
+     */
+    boolean visit(int row, String[] cells);
+}
@@ -0,0 +1,178 @@
+package Implementation;
+
+/**
+ * The decay rates of one pet species. There is one shared, immutable profile per species,
+ * so a {@link VitalStats} only holds a reference to its profile instead of its own rate tables.
+ * Species are indexed the way {@code VirtualPets.getPetTypeIndex} stores them: 0 for dog,
+ * 1 for cat and 2 for dragon.
+ */
+public final class SpeciesProfile {
+    /** The dog species */
+    public static final SpeciesProfile DOG = new SpeciesProfile(0, "dog", 2, 8, 2, 1, 2, 10, 5, 1);
+    /** The cat species */
+    public static final SpeciesProfile CAT = new SpeciesProfile(1, "cat", 1, 6, 1, 2, 2, 5, 10, 1);
+    /** The dragon species */
+    public static final SpeciesProfile DRAGON = new SpeciesProfile(2, "dragon", 2, 10, 1, 1, 1, 5, 5, 1);
+
+    /** All species by type index */
+    private static final SpeciesProfile[] BY_INDEX = {DOG, CAT, DRAGON};
+
+    private final int index;
+    private final String name;
+    private final int sleepDeclineRate;
+    private final int sleepRecoveryRate;
+    private final int fullnessDeclineRate;
+    private final int happinessDeclineRate;
+    private final int extraHappinessDeclineRate;
+    private final int sleepHealthPenalty;
+    private final int hungerHealthPenalty;
+    private final int hungerHealthDecline;
+
+    private SpeciesProfile(int index, String name, int sleepDeclineRate, int sleepRecoveryRate,
+                           int fullnessDeclineRate, int happinessDeclineRate, int extraHappinessDeclineRate,
+                           int sleepHealthPenalty, int hungerHealthPenalty, int hungerHealthDecline) {
+        this.index = index;
+        this.name = name;
+        this.sleepDeclineRate = sleepDeclineRate;
+        this.sleepRecoveryRate = sleepRecoveryRate;
+        this.fullnessDeclineRate = fullnessDeclineRate;
+        this.happinessDeclineRate = happinessDeclineRate;
+        this.extraHappinessDeclineRate = extraHappinessDeclineRate;
+        this.sleepHealthPenalty = sleepHealthPenalty;
+        this.hungerHealthPenalty = hungerHealthPenalty;
+        this.hungerHealthDecline = hungerHealthDecline;
+    }
+
+    /**
+     * Gets the species of a type index.
+     *
+     * @param index The type index: 0 for dog, 1 for cat and 2 for dragon
+     * @return The species
+     * @throws IllegalArgumentException if the type index is unknown
+     */
+    public static SpeciesProfile forIndex(int index) {
+        if (index < 0 || index >= BY_INDEX.length) {
+            throw new IllegalArgumentException("Unknown pet type index: " + index);
+        }
+        return BY_INDEX[index];
+    }
+
+    /**
+     * Gets the species of a pet type name. Unknown types count as cats.
+     *
+     * @param type The pet type, e.g. "dog"
+     * @return The species
+     */
+    public static SpeciesProfile forType(String type) {
+        for (SpeciesProfile species : BY_INDEX) {
+            if (species.name.equalsIgnoreCase(type)) {
+                return species;
+            }
+        }
+        return CAT;
+    }
+
+    /**
+     * Gets the number of species.
+     *
+     * @return The number of type indexes
+     */
+    public static int count() {
+        return BY_INDEX.length;
+    }
+
+    /**
+     * Gets the type index of the species.
+     *
+     * @return The type index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the name of the species.
+     *
+     * @return The lowercase name, e.g. "dog"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the sleep decline per tick while awake.
+     *
+     * @return The sleep decline rate
+     */
+    public int getSleepDeclineRate() {
+        return sleepDeclineRate;
+    }
+
+    /**
+     * Gets the sleep recovery per tick while sleeping.
+     *
+     * @return The sleep recovery rate
+     */
+    public int getSleepRecoveryRate() {
+        return sleepRecoveryRate;
+    }
+
+    /**
+     * Gets the fullness decline per tick.
+     *
+     * @return The fullness decline rate
+     */
+    public int getFullnessDeclineRate() {
+        return fullnessDeclineRate;
+    }
+
+    /**
+     * Gets the happiness decline per tick.
+     *
+     * @return The happiness decline rate
+     */
+    public int getHappinessDeclineRate() {
+        return happinessDeclineRate;
+    }
+
+    /**
+     * Gets the additional happiness decline per tick while hungry.
+     *
+     * @return The extra happiness decline rate
+     */
+    public int getExtraHappinessDeclineRate() {
+        return extraHappinessDeclineRate;
+    }
+
+    /**
+     * Gets the flat health penalty when sleep runs out.
+     *
+     * @return The sleep health penalty
+     */
+    public int getSleepHealthPenalty() {
+        return sleepHealthPenalty;
+    }
+
+    /**
+     * Gets the flat health penalty when the pet first becomes hungry.
+     *
+     * @return The hunger health penalty
+     */
+    public int getHungerHealthPenalty() {
+        return hungerHealthPenalty;
+    }
+
+    /**
+     * Gets the health decline per tick while the pet stays hungry.
+     *
+     * @return The hunger health decline
+     */
+    public int getHungerHealthDecline() {
+        return hungerHealthDecline;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,120 @@
+package Implementation;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes and scales sprite images once and hands out the same {@link ImageIcon} afterwards.
+ * The pet animations swap sprites every half second; without the cache every swap would read
+ * the file from disk and run a smooth-scale pass. Icons are shared by all windows, keyed by
+ * image path and target size, and images that fail to load are remembered as missing.
+ */
+public final class SpriteCache {
+    private static final Log LOG = Log.get(SpriteCache.class);
+    /** Directory the sprite paths are relative to */
+    private static final String ICON_DIR = "Implementation/Icons/";
+
+    /** Scaled icons by path and size; an empty value marks an image that could not be loaded */
+    private static final Map<Key, Optional<ImageIcon>> ICONS = new ConcurrentHashMap<>();
+
+    /** Cache key of a scaled icon */
+    private record Key(String path, int width, int height) {
+    }
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Returns a frame of a pet animation, e.g. {@code dog/hungry_2.png}, scaled to the given size.
+     *
+     * @param petType The pet type, e.g. "dog"
+     * @param state The pet state, e.g. "default" or "sleep"
+     * @param frame The animation frame, starting at 1
+     * @param width The target width in pixels
+     * @param height The target height in pixels
+     * @return The scaled icon, or null if the image could not be loaded
+     */
+    public static ImageIcon getPetSprite(String petType, String state, int frame, int width, int height) {
+        return getIcon(petType.toLowerCase() + "/" + state + "_" + frame + ".png", width, height);
+    }
+
+    /**
+     * Returns an image from the icons directory scaled to the given size.
+     *
+     * @param path The path of the image relative to the icons directory
+     * @param width The target width in pixels
+     * @param height The target height in pixels
+     * @return The scaled icon, or null if the image could not be loaded
+     */
+    public static ImageIcon getIcon(String path, int width, int height) {
+        return ICONS.computeIfAbsent(new Key(path, width, height), key -> Optional.ofNullable(load(key)))
+                .orElse(null);
+    }
+
+    /**
+     * Drops all cached icons, so that changed image files are read again.
+     */
+    public static void clear() {
+        ICONS.clear();
+    }
+
+    /**
+     * Decodes and scales one image.
+     */
+    private static ImageIcon load(Key key) {
+        try (InputStream in = ResourceLoader.getResourceAsStream(ICON_DIR + key.path())) {
+            if (in == null) {
+                return null;
+            }
+            long start = System.nanoTime();
+            BufferedImage image = ImageIO.read(in);
+            ResourceLoader.IMAGE_LOAD_TIME.recordSince(start);
+            if (image == null) {
+                LOG.warn("Unsupported image format: " + key.path());
+                return null;
+            }
+            start = System.nanoTime();
+            BufferedImage scaled = scale(image, key.width(), key.height());
+            ResourceLoader.IMAGE_SCALE_TIME.recordSince(start);
+            return new ImageIcon(scaled);
+        } catch (IOException e) {
+            LOG.warn("Failed to load sprite " + key.path() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Scales an image with bilinear interpolation. Large reductions are done in steps of at
+     * most one half, which keeps the quality close to a smooth scale at a fraction of the cost.
+     *
+     * @param source The image to scale
+     * @param width The target width in pixels
+     * @param height The target height in pixels
+     * @return A new image of the target size
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+}
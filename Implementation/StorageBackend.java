@@ -0,0 +1,89 @@
+package Implementation;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Where {@link DataManager} keeps its tables. A table is named by the path the game passes to
+ * {@code DataManager}, such as {@code "Implementation/pets.csv"}; backends that store files
+ * resolve it against the data directory ({@code app.data.dir}) themselves.
+ * <p>
+ * The backend is chosen with the {@code app.data.backend} system property or
+ * {@link DataManager#setStorageBackend(StorageBackend)}:
+ * <ul>
+ *   <li>{@code csv} (the default): {@link CsvStorage}, the CSV files the game has always used</li>
+ *   <li>{@code memory}: {@link MemoryStorage}, tables that only live in memory, for tests and benchmarks</li>
+ *   <li>{@code binary}: {@link BinaryStorage}, the record and dictionary files of the binary mode of {@code DataManager}</li>
+ * </ul>
+ * Rows handed to and returned by a backend are owned by the receiver; implementations copy what
+ * they keep. Implementations must be safe for use by several threads.
+ */
+public interface StorageBackend {
+    /**
+     * Returns the backend named by a system property value.
+     *
+     * @param name {@code csv}, {@code memory} or {@code binary}, ignoring case; null or unknown names give {@code csv}
+     * @return A new backend
+     */
+    static StorageBackend named(String name) {
+        String key = name == null ? "csv" : name.trim().toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "memory":
+                return new MemoryStorage();
+            case "binary":
+                return new BinaryStorage();
+            default:
+                return new CsvStorage();
+        }
+    }
+
+    /**
+     * Returns the name of the backend, as accepted by {@link #named(String)}.
+     *
+     * @return The name
+     */
+    String getName();
+
+    /**
+     * Reads every row of a table.
+     *
+     * @param table The name of the table
+     * @return The rows, or null if the table does not exist
+     * @throws IOException if the table exists but cannot be read
+     */
+    List<String[]> readTable(String table) throws IOException;
+
+    /**
+     * Replaces the contents of a table, creating it if needed.
+     *
+     * @param table The name of the table
+     * @param rows The new rows
+     * @throws IOException if the table cannot be written
+     */
+    void writeTable(String table, List<String[]> rows) throws IOException;
+
+    /**
+     * Applies a single change to a table. The default implementation reads the whole table,
+     * applies the change and writes it back; backends that can do better override it.
+     *
+     * @param table The name of the table
+     * @param mutation The change
+     * @throws IOException if the table cannot be read or written
+     */
+    default void applyMutation(String table, TableMutation mutation) throws IOException {
+        List<String[]> rows = readTable(table);
+        if (rows == null) {
+            throw new IOException("No such table: " + table);
+        }
+        mutation.applyTo(rows);
+        writeTable(table, rows);
+    }
+
+    /**
+     * Lists the tables the backend holds.
+     *
+     * @return The table names, in no particular order
+     * @throws IOException if the tables cannot be listed
+     */
+    List<String> listTables() throws IOException;
+}
@@ -1,5 +1,4 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code Store} class extends {@code Inventory} and provides methods to manage 
@@ -25,15 +24,7 @@ public class Store extends Inventory {
      * @return The index of the row containing the player and item, or -1 if not found.
      */
     private int findRow(String playerId, String itemId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(playerId) && row[1].equals(itemId)) {
-                return index;
-            }
-            index++;
-        }
-        return -1;
+        return lookupRow(PLAYER_ITEM, playerId, itemId);
     }
 
     /**
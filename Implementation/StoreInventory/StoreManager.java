@@ -69,11 +69,10 @@ public class StoreManager {
      * Loads store data from the CSV file.
      */
     public void loadStore() {
-        List<String[]> data = store.readCSV();
         initializeEmptyStore(); // Reset current store
-        int position = 0;
-        for (String[] row : data) {
-            if (row.length == 5 && position <= 8) {
+        // Only the first 9 rows are read, so stop the scan there
+        store.forEachRow((position, row) -> {
+            if (row.length == 5) {
                 if (position < MAX_SPACE) {
                     int gridRow = position / GRID_SIZE;
                     int gridCol = position % GRID_SIZE;
@@ -85,8 +84,8 @@ public class StoreManager {
                     storeItems[gridRow][gridCol][4] = row[4]; // price
                 }
             }
-            position++;
-        }
+            return position < 8;
+        });
     }
 
     /**
@@ -0,0 +1,269 @@
+package Implementation;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations made to one {@link CachedTable} since its CSV file
+ * was last written. Each mutation is a single line, so a change costs one small append
+ * instead of a rewrite of the whole file; replaying the log over the CSV file restores the table.
+ * <p>
+ * The first line names the checksum and modification time of the CSV file the log applies to.
+ * Whenever the CSV file is rewritten the log is reset for the new file, so a log left behind by a
+ * crash between the two steps no longer matches and is discarded instead of being applied twice.
+ * The same happens when the CSV file is replaced by hand.
+ * Every record carries its own checksum, so a record torn by a crash mid-append ends the replay.
+ * All access must be synchronized on the owning table.
+ */
+final class TableLog {
+    private static final Log LOG = Log.get(TableLog.class);
+    /** Start of the header line, followed by the checksum and modification time of the CSV file */
+    private static final String HEADER = "#log v1 base=";
+    private static final String SET = "S";
+    private static final String ADD = "A";
+    private static final String REMOVE = "R";
+
+    /** The log file, next to the CSV file it belongs to */
+    final Path path;
+    /** Whether a background compaction has been requested and not yet run */
+    boolean compactionScheduled;
+    private FileOutputStream out;
+    private BufferedWriter writer;
+    private long size;
+
+    TableLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Creates the record for a changed cell.
+     *
+     * @param row The row index
+     * @param column The column index
+     * @param value The new value
+     * @return The record
+     */
+    static String setCell(int row, int column, String value) {
+        return SET + "," + row + "," + column + "," + value;
+    }
+
+    /**
+     * Creates the record for an appended row.
+     *
+     * @param row The new row
+     * @return The record
+     */
+    static String addRow(String[] row) {
+        return ADD + "," + String.join(",", row);
+    }
+
+    /**
+     * Creates the record for a removed row.
+     *
+     * @param row The index of the removed row
+     * @return The record
+     */
+    static String removeRow(int row) {
+        return REMOVE + "," + row;
+    }
+
+    /**
+     * Returns the current size of the log in bytes.
+     *
+     * @return The number of bytes written since the log was last reset
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Applies the log to freshly parsed rows of the CSV file if it belongs to that file,
+     * and otherwise starts a new, empty log for it.
+     *
+     * @param rows The rows parsed from the CSV file, modified in place
+     * @param baseChecksum The checksum of the CSV file the rows were parsed from
+     * @param baseModified The modification time of the CSV file in milliseconds
+     * @param policy How far the new log is forced to disk if one has to be started
+     * @return The number of records applied
+     * @throws IOException if the log cannot be read or a new log cannot be started
+     */
+    int recover(List<String[]> rows, long baseChecksum, long baseModified, FsyncPolicy policy) throws IOException {
+        close();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            reset(baseChecksum, baseModified, policy);
+            return 0;
+        }
+        String header = header(baseChecksum, baseModified);
+        if (lines.isEmpty() || !lines.get(0).equals(header)) {
+            if (!lines.isEmpty()) {
+                LOG.warn("Discarding log that does not match " + path.getFileName() + ": " + lines.get(0));
+            }
+            reset(baseChecksum, baseModified, policy);
+            return 0;
+        }
+
+        int applied = 0;
+        for (int i = 1; i < lines.size(); i++) {
+            String record = unwrap(lines.get(i));
+            if (record == null || !apply(rows, record)) {
+                LOG.warn("Log " + path.getFileName() + " ends with a damaged record at line " + (i + 1));
+                break;
+            }
+            applied++;
+        }
+        if (applied < lines.size() - 1) {
+            // Drop the damaged tail so later appends are not hidden behind it
+            StringBuilder valid = new StringBuilder(header).append('\n');
+            for (int i = 1; i <= applied; i++) {
+                valid.append(lines.get(i)).append('\n');
+            }
+            Files.writeString(path, valid, StandardCharsets.UTF_8);
+        }
+        open();
+        return applied;
+    }
+
+    /**
+     * Starts a new, empty log for a CSV file that was just written.
+     *
+     * @param baseChecksum The checksum of the CSV file
+     * @param baseModified The modification time of the CSV file in milliseconds
+     * @param policy How far the new log is forced to disk
+     * @throws IOException if the log cannot be written
+     */
+    void reset(long baseChecksum, long baseModified, FsyncPolicy policy) throws IOException {
+        close();
+        out = new FileOutputStream(path.toFile(), false);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        size = 0;
+        writeLine(header(baseChecksum, baseModified), policy);
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * @param record The record, as created by {@link #setCell}, {@link #addRow} or {@link #removeRow}
+     * @param policy How far the record is forced to disk; only {@link FsyncPolicy#ALWAYS} forces each record
+     * @throws IOException if the record cannot be written
+     */
+    void append(String record, FsyncPolicy policy) throws IOException {
+        if (writer == null) {
+            throw new IOException("Log " + path + " is not open");
+        }
+        writeLine(checksum(record) + "," + record, policy);
+    }
+
+    /**
+     * Closes the log file, leaving it on disk.
+     */
+    void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close log: " + e.getMessage());
+            }
+            writer = null;
+            out = null;
+        }
+    }
+
+    /**
+     * Closes and deletes the log file.
+     */
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.warn("Failed to delete log: " + e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        out = new FileOutputStream(path.toFile(), true);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        size = Files.size(path);
+    }
+
+    private void writeLine(String line, FsyncPolicy policy) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+        if (policy == FsyncPolicy.ALWAYS) {
+            out.getChannel().force(false);
+        }
+        size += line.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+
+    /**
+     * Applies a single record to the rows.
+     *
+     * @return false if the record is malformed or does not fit the rows
+     */
+    private static boolean apply(List<String[]> rows, String record) {
+        try {
+            if (record.startsWith(SET + ",")) {
+                String[] parts = record.split(",", 4);
+                int row = Integer.parseInt(parts[1]);
+                int column = Integer.parseInt(parts[2]);
+                String[] cells = rows.get(row);
+                if (column >= cells.length) {
+                    // The row was padded in memory before the change was made
+                    int length = cells.length;
+                    cells = Arrays.copyOf(cells, column + 1);
+                    Arrays.fill(cells, length, column, "");
+                    rows.set(row, cells);
+                }
+                cells[column] = parts.length > 3 ? parts[3] : "";
+                return true;
+            }
+            if (record.startsWith(ADD + ",")) {
+                rows.add(record.substring(ADD.length() + 1).split(","));
+                return true;
+            }
+            if (record.startsWith(REMOVE + ",")) {
+                rows.remove(Integer.parseInt(record.substring(REMOVE.length() + 1)));
+                return true;
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            // Fall through to report the record as damaged
+        }
+        return false;
+    }
+
+    /**
+     * Strips and verifies the checksum of a record line.
+     *
+     * @return The record, or null if the checksum does not match
+     */
+    private static String unwrap(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        String record = line.substring(comma + 1);
+        return line.substring(0, comma).equals(checksum(record)) ? record : null;
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String header(long baseChecksum, long baseModified) {
+        return HEADER + Long.toHexString(baseChecksum) + " modified=" + baseModified;
+    }
+}
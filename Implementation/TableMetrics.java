@@ -0,0 +1,40 @@
+package Implementation;
+
+import java.nio.file.Path;
+
+/**
+ * The metrics of one CSV table, named after its file, e.g. {@code data.pets.read} for pets.csv.
+ * Tables with the same file name in different directories share their metrics.
+ */
+final class TableMetrics {
+    /** Time to parse the file, in nanoseconds */
+    final LatencyHistogram reads;
+    /** Characters parsed */
+    final Metrics.Counter readChars;
+    /** Time to write and replace the file, in nanoseconds */
+    final LatencyHistogram writes;
+    /** Characters written */
+    final Metrics.Counter writtenChars;
+    /** Time of positional record updates in the binary store, in nanoseconds */
+    final LatencyHistogram binaryWrites;
+    /** Time of key lookups, including any index rebuild they trigger, in nanoseconds */
+    final LatencyHistogram lookups;
+    /** Full scans of the rows to rebuild a key index, and streaming passes over the file */
+    final Metrics.Counter scans;
+    /** Rows visited by those scans and passes */
+    final Metrics.Counter scannedRows;
+
+    TableMetrics(Path file) {
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String prefix = "data." + (extension > 0 ? name.substring(0, extension) : name) + ".";
+        reads = Metrics.histogram(prefix + "read");
+        readChars = Metrics.counter(prefix + "readChars");
+        writes = Metrics.histogram(prefix + "write");
+        writtenChars = Metrics.counter(prefix + "writtenChars");
+        binaryWrites = Metrics.histogram(prefix + "binaryWrite");
+        lookups = Metrics.histogram(prefix + "lookup");
+        scans = Metrics.counter(prefix + "scans");
+        scannedRows = Metrics.counter(prefix + "scannedRows");
+    }
+}
@@ -0,0 +1,153 @@
+package Implementation;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A single change to the rows of a table: a changed cell, an appended row or a removed row.
+ * {@link DataManager} hands these to a {@link StorageBackend} so that a backend which can apply a
+ * change in place does not have to rewrite the whole table. Mutations are immutable.
+ */
+public final class TableMutation {
+    /**
+     * The kind of change.
+     */
+    public enum Kind {
+        /** One cell of an existing row changed */
+        SET_CELL,
+        /** A row was appended */
+        ADD_ROW,
+        /** A row was removed, shifting the rows after it */
+        REMOVE_ROW
+    }
+
+    private final Kind kind;
+    private final int row;
+    private final int column;
+    private final String value;
+    private final String[] cells;
+
+    private TableMutation(Kind kind, int row, int column, String value, String[] cells) {
+        this.kind = kind;
+        this.row = row;
+        this.column = column;
+        this.value = value;
+        this.cells = cells;
+    }
+
+    /**
+     * Creates the change of a cell.
+     *
+     * @param row The row index (0-based)
+     * @param column The column index (0-based)
+     * @param value The new value
+     * @return The mutation
+     */
+    public static TableMutation setCell(int row, int column, String value) {
+        return new TableMutation(Kind.SET_CELL, row, column, value, null);
+    }
+
+    /**
+     * Creates the addition of a row at the end of the table.
+     *
+     * @param cells The cells of the new row, which are copied
+     * @return The mutation
+     */
+    public static TableMutation addRow(String[] cells) {
+        return new TableMutation(Kind.ADD_ROW, -1, -1, null, cells.clone());
+    }
+
+    /**
+     * Creates the removal of a row.
+     *
+     * @param row The row index (0-based)
+     * @return The mutation
+     */
+    public static TableMutation removeRow(int row) {
+        return new TableMutation(Kind.REMOVE_ROW, row, -1, null, null);
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return The kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the changed or removed row.
+     *
+     * @return The row index, or -1 for an added row
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the changed column.
+     *
+     * @return The column index, or -1 unless a cell changed
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the new value of the changed cell.
+     *
+     * @return The value, or null unless a cell changed
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the cells of the added row.
+     *
+     * @return A copy of the cells, or null unless a row was added
+     */
+    public String[] getCells() {
+        return cells == null ? null : cells.clone();
+    }
+
+    /**
+     * Applies the change to a list of rows. A cell beyond the end of its row pads the row with
+     * empty cells, as {@code DataManager} does before writing such a cell.
+     *
+     * @param rows The rows, modified in place
+     * @throws IndexOutOfBoundsException if the row does not exist
+     */
+    public void applyTo(List<String[]> rows) {
+        switch (kind) {
+            case SET_CELL:
+                String[] current = rows.get(row);
+                if (column >= current.length) {
+                    int length = current.length;
+                    current = Arrays.copyOf(current, column + 1);
+                    Arrays.fill(current, length, column, "");
+                    rows.set(row, current);
+                }
+                current[column] = value;
+                break;
+            case ADD_ROW:
+                rows.add(cells.clone());
+                break;
+            default:
+                rows.remove(row);
+                break;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case SET_CELL:
+                return "set " + row + "," + column + "=" + value;
+            case ADD_ROW:
+                return "add " + String.join(",", cells);
+            default:
+                return "remove " + row;
+        }
+    }
+}
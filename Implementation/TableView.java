@@ -0,0 +1,26 @@
+package Implementation;
+import java.util.List;
+
+/**
+ * A typed projection of the rows of a {@link CachedTable}, such as parsed numeric columns.
+ * A view is built from the rows on first use and is kept in sync with single-cell changes;
+ * any change that adds, removes or reloads rows discards it so that it is rebuilt on next use.
+ * Changes are delivered while the table lock is held.
+ */
+interface TableView {
+    /**
+     * Builds the view from scratch.
+     *
+     * @param rows The table's rows
+     */
+    void rebuild(List<String[]> rows);
+
+    /**
+     * Records a change to a single cell.
+     *
+     * @param row The row of the changed cell
+     * @param column The column of the changed cell
+     * @param cells The row's cells after the change
+     */
+    void cellChanged(int row, int column, String[] cells);
+}
@@ -0,0 +1,80 @@
+package Implementation.Tests;
+
+import Implementation.DataManager;
+import Implementation.FsyncPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the throughput of full CSV rewrites under each {@link FsyncPolicy}.
+ * This is not a unit test; run it by hand to compare the policies on a given machine:
+ * <pre>
+ * java -cp target/classes:target/test-classes Implementation.Tests.AtomicWriteBenchmark [rows] [writes]
+ * </pre>
+ * The file is written to a temporary directory on the default file system,
+ * which should be on the same device as the game data for the numbers to be meaningful.
+ * Results go to standard error to keep them apart from the per-write logging on standard output.
+ */
+public class AtomicWriteBenchmark {
+    /** Rows in the benchmarked file, roughly a save with many pets */
+    private static final int DEFAULT_ROWS = 200;
+    /** Timed writes per policy */
+    private static final int DEFAULT_WRITES = 200;
+    /** Untimed writes per policy before measuring */
+    private static final int WARMUP_WRITES = 50;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        int writes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WRITES;
+
+        Path dir = Files.createTempDirectory("atomic-write-benchmark");
+        Path file = dir.resolve("pets.csv");
+        List<String[]> data = petRows(rows);
+        FsyncPolicy original = DataManager.getFsyncPolicy();
+
+        System.out.printf("%d rows, %d writes per policy%n", rows, writes);
+        try {
+            for (FsyncPolicy policy : FsyncPolicy.values()) {
+                DataManager.setFsyncPolicy(policy);
+                DataManager manager = new DataManager(file.toString());
+                manager.setCacheEnabled(false);
+
+                for (int i = 0; i < WARMUP_WRITES; i++) {
+                    manager.writeCSV(data);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < writes; i++) {
+                    manager.writeCSV(data);
+                }
+                long elapsed = System.nanoTime() - start;
+
+                double perWriteMicros = elapsed / 1_000.0 / writes;
+                double writesPerSecond = writes * 1_000_000_000.0 / elapsed;
+                System.err.printf("%-9s %10.1f us/write %10.1f writes/s%n", policy, perWriteMicros, writesPerSecond);
+            }
+        } finally {
+            DataManager.setFsyncPolicy(original);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * Builds rows shaped like pets.csv.
+     */
+    private static List<String[]> petRows(int count) {
+        List<String[]> data = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            data.add(new String[]{
+                    String.valueOf(i), "player", "Pet" + i, "0",
+                    "50", "50", "50", "50", "0", "0", "0",
+                    "2025-01-01", "dog"
+            });
+        }
+        return data;
+    }
+}
@@ -7,13 +7,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 import Implementation.DataManager;
+import Implementation.FsyncPolicy;
+import Implementation.IndexSpec;
+import Implementation.Metrics;
+import Implementation.PersistenceExecutor;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class DataManagerTest {
 
@@ -39,6 +48,11 @@ public class DataManagerTest {
 
     @AfterEach
     void tearDown() {
+        dataManager.setWriteBehind(false);
+        DataManager.setFlushPolicy(2000, 16);
+        DataManager.setFsyncPolicy(FsyncPolicy.ON_CLOSE);
+        dataManager.setLogMode(false);
+        DataManager.setCompactThreshold(64 * 1024);
         testFile.delete();
     }
 
@@ -104,4 +118,403 @@ public class DataManagerTest {
         assertEquals("35", data.get(2)[2]);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test readCSV returns a copy that does not affect the cache")
+    void testReadCSVReturnsCopy() {
+        List<String[]> data = dataManager.readCSV();
+        data.get(0)[1] = "Changed";
+        data.remove(2);
+
+        assertEquals("John", dataManager.getData(0, 1));
+        assertEquals(3, dataManager.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Test cached rows are reloaded when the file changes on disk")
+    void testCacheReloadsAfterExternalChange() throws IOException {
+        assertEquals("John", dataManager.getData(0, 1));
+
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("1,Johnny,25,Developer\n");
+        }
+
+        assertEquals("Johnny", dataManager.getData(0, 1));
+        assertEquals(1, dataManager.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Test writes are shared with other managers of the same file")
+    void testCacheSharedBetweenManagers() {
+        DataManager other = new DataManager(testFile.getAbsolutePath());
+        assertEquals("Jane", other.getData(1, 1));
+
+        dataManager.setData(1, 1, "Janet");
+        dataManager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+
+        assertEquals("Janet", other.getData(1, 1));
+        assertEquals(4, other.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Test addRow and removeRow write through to the file")
+    void testAddAndRemoveRowWriteThrough() {
+        dataManager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+        dataManager.removeRow(0);
+
+        DataManager uncached = new DataManager(testFile.getAbsolutePath());
+        uncached.setCacheEnabled(false);
+        List<String[]> data = uncached.readCSV();
+        assertEquals(3, data.size());
+        assertEquals("2", data.get(0)[0]);
+        assertArrayEquals(new String[]{"4", "Alice", "32", "Tester"}, data.get(2));
+    }
+
+    /** Exposes the protected index lookup for testing */
+    private static class IndexedManager extends DataManager {
+        IndexedManager(String filePath) {
+            super(filePath);
+        }
+
+        int find(IndexSpec spec, String... key) {
+            return lookupRow(spec, key);
+        }
+    }
+
+    @Test
+    @DisplayName("Test index lookups stay consistent across row changes")
+    void testIndexLookupAfterChanges() {
+        IndexedManager manager = new IndexedManager(testFile.getAbsolutePath());
+        IndexSpec byId = IndexSpec.firstMatch(0);
+        assertEquals(1, manager.find(byId, "2"));
+        assertEquals(-1, manager.find(byId, "4"));
+
+        manager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+        assertEquals(3, manager.find(byId, "4"));
+
+        manager.removeRow(0);
+        assertEquals(0, manager.find(byId, "2"));
+        assertEquals(-1, manager.find(byId, "1"));
+
+        manager.setData(0, 0, "7");
+        assertEquals(0, manager.find(byId, "7"));
+        assertEquals(-1, manager.find(byId, "2"));
+    }
+
+    @Test
+    @DisplayName("Test duplicate keys resolve to the first or last row as requested")
+    void testIndexDuplicatePolicy() {
+        IndexedManager manager = new IndexedManager(testFile.getAbsolutePath());
+        manager.addRow(new String[]{"2", "Jane", "31", "Tester"});
+
+        assertEquals(1, manager.find(IndexSpec.firstMatch(0), "2"));
+        assertEquals(3, manager.find(IndexSpec.lastMatch(0), "2"));
+        assertEquals(3, manager.find(IndexSpec.firstMatch(0, 3), "2", "Tester"));
+        assertEquals(-1, manager.find(IndexSpec.firstMatch(0, 3), "2", "Manager"));
+    }
+
+    /**
+     * Reads the file directly, bypassing the shared cache and any buffered edits.
+     */
+    private List<String[]> readFromDisk() {
+        try {
+            return Files.readAllLines(testFile.toPath()).stream()
+                    .map(line -> line.split(","))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Test forEachRow streams an unloaded file and stops at the first match")
+    void testForEachRowStopsEarly() {
+        long scanned = Metrics.snapshot().getOrDefault("data.test.scannedRows", 0L);
+        StringBuilder names = new StringBuilder();
+        int stoppedAt = dataManager.forEachRow((row, cells) -> {
+            names.append(cells[1]).append(' ');
+            return !cells[1].equals("Jane");
+        });
+
+        assertEquals(1, stoppedAt);
+        assertEquals("John Jane ", names.toString());
+        assertEquals(scanned + 2, Metrics.snapshot().get("data.test.scannedRows"));
+        assertEquals(-1, dataManager.forEachRow((row, cells) -> true));
+    }
+
+    @Test
+    @DisplayName("Test forEachRow sees edits that are not written yet")
+    void testForEachRowSeesBufferedEdits() {
+        DataManager.setFlushPolicy(60_000, 16);
+        dataManager.setWriteBehind(true);
+        dataManager.setData(2, 1, "Robert");
+
+        String[] last = new String[1];
+        dataManager.forEachRow((row, cells) -> {
+            last[0] = cells[1];
+            return true;
+        });
+        assertEquals("Robert", last[0]);
+        assertEquals("Bob", readFromDisk().get(2)[1]);
+    }
+
+    @Test
+    @DisplayName("Test readLastRows reads the last matching rows from the end of the file")
+    void testReadLastRows() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("1,John,25,Developer\r\n");
+            writer.write("2,Jane\r\n");
+            writer.write("\n");
+            writer.write("3,Bob,28,Manager\r");
+            writer.write("4,Ann\n");
+            writer.write("5,Eve,31,Tester");
+        }
+
+        List<String[]> last = dataManager.readLastRows(2, row -> row.length == 4);
+        assertEquals(2, last.size());
+        assertEquals("Bob", last.get(0)[1]);
+        assertEquals("Eve", last.get(1)[1]);
+
+        List<String[]> all = dataManager.readLastRows(10, row -> true);
+        assertEquals(6, all.size());
+        assertArrayEquals(new String[]{""}, all.get(2));
+        assertEquals(dataManager.readCSV().size(), all.size());
+        assertEquals(3, dataManager.readLastRows(3, row -> row.length == 4).size());
+    }
+
+    @Test
+    @DisplayName("Test readLastRows finds rows across chunks and sees edits in memory")
+    void testReadLastRowsLargeFile() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            for (int i = 0; i < 5000; i++) {
+                writer.write(i + ",Pet" + i + ",2024-01-01\n");
+            }
+        }
+
+        List<String[]> last = dataManager.readLastRows(3, row -> true);
+        assertEquals(Arrays.asList("4997", "4998", "4999"), last.stream().map(row -> row[0]).toList());
+
+        dataManager.setData(4999, 1, "Renamed");
+        assertEquals("Renamed", dataManager.readLastRows(1, row -> true).get(0)[1]);
+    }
+
+    @Test
+    @DisplayName("Test write-behind buffers cell edits until flushed")
+    void testWriteBehindDefersUntilFlush() {
+        DataManager.setFlushPolicy(60_000, 16);
+        dataManager.setWriteBehind(true);
+        dataManager.setData(0, 1, "Johnny");
+        dataManager.setData(0, 2, "26");
+        dataManager.setData(1, 1, "Janet");
+
+        assertEquals("Johnny", dataManager.getData(0, 1));
+        assertEquals("Janet", new DataManager(testFile.getAbsolutePath()).getData(1, 1));
+        assertEquals("John", readFromDisk().get(0)[1]);
+
+        dataManager.flush();
+        List<String[]> onDisk = readFromDisk();
+        assertEquals("Johnny", onDisk.get(0)[1]);
+        assertEquals("26", onDisk.get(0)[2]);
+        assertEquals("Janet", onDisk.get(1)[1]);
+    }
+
+    @Test
+    @DisplayName("Test write-behind flushes once the dirty row threshold is reached")
+    void testWriteBehindFlushesAtThreshold() {
+        DataManager.setFlushPolicy(60_000, 2);
+        dataManager.setWriteBehind(true);
+        dataManager.setData(0, 1, "Johnny");
+        assertEquals("John", readFromDisk().get(0)[1]);
+
+        dataManager.setData(0, 2, "26");
+        assertEquals("25", readFromDisk().get(0)[2]);
+
+        dataManager.setData(2, 1, "Bobby");
+        List<String[]> onDisk = readFromDisk();
+        assertEquals("Johnny", onDisk.get(0)[1]);
+        assertEquals("Bobby", onDisk.get(2)[1]);
+    }
+
+    @Test
+    @DisplayName("Test write-behind flushes after the configured interval")
+    void testWriteBehindFlushesAfterInterval() throws InterruptedException {
+        DataManager.setFlushPolicy(50, 16);
+        dataManager.setWriteBehind(true);
+        dataManager.setData(1, 3, "Lead");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"Lead".equals(readFromDisk().get(1)[3]) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Lead", readFromDisk().get(1)[3]);
+    }
+
+    @Test
+    @DisplayName("Test writes replace the file without leaving a temporary file behind")
+    void testAtomicWriteLeavesNoTempFile() {
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            DataManager.setFsyncPolicy(policy);
+            dataManager.setData(0, 1, policy.name());
+            assertEquals(policy.name(), readFromDisk().get(0)[1]);
+        }
+        assertEquals(3, readFromDisk().size());
+        assertFalse(new File(testFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    @DisplayName("Test a stale temporary file from an interrupted write is replaced")
+    void testAtomicWriteOverwritesStaleTempFile() throws IOException {
+        File stale = new File(testFile.getPath() + ".tmp");
+        try (FileWriter writer = new FileWriter(stale)) {
+            writer.write("half,written");
+        }
+
+        dataManager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+
+        assertEquals(4, readFromDisk().size());
+        assertFalse(stale.exists());
+    }
+
+    @Test
+    @DisplayName("Test fsync policy names are parsed leniently")
+    void testFsyncPolicyParse() {
+        assertEquals(FsyncPolicy.ON_CLOSE, FsyncPolicy.parse("on-close", FsyncPolicy.NONE));
+        assertEquals(FsyncPolicy.ALWAYS, FsyncPolicy.parse("always", FsyncPolicy.NONE));
+        assertEquals(FsyncPolicy.NONE, FsyncPolicy.parse("sometimes", FsyncPolicy.NONE));
+        assertEquals(FsyncPolicy.ON_CLOSE, FsyncPolicy.parse(null, FsyncPolicy.ON_CLOSE));
+    }
+
+    @Test
+    @DisplayName("Test log mode appends changes and replays them on reload")
+    void testLogModeReplaysChanges() {
+        dataManager.setLogMode(true);
+        dataManager.setData(0, 1, "Johnny");
+        dataManager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+        dataManager.removeRow(1);
+
+        List<String[]> onDisk = readFromDisk();
+        assertEquals("John", onDisk.get(0)[1]);
+        assertEquals(3, onDisk.size());
+        assertTrue(new File(testFile.getPath() + ".log").exists());
+
+        dataManager.invalidateCache();
+        assertEquals("Johnny", dataManager.getData(0, 1));
+        assertEquals("Bob", dataManager.getData(1, 1));
+        assertEquals("Alice", dataManager.getData(2, 1));
+        assertEquals(3, dataManager.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Test log mode logs every edit even when write-behind is enabled")
+    void testLogModeWithWriteBehind() throws IOException {
+        dataManager.setWriteBehind(true);
+        dataManager.setLogMode(true);
+        assertEquals("John", dataManager.getData(0, 1));
+        Path log = Path.of(testFile.getPath() + ".log");
+        long size = Files.size(log);
+
+        dataManager.setData(0, 1, "Johnny");
+        assertTrue(Files.size(log) > size);
+        assertEquals("John", readFromDisk().get(0)[1]);
+
+        // A crash before any flush still keeps the edit
+        dataManager.invalidateCache();
+        assertEquals("Johnny", new DataManager(testFile.getAbsolutePath()).getData(0, 1));
+    }
+
+    @Test
+    @DisplayName("Test a log left over from before a compaction is not applied twice")
+    void testLogModeDiscardsLogOfOlderFile() throws IOException {
+        dataManager.setLogMode(true);
+        dataManager.addRow(new String[]{"4", "Alice", "32", "Tester"});
+        Path log = Path.of(testFile.getPath() + ".log");
+        byte[] oldLog = Files.readAllBytes(log);
+
+        dataManager.compact();
+        assertEquals(4, readFromDisk().size());
+
+        // Simulate a crash between rewriting the file and resetting the log
+        Files.write(log, oldLog);
+        dataManager.invalidateCache();
+        assertEquals(4, dataManager.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Test replay stops at a torn record and later changes still survive")
+    void testLogModeIgnoresTornRecord() throws IOException {
+        dataManager.setLogMode(true);
+        dataManager.setData(0, 1, "Johnny");
+        Files.writeString(Path.of(testFile.getPath() + ".log"), "1234abcd,S,1,1,Ja", StandardOpenOption.APPEND);
+
+        dataManager.invalidateCache();
+        assertEquals("Johnny", dataManager.getData(0, 1));
+        assertEquals("Jane", dataManager.getData(1, 1));
+
+        dataManager.setData(2, 1, "Bobby");
+        dataManager.invalidateCache();
+        assertEquals("Bobby", dataManager.getData(2, 1));
+    }
+
+    @Test
+    @DisplayName("Test the log is compacted into the file in the background")
+    void testLogModeCompactsInBackground() throws InterruptedException {
+        DataManager.setCompactThreshold(1);
+        dataManager.setLogMode(true);
+        dataManager.setData(1, 3, "Lead");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"Lead".equals(readFromDisk().get(1)[3]) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Lead", readFromDisk().get(1)[3]);
+    }
+
+    @Test
+    @DisplayName("Test asynchronous operations run in submission order off the calling thread")
+    void testAsyncOperationsKeepOrder() throws Exception {
+        String caller = Thread.currentThread().getName();
+        CompletableFuture<String> thread = PersistenceExecutor.submit(() -> Thread.currentThread().getName());
+        dataManager.setDataAsync(0, 1, "Johnny");
+        dataManager.setDataAsync(0, 1, "Jonathan");
+        dataManager.addRowAsync(new String[]{"4", "Alice", "35", "Tester"});
+        dataManager.removeRowAsync(1);
+        CompletableFuture<String> name = dataManager.getDataAsync(0, 1);
+
+        assertEquals("Jonathan", name.get());
+        assertNotEquals(caller, thread.get());
+        List<String[]> rows = dataManager.readCSVAsync().get();
+        assertEquals(3, rows.size());
+        assertEquals("Alice", rows.get(2)[1]);
+        assertEquals("Jonathan", readFromDisk().get(0)[1]);
+    }
+
+    @Test
+    @DisplayName("Test asynchronous writes are flushed and drained before shutdown")
+    void testAsyncFlushAndDrain() throws Exception {
+        dataManager.setWriteBehind(true);
+        DataManager.setFlushPolicy(60_000, 1000);
+        dataManager.setDataAsync(2, 3, "Lead");
+        dataManager.flushAsync().get();
+        assertEquals("Lead", readFromDisk().get(2)[3]);
+
+        dataManager.setDataAsync(1, 3, "Artist");
+        assertTrue(PersistenceExecutor.drain(5000));
+        assertEquals("Artist", dataManager.getData(1, 3));
+    }
+
+    @Test
+    @DisplayName("Test setting a column past the end of a row throws ArrayIndexOutOfBoundsException")
+    void testSetDataBadColumn() {
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> dataManager.setData(0, 99, "x"));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> dataManager.setData(0, -1, "x"));
+    }
+
+    @Test
+    @DisplayName("Test a failing asynchronous operation completes its future exceptionally")
+    void testAsyncFailure() {
+        CompletableFuture<Void> future = dataManager.setDataAsync(99, 0, "x");
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IndexOutOfBoundsException.class, e.getCause());
+        assertTrue(PersistenceExecutor.drain(5000));
+    }
+
+}
@@ -0,0 +1,83 @@
+package Implementation.Tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Implementation.DatasetGenerator;
+import Implementation.VirtualPets;
+import Implementation.VitalStats;
+
+public class DatasetGeneratorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 6, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test generated tables have the requested row counts and layouts")
+    void testRowCountsAndLayouts() throws IOException {
+        List<Path> files = new DatasetGenerator(7).players(100).pets(250).transactions(400)
+                .referenceDate(DATE).generate(tempDir.toFile());
+        assertEquals(7, files.size());
+
+        Path data = tempDir.resolve("Implementation");
+        assertEquals(100, Files.readAllLines(data.resolve("player_data.csv")).size());
+        assertEquals(900, Files.readAllLines(data.resolve("inventory.csv")).size());
+        assertEquals(10, Files.readAllLines(data.resolve("store.csv")).size());
+        assertEquals(100, Files.readAllLines(data.resolve("progress.csv")).size());
+        assertEquals(400, Files.readAllLines(data.resolve("transactions.csv")).size());
+        assertEquals(100, Files.readAllLines(data.resolve("playtime_tracking.csv")).size());
+
+        List<String> pets = Files.readAllLines(data.resolve("pets.csv"));
+        assertEquals(250, pets.size());
+        for (String pet : pets) {
+            String[] cells = pet.split(",");
+            assertEquals(14, cells.length);
+            assertTrue(List.of("dog", "cat", "dragon").contains(cells[12]));
+            assertFalse(LocalDate.parse(cells[11]).isAfter(DATE));
+            assertEquals(LocalDate.parse(cells[11]), LocalDate.ofEpochDay(Long.parseLong(cells[13]) / 86_400));
+        }
+        for (String row : Files.readAllLines(data.resolve("inventory.csv"))) {
+            assertEquals(5, row.split(",", -1).length);
+        }
+    }
+
+    @Test
+    @DisplayName("Test generated pets can be loaded by the game")
+    void testPetsAreReadable() throws IOException {
+        new DatasetGenerator(7).players(10).referenceDate(DATE).generate(tempDir.toFile());
+        Path pets = tempDir.resolve("Implementation").resolve("pets.csv");
+        String petId = Files.readAllLines(pets).get(0).split(",")[0];
+
+        VitalStats stats = new VirtualPets(pets.toString()).getVitalStats(petId);
+        assertNotNull(stats);
+        assertTrue(stats.getHealth() >= 0 && stats.getHealth() <= 100);
+    }
+
+    @Test
+    @DisplayName("Test the same seed generates the same data")
+    void testSeedIsReproducible() throws IOException {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        Path other = tempDir.resolve("other");
+        new DatasetGenerator(42).players(50).referenceDate(DATE).generate(first.toFile());
+        new DatasetGenerator(42).players(50).referenceDate(DATE).generate(second.toFile());
+        new DatasetGenerator(43).players(50).referenceDate(DATE).generate(other.toFile());
+
+        for (String file : List.of("pets.csv", "player_data.csv", "inventory.csv", "transactions.csv")) {
+            Path relative = Path.of("Implementation", file);
+            assertEquals(Files.readAllLines(first.resolve(relative)), Files.readAllLines(second.resolve(relative)));
+        }
+        Path pets = Path.of("Implementation", "pets.csv");
+        assertNotEquals(Files.readAllLines(first.resolve(pets)), Files.readAllLines(other.resolve(pets)));
+    }
+}
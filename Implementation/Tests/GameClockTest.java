@@ -0,0 +1,198 @@
+package Implementation.Tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import Implementation.GameClock;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameClockTest {
+    private GameClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = GameClock.createManual();
+    }
+
+    @Test
+    @DisplayName("Test handlers run once per period")
+    void testPeriodicHandler() {
+        AtomicInteger fast = new AtomicInteger();
+        AtomicInteger slow = new AtomicInteger();
+        clock.schedule("fast", 500, fast::incrementAndGet);
+        clock.schedule("slow", 5000, slow::incrementAndGet);
+
+        for (int i = 0; i < 100; i++) {
+            clock.advance(100);
+        }
+
+        assertEquals(20, fast.get());
+        assertEquals(2, slow.get());
+    }
+
+    @Test
+    @DisplayName("Test periods longer than the first wheel level cascade correctly")
+    void testLongPeriods() {
+        AtomicInteger minute = new AtomicInteger();
+        AtomicInteger hour = new AtomicInteger();
+        clock.schedule("minute", 60_000, minute::incrementAndGet);
+        clock.schedule("hour", 3_600_000, hour::incrementAndGet);
+
+        for (int i = 0; i < 7200; i++) {
+            clock.advance(1000);
+        }
+
+        assertEquals(120, minute.get());
+        assertEquals(2, hour.get());
+    }
+
+    @Test
+    @DisplayName("Test a handler that fell behind runs once instead of catching up")
+    void testMissedPeriodsCoalesce() {
+        AtomicInteger runs = new AtomicInteger();
+        clock.schedule("second", 1000, runs::incrementAndGet);
+
+        clock.advance(10_000);
+        assertEquals(1, runs.get());
+
+        clock.advance(1000);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("Test handlers due on the same tick share one wakeup")
+    void testWakeupsCoalesce() {
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            clock.schedule("handler-" + i, 1000, runs::incrementAndGet);
+        }
+
+        clock.advance(1000);
+
+        assertEquals(10, runs.get());
+        assertEquals(1, clock.getWakeups());
+    }
+
+    @Test
+    @DisplayName("Test cancelled handlers stop running, also when cancelled from inside")
+    void testCancel() {
+        AtomicInteger runs = new AtomicInteger();
+        GameClock.Registration[] self = new GameClock.Registration[1];
+        self[0] = clock.schedule("countdown", 1000, () -> {
+            if (runs.incrementAndGet() == 3) {
+                self[0].cancel();
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            clock.advance(1000);
+        }
+
+        assertEquals(3, runs.get());
+        assertTrue(self[0].isCancelled());
+        assertTrue(clock.getStats().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test paused groups do not run and restart a full period after resuming")
+    void testPauseAndResume() {
+        AtomicInteger window = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+        clock.schedule("sprite", "window", 500, window::incrementAndGet);
+        clock.schedule("playtime", 1000, other::incrementAndGet);
+
+        clock.advance(500);
+        clock.advance(500);
+        assertEquals(2, window.get());
+
+        clock.pause("window");
+        assertTrue(clock.isPaused("window"));
+        for (int i = 0; i < 10; i++) {
+            clock.advance(1000);
+        }
+        assertEquals(2, window.get());
+        assertEquals(11, other.get());
+
+        clock.resume("window");
+        clock.advance(400);
+        assertEquals(2, window.get());
+        clock.advance(100);
+        assertEquals(3, window.get());
+    }
+
+    @Test
+    @DisplayName("Test cancelling a group stops all of its handlers")
+    void testCancelGroup() {
+        AtomicInteger runs = new AtomicInteger();
+        clock.schedule("a", "window", 1000, runs::incrementAndGet);
+        clock.schedule("b", "window", 2000, runs::incrementAndGet);
+        clock.schedule("c", 1000, runs::incrementAndGet);
+
+        clock.cancelGroup("window");
+        clock.advance(2000);
+
+        assertEquals(1, runs.get());
+        assertEquals(1, clock.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Test handler statistics count runs and a failing handler does not stop the clock")
+    void testStats() {
+        AtomicInteger runs = new AtomicInteger();
+        clock.schedule("ok", 1000, runs::incrementAndGet);
+        clock.schedule("failing", 1000, () -> {
+            throw new IllegalStateException("expected by test");
+        });
+
+        clock.advance(1000);
+        clock.advance(1000);
+
+        assertEquals(2, runs.get());
+        List<GameClock.HandlerStats> stats = clock.getStats();
+        assertEquals(2, stats.size());
+        for (GameClock.HandlerStats handler : stats) {
+            assertEquals(2, handler.getInvocations());
+            assertEquals(1000, handler.getPeriodMillis());
+            assertTrue(handler.getMaxNanos() <= handler.getTotalNanos());
+        }
+        assertTrue(clock.statsReport().contains("failing"));
+    }
+
+    @Test
+    @DisplayName("Test one-shot events run once at their deadline, also far in the future")
+    void testScheduleOnce() {
+        AtomicInteger soon = new AtomicInteger();
+        AtomicInteger later = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        clock.scheduleOnce("soon", 1500, soon::incrementAndGet);
+        clock.scheduleOnce("later", 2 * 3_600_000 + 300, later::incrementAndGet);
+        clock.scheduleOnce("cancelled", 1000, cancelled::incrementAndGet).cancel();
+
+        clock.advance(1400);
+        assertEquals(0, soon.get());
+        clock.advance(100);
+        assertEquals(1, soon.get());
+
+        clock.advance(2 * 3_600_000 - 1500);
+        assertEquals(0, later.get());
+        clock.advance(300);
+        assertEquals(1, later.get());
+
+        clock.advance(3_600_000);
+        assertEquals(1, soon.get());
+        assertEquals(1, later.get());
+        assertEquals(0, cancelled.get());
+        assertTrue(clock.getStats().isEmpty());
+        assertEquals(2 * 3_600_000 + 3_600_000 + 300, clock.nanoTime() / 1_000_000);
+    }
+
+    @Test
+    @DisplayName("Test invalid periods are rejected")
+    void testInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> clock.schedule("bad", 0, () -> { }));
+        assertThrows(IllegalArgumentException.class, () -> clock.scheduleOnce("bad", -1, () -> { }));
+    }
+}
@@ -0,0 +1,110 @@
+package Implementation.Tests;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Implementation.Log;
+
+public class LogTest {
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    void setUp() {
+        // Let earlier messages of other tests reach the real console first
+        Log.flush(1000);
+        originalOut = System.out;
+        originalErr = System.err;
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        System.setErr(new PrintStream(err, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Log.flush(1000);
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("Test debug output is off by default")
+    void testDefaultLevel() {
+        Log log = Log.get("LogTestDefault");
+        assertFalse(log.isDebugEnabled());
+        assertTrue(log.isEnabled(Log.Level.INFO));
+
+        AtomicInteger built = new AtomicInteger();
+        log.debug(() -> "expensive " + built.incrementAndGet());
+        log.debug("plain debug");
+        log.info("visible info");
+        assertTrue(Log.flush(1000));
+
+        assertEquals(0, built.get());
+        assertFalse(out.toString().contains("debug"));
+        assertTrue(out.toString().contains("INFO"));
+        assertTrue(out.toString().contains("LogTestDefault - visible info"));
+    }
+
+    @Test
+    @DisplayName("Test warnings and errors go to standard error with their stack traces")
+    void testErrorsGoToStandardError() {
+        Log log = Log.get("LogTestErrors");
+        log.warn("disk is slow");
+        log.error("write failed", new IllegalStateException("boom"));
+        assertTrue(Log.flush(1000));
+
+        String errors = err.toString();
+        assertTrue(errors.contains("WARN"));
+        assertTrue(errors.contains("LogTestErrors - disk is slow"));
+        assertTrue(errors.contains("write failed"));
+        assertTrue(errors.contains("java.lang.IllegalStateException: boom"));
+        assertFalse(out.toString().contains("write failed"));
+    }
+
+    @Test
+    @DisplayName("Test levels can be changed per component")
+    void testComponentLevels() {
+        Log verbose = Log.get("LogTestVerbose");
+        Log quiet = Log.get("LogTestQuiet");
+        Log.setLevel("LogTestVerbose", Log.Level.DEBUG);
+        Log.setLevel("LogTestQuiet", Log.Level.OFF);
+        try {
+            assertSame(verbose, Log.get("LogTestVerbose"));
+            verbose.debug(() -> "traced detail");
+            quiet.error("silenced error");
+            assertTrue(Log.flush(1000));
+
+            assertTrue(out.toString().contains("DEBUG"));
+            assertTrue(out.toString().contains("traced detail"));
+            assertFalse(err.toString().contains("silenced error"));
+
+            // A component level survives a change of the default
+            Log.setDefaultLevel(Log.Level.ERROR);
+            assertTrue(verbose.isDebugEnabled());
+            assertFalse(Log.get("LogTestDefault").isEnabled(Log.Level.WARN));
+        } finally {
+            Log.setDefaultLevel(Log.Level.INFO);
+            Log.setLevel("LogTestVerbose", Log.Level.INFO);
+            Log.setLevel("LogTestQuiet", Log.Level.INFO);
+        }
+    }
+
+    @Test
+    @DisplayName("Test level names are parsed ignoring case")
+    void testParseLevel() {
+        assertEquals(Log.Level.DEBUG, Log.Level.parse("debug", Log.Level.INFO));
+        assertEquals(Log.Level.WARN, Log.Level.parse(" Warn ", Log.Level.INFO));
+        assertEquals(Log.Level.INFO, Log.Level.parse("verbose", Log.Level.INFO));
+        assertEquals(Log.Level.ERROR, Log.Level.parse(null, Log.Level.ERROR));
+    }
+}
@@ -0,0 +1,115 @@
+package Implementation.Tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Implementation.DataManager;
+import Implementation.MappedCsv;
+
+public class MappedCsvTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MappedCsv map(String contents) throws IOException {
+        Path file = Files.createTempFile(tempDir, "mapped", ".csv");
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return MappedCsv.open(file, StandardCharsets.UTF_8);
+    }
+
+    /** Parses text the way DataManager's reader does */
+    private static List<String[]> split(String contents) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(contents))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(line.split(","));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Test rows match readLine and split, including edge cases")
+    void testMatchesSplit() throws IOException {
+        String contents = "P001,U001,Fluffy,2,70\n"
+                + "\n"
+                + ",leading,empty\n"
+                + "trailing,empty,,\n"
+                + ",,\n"
+                + "middle,,empty\n"
+                + "windows,line\r\n"
+                + "old mac\r"
+                + "café,ünicode\n"
+                + "no,final,newline";
+        MappedCsv csv = map(contents);
+        List<String[]> expected = split(contents);
+        List<String[]> actual = csv.readAll();
+
+        assertEquals(expected.size(), csv.getRowCount());
+        for (int row = 0; row < expected.size(); row++) {
+            assertArrayEquals(expected.get(row), actual.get(row), "row " + row);
+            assertEquals(expected.get(row).length, csv.getFieldCount(row), "row " + row);
+            for (int column = 0; column < 6; column++) {
+                String field = column < expected.get(row).length ? expected.get(row)[column] : null;
+                assertEquals(field, csv.getField(row, column), "row " + row + ", column " + column);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test fields are compared and found without decoding")
+    void testFindRow() throws IOException {
+        MappedCsv csv = map("P001,U001,cat\nP002,U002,dog\nP003,U001,dragon\n");
+        assertEquals(1, csv.findRow(0, "P002"));
+        assertEquals(0, csv.findRow(1, "U001"));
+        assertEquals(2, csv.findRow(2, "dragon"));
+        assertEquals(-1, csv.findRow(0, "P00"));
+        assertEquals(-1, csv.findRow(5, "P001"));
+        assertTrue(csv.fieldEquals(0, 2, "cat"));
+        assertFalse(csv.fieldEquals(0, 2, "cats"));
+    }
+
+    @Test
+    @DisplayName("Test empty files have no rows")
+    void testEmptyFile() throws IOException {
+        MappedCsv csv = map("");
+        assertEquals(0, csv.getRowCount());
+        assertTrue(csv.readAll().isEmpty());
+        assertNull(csv.getField(0, 0));
+    }
+
+    @Test
+    @DisplayName("Test DataManager reads the same rows with the mapped reader")
+    void testDataManagerBackend() throws IOException {
+        Path file = tempDir.resolve("mapped_pets.csv");
+        Files.writeString(file, "P001,U001,Fluffy,2,70,80,90,75,2023-04-01 10:15:30,0,0,2023-04-01,cat\n"
+                + "P002,U002,Rex,3,60,85,95,80,2023-04-02 11:20:45,3600,1800,2023-04-02,dog\n");
+        List<String[]> buffered = new DataManager(file.toString()).readCSV();
+
+        DataManager.setMappedReader(true);
+        try {
+            DataManager manager = new DataManager(file.toString());
+            manager.setCacheEnabled(false);
+            List<String[]> mapped = manager.readCSV();
+            assertEquals(buffered.size(), mapped.size());
+            for (int row = 0; row < buffered.size(); row++) {
+                assertArrayEquals(buffered.get(row), mapped.get(row));
+            }
+            assertEquals("Rex", manager.getData(1, 2));
+        } finally {
+            DataManager.setMappedReader(false);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package Implementation.Tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Implementation.LatencyHistogram;
+import Implementation.Metrics;
+import Implementation.Players;
+import Implementation.VitalStats;
+
+public class MetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test histogram percentiles are within the bucket precision")
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_500, histogram.getMean());
+        assertEquals(5_000_000, histogram.getPercentile(50), 5_000_000 * 0.125);
+        assertEquals(9_900_000, histogram.getPercentile(99), 9_900_000 * 0.125);
+        assertTrue(histogram.getPercentile(50) >= 5_000_000);
+        assertEquals(10_000_000, histogram.getPercentile(100));
+        assertEquals(1000, histogram.getPercentile(0), 1000 * 0.125);
+
+        histogram.record(-5);
+        assertEquals(0, new LatencyHistogram().getPercentile(99));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("Test extreme values fall into valid buckets")
+    void testExtremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(7);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(3, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(7, histogram.getPercentile(50));
+    }
+
+    @Test
+    @DisplayName("Test counters, gauges and histograms appear in the snapshot")
+    void testSnapshot() {
+        Metrics.Counter counter = Metrics.counter("test.snapshot.counter");
+        assertSame(counter, Metrics.counter("test.snapshot.counter"));
+        long before = counter.get();
+        counter.increment();
+        counter.add(4);
+        Metrics.gauge("test.snapshot.gauge", () -> 42);
+        Metrics.histogram("test.snapshot.histogram").record(1000);
+
+        Map<String, Long> snapshot = Metrics.snapshot();
+        assertEquals(before + 5, snapshot.get("test.snapshot.counter"));
+        assertEquals(42, snapshot.get("test.snapshot.gauge"));
+        assertTrue(snapshot.get("test.snapshot.histogram.count") >= 1);
+        assertTrue(snapshot.containsKey("test.snapshot.histogram.p99"));
+        assertTrue(Metrics.report().contains("test.snapshot.gauge = 42"));
+    }
+
+    @Test
+    @DisplayName("Test data access and pet ticks are instrumented")
+    void testInstrumentation() throws IOException {
+        File file = tempDir.resolve("metrics_players.csv").toFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("U001,alice,alice@example.com,2024-01-01,2024-01-01T10:00:00Z,100,0\n");
+        }
+        long reads = Metrics.histogram("data.metrics_players.read").getCount();
+        long lookups = Metrics.histogram("data.metrics_players.lookup").getCount();
+        long scans = Metrics.counter("data.metrics_players.scans").get();
+        long writes = Metrics.histogram("data.metrics_players.write").getCount();
+
+        Players players = new Players(file.getAbsolutePath());
+        assertEquals("alice", players.getUsername("U001"));
+        players.setUsername("U001", "bob");
+
+        assertTrue(Metrics.histogram("data.metrics_players.read").getCount() > reads);
+        assertTrue(Metrics.counter("data.metrics_players.readChars").get() > 0);
+        assertEquals(lookups + 2, Metrics.histogram("data.metrics_players.lookup").getCount());
+        assertEquals(scans + 1, Metrics.counter("data.metrics_players.scans").get());
+        assertTrue(Metrics.histogram("data.metrics_players.write").getCount() > writes);
+
+        long ticks = Metrics.histogram("pet.tick").getCount();
+        new VitalStats(100, 100, 100, 100, 0).updateStats();
+        assertEquals(ticks + 1, Metrics.histogram("pet.tick").getCount());
+    }
+
+    @Test
+    @DisplayName("Test metrics are published over JMX")
+    void testJmx() throws Exception {
+        Metrics.install();
+        Metrics.counter("test.jmx.counter").add(3);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertTrue((Long) server.getAttribute(name, "test.jmx.counter") >= 3);
+        assertTrue(((String) server.invoke(name, "report", null, null)).contains("test.jmx.counter"));
+    }
+}
@@ -0,0 +1,103 @@
+package Implementation.Tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import Implementation.OfflineDecay;
+import Implementation.VitalStats;
+
+import java.util.Random;
+
+public class OfflineDecayTest {
+
+    private static VitalStats copy(VitalStats stats) {
+        VitalStats copy = new VitalStats(stats.getHealth(), stats.getSleep(), stats.getHunger(),
+                stats.getHappiness(), stats.getType());
+        copy.getActiveStates().clear();
+        copy.getActiveStates().addAll(stats.getActiveStates());
+        return copy;
+    }
+
+    private static void assertSamePet(VitalStats expected, VitalStats actual, String context) {
+        assertEquals(expected.getHealth(), actual.getHealth(), "health " + context);
+        assertEquals(expected.getSleep(), actual.getSleep(), "sleep " + context);
+        assertEquals(expected.getHunger(), actual.getHunger(), "hunger " + context);
+        assertEquals(expected.getHappiness(), actual.getHappiness(), "happiness " + context);
+        assertEquals(expected.getActiveStates(), actual.getActiveStates(), "states " + context);
+    }
+
+    @Test
+    @DisplayName("Test catching up matches the tick loop for every tick count")
+    void testMatchesTickLoop() {
+        Random random = new Random(11);
+        for (int pet = 0; pet < 300; pet++) {
+            VitalStats start = new VitalStats(1 + random.nextInt(100), random.nextInt(101), random.nextInt(101),
+                    random.nextInt(101), random.nextInt(3));
+            VitalStats looped = copy(start);
+            for (int ticks = 1; ticks <= 400; ticks++) {
+                looped.updateStats();
+                VitalStats caughtUp = copy(start);
+                OfflineDecay.advance(caughtUp, ticks);
+                assertSamePet(looped, caughtUp, "of pet " + pet + " after " + ticks + " ticks");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test catching up keeps states that the stats alone do not imply")
+    void testStartStates() {
+        // Sleeping with sleep left, angry after playing up to just below half, hungry with some fullness
+        VitalStats sleeping = new VitalStats(100, 0, 100, 100, 0);
+        sleeping.setSleep(55);
+        VitalStats angry = new VitalStats(100, 100, 100, 0, 1);
+        angry.play(49);
+        VitalStats calmed = new VitalStats(100, 100, 100, 0, 2);
+        calmed.setHappiness(60);
+        VitalStats hungry = new VitalStats(60, 100, 0, 100, 1);
+        hungry.setHunger(1);
+        VitalStats weak = new VitalStats(100, 100, 100, 100, 2);
+        weak.setHealth(0);
+
+        for (VitalStats start : new VitalStats[]{sleeping, angry, calmed, hungry, weak}) {
+            VitalStats looped = copy(start);
+            for (int ticks = 1; ticks <= 200; ticks++) {
+                looped.updateStats();
+                VitalStats caughtUp = copy(start);
+                OfflineDecay.advance(caughtUp, ticks);
+                assertSamePet(looped, caughtUp, "of " + start.getActiveStates() + " after " + ticks + " ticks");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a month away is caught up without ticking")
+    void testMonthAway() {
+        long ticks = OfflineDecay.ticksFor(30L * 24 * 60 * 60 * 1000);
+        assertEquals(518_400, ticks);
+
+        VitalStats stats = new VitalStats(100, 100, 100, 100, 1);
+        VitalStats looped = copy(stats);
+        for (long tick = 0; tick < ticks; tick++) {
+            looped.updateStats();
+        }
+        OfflineDecay.advance(stats, ticks);
+
+        assertSamePet(looped, stats, "after a month");
+        assertTrue(stats.isDead());
+    }
+
+    @Test
+    @DisplayName("Test nothing changes without ticks or for dead pets")
+    void testNoChange() {
+        VitalStats stats = new VitalStats(80, 70, 60, 50, 0);
+        OfflineDecay.advance(stats, 0);
+        assertEquals(80, stats.getHealth());
+        assertEquals(70, stats.getSleep());
+        assertEquals(0, OfflineDecay.ticksFor(-1000));
+
+        VitalStats dead = new VitalStats(0, 70, 60, 50, 0);
+        OfflineDecay.advance(dead, 1000);
+        assertEquals(70, dead.getSleep());
+        assertTrue(dead.isDead());
+    }
+}
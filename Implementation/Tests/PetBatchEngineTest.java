@@ -0,0 +1,135 @@
+package Implementation.Tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import Implementation.PetBatchEngine;
+import Implementation.VitalStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PetBatchEngineTest {
+
+    private static VitalStats randomPet(Random random) {
+        // Small stats are weighted up so that pets reach SLEEPING, HUNGRY, ANGRY and DEAD quickly
+        return new VitalStats(randomStat(random), randomStat(random), randomStat(random), randomStat(random),
+                random.nextInt(3));
+    }
+
+    private static int randomStat(Random random) {
+        return random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(101);
+    }
+
+    private static void assertSamePet(VitalStats expected, PetBatchEngine engine, int index, String context) {
+        assertEquals(expected.getHealth(), engine.getHealth(index), "health " + context);
+        assertEquals(expected.getSleep(), engine.getSleep(index), "sleep " + context);
+        assertEquals(expected.getHunger(), engine.getHunger(index), "hunger " + context);
+        assertEquals(expected.getHappiness(), engine.getHappiness(index), "happiness " + context);
+        assertEquals(expected.getActiveStates(), engine.getActiveStates(index), "states " + context);
+    }
+
+    @Test
+    @DisplayName("Test the engine matches VitalStats tick for tick")
+    void testMatchesVitalStatsEveryTick() {
+        Random random = new Random(42);
+        List<VitalStats> pets = new ArrayList<>();
+        PetBatchEngine engine = new PetBatchEngine(16);
+        for (int i = 0; i < 500; i++) {
+            VitalStats pet = randomPet(random);
+            pets.add(pet);
+            engine.add(pet.getHealth(), pet.getSleep(), pet.getHunger(), pet.getHappiness(), pet.getType());
+        }
+
+        for (int tick = 1; tick <= 300; tick++) {
+            engine.tick();
+            for (int i = 0; i < pets.size(); i++) {
+                pets.get(i).updateStats();
+                assertSamePet(pets.get(i), engine, i, "of pet " + i + " after tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test pets copied with their states keep the ANGRY and SLEEPING hysteresis")
+    void testCopiesActiveStates() {
+        // Angry pets that were played with up to just below half stay angry until happiness reaches 50
+        VitalStats angry = new VitalStats(100, 100, 100, 0, 0);
+        angry.play(50);
+        VitalStats stillAngry = new VitalStats(100, 100, 100, 0, 1);
+        stillAngry.play(49);
+        VitalStats sleeping = new VitalStats(100, 0, 100, 100, 2);
+        sleeping.setSleep(40);
+
+        VitalStats[] pets = {angry, stillAngry, sleeping};
+        PetBatchEngine engine = new PetBatchEngine(pets.length);
+        for (VitalStats pet : pets) {
+            engine.add(pet);
+        }
+        assertTrue((engine.getStateMask(1) & PetBatchEngine.ANGRY) != 0);
+
+        for (int tick = 1; tick <= 200; tick++) {
+            engine.tick();
+            for (int i = 0; i < pets.length; i++) {
+                pets[i].updateStats();
+                assertSamePet(pets[i], engine, i, "of pet " + i + " after tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a large batch split across cores matches VitalStats after many ticks")
+    void testParallelBatch() {
+        Random random = new Random(7);
+        int count = PetBatchEngine.PARALLEL_THRESHOLD * 2 + 123;
+        VitalStats[] pets = new VitalStats[count];
+        PetBatchEngine engine = new PetBatchEngine(count);
+        for (int i = 0; i < count; i++) {
+            pets[i] = randomPet(random);
+            engine.add(pets[i]);
+        }
+
+        engine.tick(60);
+        engine.tick(40);
+
+        for (int i = 0; i < count; i++) {
+            for (int tick = 0; tick < 100; tick++) {
+                pets[i].updateStats();
+            }
+            assertSamePet(pets[i], engine, i, "of pet " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Test dead pets stay dead and unknown types are rejected")
+    void testDeadPetsAndInvalidType() {
+        PetBatchEngine engine = new PetBatchEngine(1);
+        int dead = engine.add(0, 50, 50, 50, 1);
+        engine.tick(10);
+
+        assertTrue(engine.isDead(dead));
+        assertEquals(50, engine.getSleep(dead));
+        assertEquals(PetBatchEngine.DEAD, engine.getStateMask(dead));
+        assertThrows(IllegalArgumentException.class, () -> engine.add(100, 100, 100, 100, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.getHealth(1));
+    }
+
+    @Test
+    @DisplayName("Test states carried into a new engine or through changed stats follow the VitalStats rules")
+    void testCarriedStates() {
+        PetBatchEngine engine = new PetBatchEngine(2);
+        // Recovering from sleep and anger, as a pet left by an earlier batch would be
+        int pet = engine.add(90, 40, 50, 30, 0, PetBatchEngine.SLEEPING | PetBatchEngine.ANGRY);
+        assertEquals(PetBatchEngine.SLEEPING | PetBatchEngine.ANGRY, engine.getStateMask(pet));
+        assertEquals(0, engine.getStateMask(engine.add(90, 40, 50, 30, 0)));
+
+        engine.setStats(pet, 90, 100, 50, 60);
+        assertEquals(0, engine.getStateMask(pet));
+        engine.setStats(pet, 0, 100, 50, 60);
+        assertTrue(engine.isDead(pet));
+        // A revived pet starts over
+        engine.setStats(pet, 100, 100, 100, 100);
+        assertEquals(0, engine.getStateMask(pet));
+    }
+}
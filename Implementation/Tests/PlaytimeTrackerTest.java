@@ -0,0 +1,251 @@
+package Implementation.Tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import Implementation.Commands;
+import Implementation.GameClock;
+import Implementation.ParentalControls;
+import Implementation.PlaytimePolicy;
+import Implementation.PlaytimeTracker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PlaytimeTrackerTest {
+    private static final int THREADS = 8;
+    private static final int PLAYERS = 2000;
+
+    private GameClock clock;
+    private PlaytimeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = GameClock.createManual();
+        tracker = PlaytimeTracker.createStandalone(clock);
+    }
+
+    @Test
+    @DisplayName("Test session time is computed from the start timestamp")
+    void testElapsedTime() {
+        tracker.startSession("p1", null);
+        clock.advance(59_000);
+        assertEquals(59, tracker.getSessionSeconds("p1"));
+        assertEquals(0, tracker.getSessionMinutes("p1"));
+
+        clock.advance(62_000);
+        assertEquals(121, tracker.getSessionSeconds("p1"));
+        assertEquals(2, tracker.getSessionMinutes("p1"));
+        assertEquals(0, tracker.getSessionSeconds("unknown"));
+    }
+
+    @Test
+    @DisplayName("Test starting an active session again keeps the original start")
+    void testDuplicateStart() {
+        tracker.startSession("p1", null);
+        clock.advance(30_000);
+        tracker.startSession("p1", null);
+        clock.advance(30_000);
+
+        assertEquals(60, tracker.endSession("p1"));
+        assertFalse(tracker.hasSession("p1"));
+        assertEquals(0, tracker.endSession("p1"));
+    }
+
+    @Test
+    @DisplayName("Test sessions started and ended from many threads are each counted once")
+    void testConcurrentSessions() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            runOnAllThreads(pool, thread -> {
+                for (int i = 0; i < PLAYERS; i++) {
+                    tracker.startSession("player-" + i, null);
+                }
+                return 0;
+            });
+            assertEquals(PLAYERS, tracker.getActiveSessionCount());
+
+            clock.advance(90_000);
+            List<Integer> totals = runOnAllThreads(pool, thread -> {
+                int seconds = 0;
+                for (int i = 0; i < PLAYERS; i++) {
+                    seconds += tracker.endSession("player-" + ((i + thread * 7) % PLAYERS));
+                }
+                return seconds;
+            });
+
+            assertEquals(0, tracker.getActiveSessionCount());
+            assertEquals(90L * PLAYERS, totals.stream().mapToLong(Integer::longValue).sum());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test the limit policy is read once per session and checked in memory")
+    void testPolicyIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> {
+            loads.incrementAndGet();
+            return new PlaytimePolicy(true, 50, 60);
+        });
+        tracker.startSession("p1", null);
+        assertEquals(1, loads.get());
+
+        for (int second = 0; second < 600; second++) {
+            assertTrue(tracker.checkPlaytimeLimits("p1", null));
+            assertTrue(tracker.getPlaytimeStatusText("p1").contains("Limit: ON"));
+            clock.advance(1000);
+        }
+        assertFalse(tracker.checkPlaytimeLimits("p1", null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test an invalidated policy is read again on the next check")
+    void testPolicyInvalidation() {
+        AtomicInteger limit = new AtomicInteger(5);
+        AtomicInteger loads = new AtomicInteger();
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> {
+            loads.incrementAndGet();
+            return new PlaytimePolicy(true, 0, limit.get());
+        });
+        tracker.startSession("p1", null);
+        clock.advance(6 * 60_000);
+        assertFalse(tracker.checkPlaytimeLimits("p1", null));
+
+        limit.set(30);
+        assertFalse(tracker.checkPlaytimeLimits("p1", null));
+        tracker.invalidatePolicy("p1");
+        assertTrue(tracker.checkPlaytimeLimits("p1", null));
+        assertTrue(tracker.getPlaytimeStatusText("p1").endsWith("(6/30 min)"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test a new allowed play window set through Commands is enforced straight away")
+    void testAllowedPlayTimeEnforcedImmediately(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("playtime_tracking.csv");
+        Files.writeString(file, "p1,true,0,0,120,0\n");
+        ParentalControls controls = new ParentalControls(file.toString());
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> PlaytimePolicy.load(controls, playerId));
+        Commands commands = new Commands(null, null, null, null, null, controls, tracker);
+        tracker.startSession("p1", null);
+        clock.advance(30 * 60_000);
+        assertTrue(tracker.checkPlaytimeLimits("p1", null));
+
+        assertEquals("Maximum playtime set successfully.", commands.setAllowedPlayTime("p1", 10, 0, 10, 20));
+        assertFalse(tracker.checkPlaytimeLimits("p1", null));
+        assertTrue(tracker.getPlaytimeStatusText("p1").endsWith("(30/20 min)"));
+    }
+
+    @Test
+    @DisplayName("Test policy arithmetic")
+    void testPolicy() {
+        PlaytimePolicy policy = new PlaytimePolicy(true, 40, 60);
+        assertEquals(45, policy.getTotalMinutes(5));
+        assertEquals(15, policy.getRemainingMinutes(5));
+        assertFalse(policy.isExceeded(19));
+        assertTrue(policy.isExceeded(20));
+        assertFalse(new PlaytimePolicy(false, 40, 60).isExceeded(100));
+        assertFalse(PlaytimePolicy.UNLIMITED.isExceeded(Integer.MAX_VALUE / 2));
+    }
+
+    @Test
+    @DisplayName("Test the warning and the limit fire as one-shot events at their exact deadlines")
+    void testLimitDeadlines() {
+        AtomicInteger reached = new AtomicInteger();
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> new PlaytimePolicy(true, 50, 60));
+        tracker.startSession("p1", null);
+        tracker.watchLimits("p1", null, reached::incrementAndGet);
+        assertEquals(2, clock.getStats().size());
+
+        clock.advance(299_900);
+        assertEquals(2, clock.getStats().size());
+        clock.advance(100);
+        assertEquals(1, clock.getStats().size());
+
+        clock.advance(299_900);
+        assertEquals(0, reached.get());
+        clock.advance(100);
+        assertEquals(1, reached.get());
+        assertTrue(clock.getStats().isEmpty());
+
+        clock.advance(3_600_000);
+        assertEquals(1, reached.get());
+    }
+
+    @Test
+    @DisplayName("Test changing the limit moves its deadline and ending the session cancels it")
+    void testLimitDeadlineRescheduled() {
+        AtomicInteger limit = new AtomicInteger(10);
+        AtomicInteger reached = new AtomicInteger();
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> new PlaytimePolicy(true, 0, limit.get()));
+        tracker.startSession("p1", null);
+        tracker.watchLimits("p1", null, reached::incrementAndGet);
+
+        clock.advance(5 * 60_000);
+        limit.set(20);
+        tracker.invalidatePolicy("p1");
+        clock.advance(10 * 60_000);
+        assertEquals(0, reached.get());
+        clock.advance(5 * 60_000);
+        assertEquals(1, reached.get());
+
+        tracker.startSession("p2", null);
+        tracker.watchLimits("p2", null, reached::incrementAndGet);
+        tracker.endSession("p2");
+        assertTrue(clock.getStats().isEmpty());
+        clock.advance(60 * 60_000);
+        assertEquals(1, reached.get());
+    }
+
+    @Test
+    @DisplayName("Test a limit reached before anyone watched it is reported on watching")
+    void testLimitAlreadyReached() {
+        AtomicInteger reached = new AtomicInteger();
+        tracker = PlaytimeTracker.createStandalone(clock, playerId -> new PlaytimePolicy(true, 60, 60));
+        tracker.startSession("p1", null);
+        clock.advance(100);
+        tracker.watchLimits("p1", null, reached::incrementAndGet);
+        assertEquals(1, reached.get());
+        clock.advance(60_000);
+        assertEquals(1, reached.get());
+    }
+
+    private interface ThreadTask {
+        int run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the task on every pool thread at once and returns the results.
+     */
+    private static List<Integer> runOnAllThreads(ExecutorService pool, ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.run(thread);
+            }));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,41 @@
+package Implementation.Tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import Implementation.SpriteCache;
+
+import javax.swing.ImageIcon;
+
+public class SpriteCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        SpriteCache.clear();
+    }
+
+    @Test
+    @DisplayName("Test sprites are scaled to the requested size")
+    void testSpriteIsScaled() {
+        ImageIcon icon = SpriteCache.getPetSprite("dog", "default", 1, 40, 20);
+        assertNotNull(icon);
+        assertEquals(40, icon.getIconWidth());
+        assertEquals(20, icon.getIconHeight());
+    }
+
+    @Test
+    @DisplayName("Test the same icon is returned for the same sprite and size")
+    void testSpriteIsCached() {
+        ImageIcon first = SpriteCache.getPetSprite("Cat", "sleep", 2, 150, 100);
+        assertSame(first, SpriteCache.getIcon("cat/sleep_2.png", 150, 100));
+        assertNotSame(first, SpriteCache.getIcon("cat/sleep_2.png", 450, 300));
+    }
+
+    @Test
+    @DisplayName("Test missing sprites return null")
+    void testMissingSprite() {
+        assertNull(SpriteCache.getPetSprite("unicorn", "default", 1, 100, 100));
+        assertNull(SpriteCache.getPetSprite("unicorn", "default", 1, 100, 100));
+    }
+}
@@ -0,0 +1,178 @@
+package Implementation.Tests;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import Implementation.BinaryStorage;
+import Implementation.CsvStorage;
+import Implementation.DataManager;
+import Implementation.MemoryStorage;
+import Implementation.StorageBackend;
+import Implementation.TableMutation;
+import Implementation.VirtualPets;
+
+public class StorageBackendTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String previousDataDir;
+
+    @BeforeEach
+    void setUp() {
+        previousDataDir = System.getProperty("app.data.dir");
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataManager.setStorageBackend(new CsvStorage());
+        if (previousDataDir == null) {
+            System.clearProperty("app.data.dir");
+        } else {
+            System.setProperty("app.data.dir", previousDataDir);
+        }
+    }
+
+    private static List<String[]> rows(String... lines) {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : lines) {
+            rows.add(line.split(",", -1));
+        }
+        return rows;
+    }
+
+    private static void assertRows(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Test backend selection by name")
+    void testNamed() {
+        assertEquals("csv", StorageBackend.named(null).getName());
+        assertEquals("csv", StorageBackend.named("unknown").getName());
+        assertEquals("memory", StorageBackend.named("Memory").getName());
+        assertEquals("binary", StorageBackend.named(" binary ").getName());
+    }
+
+    @Test
+    @DisplayName("Test memory backend keeps DataManager changes off disk")
+    void testMemoryBackend() throws IOException {
+        MemoryStorage storage = new MemoryStorage();
+        DataManager.setStorageBackend(storage);
+        String table = tempDir.resolve("pets.csv").toString();
+        storage.writeTable(table, rows("P001,Fluffy,70", "P002,Rex,60"));
+
+        DataManager manager = new DataManager(table);
+        assertEquals("Fluffy", manager.getData(0, 1));
+        manager.setData(1, 2, "55");
+        manager.addRow(new String[]{"P003", "Sparky", "65"});
+        manager.removeRow(0);
+
+        assertRows(rows("P002,Rex,55", "P003,Sparky,65"), storage.readTable(table));
+        assertFalse(Files.exists(tempDir.resolve("pets.csv")));
+
+        // A table the backend does not hold is empty and stays off disk too
+        String missing = tempDir.resolve("missing.csv").toString();
+        assertEquals(0, new DataManager(missing).getRowCount());
+        assertFalse(Files.exists(tempDir.resolve("missing.csv")));
+    }
+
+    @Test
+    @DisplayName("Test binary backend round trip")
+    void testBinaryRoundTrip() throws IOException {
+        System.setProperty("app.data.dir", tempDir.toString());
+        BinaryStorage storage = new BinaryStorage();
+        List<String[]> expected = rows("id,name,value", "07,,-5", "2147483647,-2147483648,12345678901", "+7,Ünïcödé,0");
+
+        storage.writeTable("pets.csv", expected);
+        assertTrue(Files.exists(tempDir.resolve("pets.csv.bin")));
+        assertTrue(Files.exists(tempDir.resolve("pets.csv.dict")));
+        assertRows(expected, storage.readTable("pets.csv"));
+
+        storage.applyMutation("pets.csv", TableMutation.setCell(1, 4, "x"));
+        assertArrayEquals(new String[]{"07", "", "-5", "", "x"}, storage.readTable("pets.csv").get(1));
+        assertEquals(Arrays.asList("pets.csv"), storage.listTables());
+    }
+
+    @Test
+    @DisplayName("Test binary backend imports an existing CSV file")
+    void testBinaryImport() throws IOException {
+        System.setProperty("app.data.dir", tempDir.toString());
+        Files.writeString(tempDir.resolve("items.csv"), "1,Ball,10\n2,Bone,20\n");
+        DataManager.setStorageBackend(new BinaryStorage());
+
+        DataManager manager = new DataManager("items.csv");
+        assertEquals("Bone", manager.getData(1, 1));
+        manager.setData(1, 2, "25");
+
+        assertEquals("1,Ball,10\n2,Bone,20\n", Files.readString(tempDir.resolve("items.csv")));
+        assertRows(rows("1,Ball,10", "2,Bone,25"), new BinaryStorage().readTable("items.csv"));
+    }
+
+    @Test
+    @DisplayName("Test binary backend writes cells in place and imports a replaced CSV file")
+    void testBinaryInPlace() throws IOException {
+        System.setProperty("app.data.dir", tempDir.toString());
+        Files.writeString(tempDir.resolve("items.csv"), "1,Ball,10\n2,Bone,20\n");
+        BinaryStorage storage = new BinaryStorage();
+        assertRows(rows("1,Ball,10", "2,Bone,20"), storage.readTable("items.csv"));
+        long size = Files.size(tempDir.resolve("items.csv.bin"));
+
+        storage.applyMutation("items.csv", TableMutation.setCell(1, 2, "25"));
+        storage.applyMutation("items.csv", TableMutation.setCell(0, 1, "Frisbee"));
+        assertEquals(size, Files.size(tempDir.resolve("items.csv.bin")));
+        assertRows(rows("1,Frisbee,10", "2,Bone,25"), new BinaryStorage().readTable("items.csv"));
+
+        // Replacing the CSV file, e.g. by resetting the game data, imports it again
+        Files.writeString(tempDir.resolve("items.csv"), "3,Rope,5\n");
+        assertRows(rows("3,Rope,5"), storage.readTable("items.csv"));
+    }
+
+    @Test
+    @DisplayName("Test binary backend refuses a table in the binary mode of the CSV backend")
+    void testBinaryBackendAndBinaryMode() throws IOException {
+        System.setProperty("app.data.dir", tempDir.toString());
+        Files.writeString(tempDir.resolve("pets.csv"),
+                "P001,U001,Fluffy,2,70,80,90,75,2023-04-01 10:15:30,0,0,2023-04-01,cat\n");
+        BinaryStorage storage = new BinaryStorage();
+        assertEquals("Fluffy", storage.readTable("pets.csv").get(0)[2]);
+
+        VirtualPets pets = new VirtualPets("pets.csv");
+        pets.setBinaryMode(true);
+        try {
+            pets.setHunger("P001", 12);
+            assertThrows(IOException.class, () -> storage.readTable("pets.csv"));
+            assertThrows(IOException.class, () -> storage.applyMutation("pets.csv", TableMutation.setCell(0, 4, "1")));
+        } finally {
+            pets.setBinaryMode(false);
+        }
+        assertEquals("12", storage.readTable("pets.csv").get(0)[4]);
+    }
+
+    @Test
+    @DisplayName("Test CSV backend lists tables in the data directory")
+    void testCsvListTables() throws IOException {
+        System.setProperty("app.data.dir", tempDir.toString());
+        CsvStorage storage = new CsvStorage();
+        storage.writeTable("pets.csv", rows("P001,Fluffy"));
+        storage.writeTable("saves/slot.csv", rows("1"));
+        Files.writeString(tempDir.resolve("notes.txt"), "not a table");
+
+        List<String> tables = storage.listTables();
+        tables.sort(null);
+        assertEquals(Arrays.asList("pets.csv", "saves/slot.csv"), tables);
+        assertRows(rows("P001,Fluffy"), storage.readTable("pets.csv"));
+    }
+}
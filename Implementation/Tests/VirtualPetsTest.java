@@ -6,11 +6,18 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import Implementation.DataManager;
+import Implementation.Metrics;
+import Implementation.OfflineDecay;
+import Implementation.PetProfile;
 import Implementation.VirtualPets;
 import Implementation.VitalStats;
 import Implementation.Date;
@@ -124,6 +131,88 @@ public class VirtualPetsTest {
         assertEquals(90, virtualPets.getHappiness("P001"));
     }
 
+    @Test
+    @DisplayName("Test updating the vital stats of every pet except an excluded one")
+    void testUpdateAllPetVitals() {
+        // Seen just now, so there is nothing to catch up on before the ticks
+        virtualPets.setLastSeen("P002", System.currentTimeMillis());
+        virtualPets.setLastSeen("P003", System.currentTimeMillis());
+        VitalStats expected = virtualPets.getVitalStats("P003");
+        for (int i = 0; i < 3; i++) {
+            expected.updateStats();
+        }
+
+        assertEquals(2, virtualPets.updateAllPetVitals(3, "P001"));
+
+        assertEquals(70, virtualPets.getHunger("P001"));
+        assertEquals(80, virtualPets.getHappiness("P001"));
+        assertEquals(expected.getHealth(), virtualPets.getHealth("P003"));
+        assertEquals(expected.getSleep(), virtualPets.getSleep("P003"));
+        assertEquals(expected.getHunger(), virtualPets.getHunger("P003"));
+        assertEquals(expected.getHappiness(), virtualPets.getHappiness("P003"));
+        assertEquals(54, virtualPets.getHunger("P002"));
+    }
+
+    /** Writes a file of dog pets whose stats reach zero and recover at different ticks */
+    private VirtualPets writeBatchPets(String name, int count) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        long lastSeen = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        try (FileWriter writer = new FileWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                int hunger = 10 + i * 2;
+                int happiness = i % 4 == 0 ? 2 : 30 + i;
+                int sleep = 1 + (i % 10) * 3;
+                writer.write("B" + i + ",U001,Dog" + i + ",1," + hunger + "," + happiness + ",90," + sleep
+                        + ",2023-04-01 10:15:30,0,0,2023-04-01,dog," + lastSeen + "\n");
+            }
+        }
+        return new VirtualPets(file.getAbsolutePath());
+    }
+
+    @Test
+    @DisplayName("Test repeated batch updates follow VitalStats tick by tick, keeping the pet states")
+    void testUpdateAllPetVitalsKeepsStates() throws IOException {
+        VirtualPets pets = writeBatchPets("batch-pets.csv", 40);
+        List<VitalStats> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            expected.add(pets.getVitalStats("B" + i));
+        }
+
+        for (int tick = 1; tick <= 30; tick++) {
+            long writes = Metrics.histogram("data.batch-pets.write").getCount();
+            pets.updateAllPetVitals(1, null);
+            assertTrue(Metrics.histogram("data.batch-pets.write").getCount() - writes <= 1, "one write per tick");
+            for (int i = 0; i < 40; i++) {
+                VitalStats stats = expected.get(i);
+                stats.updateStats();
+                String id = "B" + i;
+                String at = "pet " + id + " at tick " + tick;
+                assertEquals(stats.getHealth(), pets.getHealth(id), at);
+                assertEquals(stats.getSleep(), pets.getSleep(id), at);
+                assertEquals(stats.getHunger(), pets.getHunger(id), at);
+                assertEquals(stats.getHappiness(), pets.getHappiness(id), at);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a batch update in write-behind mode flushes at most once")
+    void testUpdateAllPetVitalsWriteBehind() throws IOException {
+        VirtualPets pets = writeBatchPets("batch-wb-pets.csv", 40);
+        DataManager.setFlushPolicy(60_000, 16);
+        pets.setWriteBehind(true);
+        try {
+            for (int tick = 0; tick < 5; tick++) {
+                long writes = Metrics.histogram("data.batch-wb-pets.write").getCount();
+                assertEquals(40, pets.updateAllPetVitals(1, null));
+                assertEquals(writes + 1, Metrics.histogram("data.batch-wb-pets.write").getCount());
+            }
+        } finally {
+            pets.setWriteBehind(false);
+            DataManager.setFlushPolicy(2000, 16);
+        }
+    }
+
     @Test
     @DisplayName("Test getting health")
     void testGetHealth() {
@@ -192,6 +281,73 @@ public class VirtualPetsTest {
         assertEquals(90, virtualPets.getHappiness("P001"));
     }
 
+    @Test
+    @DisplayName("Test counting the ticks missed since the pet was last accessed")
+    void testGetOfflineTicks() {
+        // Without a last seen time only the days that certainly passed are counted
+        long days = new Date("2023-04-02").daysUntil(Date.now());
+        assertEquals((days - 1) * 24 * 60 * 60 / 5, virtualPets.getOfflineTicks("P002"));
+
+        virtualPets.updateLastAccessed("P002");
+        assertEquals(0, virtualPets.getOfflineTicks("P002"));
+        virtualPets.setLastAccessed("P001", new Date("not a date"));
+        assertEquals(0, virtualPets.getOfflineTicks("P001"));
+    }
+
+    @Test
+    @DisplayName("Test offline ticks count the real time since the pet was last seen, not calendar days")
+    void testGetOfflineTicksUsesLastSeen() {
+        long now = System.currentTimeMillis();
+        // Quit at 23:59 and loaded at 00:01: two minutes, not a day
+        virtualPets.setLastAccessed("P002", Date.of(now - TimeUnit.DAYS.toMillis(1)));
+        virtualPets.setLastSeen("P002", now - TimeUnit.MINUTES.toMillis(2));
+        assertEquals(24, virtualPets.getOfflineTicks("P002", now));
+
+        // Quit at 00:01 and loaded at 23:59 the same day: almost a day
+        long away = TimeUnit.HOURS.toMillis(23) + TimeUnit.MINUTES.toMillis(58);
+        virtualPets.setLastAccessed("P002", Date.of(now));
+        virtualPets.setLastSeen("P002", now - away);
+        assertEquals(away / OfflineDecay.TICK_MILLIS, virtualPets.getOfflineTicks("P002", now));
+    }
+
+    @Test
+    @DisplayName("Test the batch catches pets up on their time away and marks them seen so they are not decayed again on load")
+    void testDecayWhileOpenMarksPetsSeen() {
+        long now = System.currentTimeMillis();
+        long dayAgo = now - TimeUnit.DAYS.toMillis(1);
+        virtualPets.setLastSeen("P001", dayAgo);
+        virtualPets.setLastSeen("P003", dayAgo);
+        VitalStats expected = virtualPets.getVitalStats("P003");
+        OfflineDecay.advance(expected, virtualPets.getOfflineTicks("P003", now));
+        expected.updateStats();
+
+        virtualPets.updateAllPetVitals(1, "P001");
+        assertEquals(expected.getHealth(), virtualPets.getHealth("P003"));
+        assertEquals(expected.getSleep(), virtualPets.getSleep("P003"));
+        assertEquals(expected.getHunger(), virtualPets.getHunger("P003"));
+        assertEquals(expected.getHappiness(), virtualPets.getHappiness("P003"));
+        assertEquals(0, virtualPets.getOfflineTicks("P003"));
+        assertTrue(virtualPets.getOfflineTicks("P001") > 0);
+
+        // The window's pet is marked seen when its stats are saved
+        virtualPets.updateVitalStats("P001", virtualPets.getVitalStats("P001"));
+        assertEquals(0, virtualPets.getOfflineTicks("P001"));
+    }
+
+    @Test
+    @DisplayName("Test the batch does not rewrite pets whose stats did not change")
+    void testUpdateAllPetVitalsSkipsUnchangedPets() {
+        // P002 was last seen in 2023 and dies catching up
+        virtualPets.updateAllPetVitals(1, "P001");
+        assertEquals(0, virtualPets.getHealth("P002"));
+
+        long marked = TimeUnit.SECONDS.toMillis(1_000_000);
+        virtualPets.setLastSeen("P002", marked);
+        virtualPets.updateAllPetVitals(1, "P001");
+        assertEquals(marked, virtualPets.getLastSeen("P002"));
+        assertTrue(virtualPets.getLastSeen("P003") > marked);
+    }
+
     @Test
     @DisplayName("Test getting pet type")
     void testGetPetType() {
@@ -264,4 +420,150 @@ public class VirtualPetsTest {
         // The updated date should match today's date
         assertEquals(beforeUpdate.toString(), afterUpdate.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test typed stats follow changes and reloads")
+    void testTypedStatsStayInSync() throws IOException {
+        assertEquals(70, virtualPets.getHunger("P001"));
+        virtualPets.setHunger("P001", 40);
+        virtualPets.setVetCooldown("P002", 120);
+        assertEquals(40, virtualPets.getVitalStats("P001").getHunger());
+        assertEquals(120, virtualPets.getVetCooldown("P002"));
+
+        // Another manager of the same file sees the change
+        VirtualPets other = new VirtualPets(testFile.getAbsolutePath());
+        assertEquals(40, other.getHunger("P001"));
+
+        // An external edit is picked up on the next read
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("P001,U001,Fluffy,2,10,80,90,75,2023-04-01 10:15:30,0,0,2023-04-01,dog\n");
+        }
+        assertEquals(10, virtualPets.getHunger("P001"));
+        assertEquals(0, virtualPets.getPetTypeIndex("P001"));
+    }
+
+    @Test
+    @DisplayName("Test invalid stats and missing pets still fail as before")
+    void testTypedStatsInvalidValues() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("P001,U001,Fluffy,2,abc,80,90,75,2023-04-01 10:15:30,soon,0,2023-04-01,cat\n");
+        }
+        assertThrows(NumberFormatException.class, () -> virtualPets.getHunger("P001"));
+        assertThrows(NumberFormatException.class, () -> virtualPets.getHealth("P999"));
+        assertEquals(0, virtualPets.getVetCooldown("P001"));
+        assertEquals(90, virtualPets.getHealth("P001"));
+    }
+
+    @Test
+    @DisplayName("Test pet profiles are reused until a profile attribute changes")
+    void testPetProfile() {
+        PetProfile profile = virtualPets.getPetProfile("P002");
+        assertEquals("P002", profile.getPetId());
+        assertEquals("U002", profile.getOwnerId());
+        assertEquals("Rex", profile.getName());
+        assertEquals("dog", profile.getType());
+        assertEquals(0, profile.getTypeIndex());
+
+        virtualPets.setHunger("P002", 10);
+        assertSame(profile, virtualPets.getPetProfile("P002"));
+
+        virtualPets.setPetName("P002", "Max");
+        virtualPets.setPetType("P002", "Dragon");
+        PetProfile renamed = virtualPets.getPetProfile("P002");
+        assertEquals("Max", renamed.getName());
+        assertEquals("dragon", renamed.getType());
+        assertEquals(2, virtualPets.getPetTypeIndex("P002"));
+        assertEquals("Rex", profile.getName());
+
+        assertNull(virtualPets.getPetProfile("P999"));
+    }
+
+    @Test
+    @DisplayName("Test pet profiles of old rows read the type index from column 9")
+    void testPetProfileLegacyType() throws IOException {
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("P001,U001,Fluffy,2,70,80,90,75,2023-04-01 10:15:30,2\n");
+        }
+        assertEquals("dragon", virtualPets.getPetType("P001"));
+        assertEquals(2, virtualPets.getPetTypeIndex("P001"));
+
+        // Padding the row adds an empty type column, which defaults to cat
+        virtualPets.setPlayCooldown("P001", 30);
+        assertEquals("cat", virtualPets.getPetProfile("P001").getType());
+    }
+    @Test
+    @DisplayName("Test binary mode writes stat changes in place and exports them on flush")
+    void testBinaryModeUpdatesInPlace() throws IOException {
+        String original = Files.readString(testFile.toPath());
+        Path records = tempDir.resolve("test-pets.csv.bin");
+        virtualPets.setBinaryMode(true);
+        try {
+            assertEquals(70, virtualPets.getHunger("P001"));
+            long size = Files.size(records);
+
+            virtualPets.setHunger("P002", 12);
+            virtualPets.setLastAccessed("P002", new Date("2024-05-06"));
+            assertEquals(size, Files.size(records));
+            assertEquals(original, Files.readString(testFile.toPath()));
+
+            // Reading the records again instead of the cached rows sees the changes
+            VirtualPets reader = new VirtualPets(testFile.getAbsolutePath());
+            reader.setCacheEnabled(false);
+            assertEquals(12, reader.getHunger("P002"));
+            assertEquals("2024-05-06", reader.getLastAccessed("P002").toString());
+
+            virtualPets.flush();
+            List<String> lines = Files.readAllLines(testFile.toPath());
+            assertEquals("P001,U001,Fluffy,2,70,80,90,75,2023-04-01 10:15:30,0,0,2023-04-01,cat", lines.get(0));
+            assertEquals("P002,U002,Rex,3,12,85,95,80,2023-04-02 11:20:45,3600,1800,2024-05-06,dog", lines.get(1));
+        } finally {
+            virtualPets.setBinaryMode(false);
+        }
+        assertFalse(Files.exists(records));
+    }
+
+    @Test
+    @DisplayName("Test binary mode imports a replaced CSV file and keeps odd cells as they are")
+    void testBinaryModeImportsReplacedFile() throws IOException {
+        virtualPets.setBinaryMode(true);
+        try {
+            virtualPets.setHappiness("P001", 5);
+
+            // Replace the CSV file, as resetting the game data or editing it by hand does
+            try (FileWriter writer = new FileWriter(testFile)) {
+                writer.write("P009,U009,Nova,07,50,50,50,50,0,0,0,2024-01-01,dog\n");
+                writer.write("P010,U010,Old,1,40,50,x,50,0,2\n");
+            }
+            assertEquals(2, virtualPets.getRowCount());
+            assertEquals("Nova", virtualPets.getPetName("P009"));
+
+            virtualPets.setHunger("P010", 41);
+            virtualPets.flush();
+            List<String> lines = Files.readAllLines(testFile.toPath());
+            assertEquals("P009,U009,Nova,07,50,50,50,50,0,0,0,2024-01-01,dog", lines.get(0));
+            assertEquals("P010,U010,Old,1,41,50,x,50,0,2", lines.get(1));
+        } finally {
+            virtualPets.setBinaryMode(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Test binary mode keeps the last seen time in the record instead of the string dictionary")
+    void testBinaryModeLastSeenInRecord() throws IOException {
+        Path dictionary = tempDir.resolve("test-pets.csv.dict");
+        virtualPets.setBinaryMode(true);
+        try {
+            long now = System.currentTimeMillis();
+            virtualPets.setLastSeen("P001", now);
+            long size = Files.size(dictionary);
+            for (int save = 1; save <= 200; save++) {
+                virtualPets.setLastSeen("P001", now + TimeUnit.SECONDS.toMillis(save * 5));
+                virtualPets.updateVitalStats("P002", virtualPets.getVitalStats("P002"));
+            }
+            assertEquals(size, Files.size(dictionary));
+            assertEquals(TimeUnit.MILLISECONDS.toSeconds(now) + 1000, TimeUnit.MILLISECONDS.toSeconds(virtualPets.getLastSeen("P001")));
+        } finally {
+            virtualPets.setBinaryMode(false);
+        }
+    }
+}
@@ -2,10 +2,14 @@ package Implementation.Tests;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
 import java.util.Set;
+import Implementation.SpeciesProfile;
 import Implementation.VitalStats;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class VitalStatsTest {
     private VitalStats vitalStats;
@@ -249,4 +253,59 @@ class VitalStatsTest {
         // Type 2 has happiness decline rate of 1
         assertEquals(99, type2Pet.getHappiness());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSpeciesProfilesAreShared() {
+        VitalStats other = new VitalStats(50, 50, 50, 50, petType);
+
+        assertSame(vitalStats.getSpecies(), other.getSpecies());
+        assertSame(SpeciesProfile.DOG, vitalStats.getSpecies());
+        assertSame(SpeciesProfile.DRAGON, SpeciesProfile.forType("Dragon"));
+        assertSame(SpeciesProfile.CAT, SpeciesProfile.forType("unknown"));
+        assertEquals(2, SpeciesProfile.forIndex(2).getIndex());
+        assertThrows(IllegalArgumentException.class, () -> new VitalStats(100, 100, 100, 100, 3));
+        assertTrue(vitalStats.getActiveStates() instanceof EnumSet);
+    }
+
+    @Test
+    void testTickDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up first so that the measurement does not include class loading and compilation
+        int critical = runTicks(1_000_000);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        critical += runTicks(1_000_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(critical > 0);
+        // Allow for the few bytes the measurement itself may allocate
+        assertTrue(allocated < 1024, "1,000,000 ticks allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Runs ticks and state checks on a pet kept alive, so it goes through all states.
+     * Returns a count of the checks so that they are not optimised away.
+     */
+    private int runTicks(int ticks) {
+        int critical = 0;
+        for (int i = 0; i < ticks; i++) {
+            vitalStats.setHealth(100);
+            vitalStats.updateStats();
+            if (vitalStats.isSleeping()) {
+                critical++;
+            }
+            if (vitalStats.isDead() || vitalStats.isCritical("overall") || vitalStats.isCritical("Hunger")) {
+                critical++;
+            }
+            if (i % 500 == 0) {
+                vitalStats.feed(100);
+                vitalStats.play(100);
+            }
+        }
+        return critical;
+    }
+}
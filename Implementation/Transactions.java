@@ -1,5 +1,4 @@
 package Implementation;
-import java.util.List;
 
 /**
  * The {@code Transactions} class extends {@code DataManager} to provide methods for
@@ -8,6 +7,8 @@ import java.util.List;
  * transaction type, amount, and timestamp.
  */
 public class Transactions extends DataManager {
+    /** Index of transaction rows by transaction ID */
+    private static final IndexSpec TRANSACTION_ID = IndexSpec.firstMatch(0);
 
     /**
      * Constructs a {@code Transactions} object with the specified CSV file path.
@@ -25,15 +26,7 @@ public class Transactions extends DataManager {
      * @return The index of the transaction's row, or -1 if not found.
      */
     private int findRow(String transactionId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(transactionId)) {
-                return index;
-            }
-            index++;
-        }
-        return -1;
+        return lookupRow(TRANSACTION_ID, transactionId);
     }
 
     // Getters and setters
@@ -1,14 +1,43 @@
 package Implementation;
-import java.util.List;
 import Implementation.Date;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The {@code VirtualPets} class extends {@code DataManager} to provide methods for
  * retrieving and updating pet-related data from a CSV file.
  * This class manages pet information, including pet ID, owner (player ID),
  * pet name, age, hunger, happiness, health, and last fed timestamp.
+ * Numeric columns are read from a typed {@code PetTable} view that is parsed once
+ * and kept in sync with every change, instead of parsing the CSV cell on each call.
+ * <p>
+ * With the {@code app.data.binary} system property or {@link #setBinaryMode(boolean)}, the pets are
+ * kept in a binary file of fixed-size records next to pets.csv, so that a change such as
+ * {@link #setHunger(String, int)} is a 4-byte write instead of a rewrite of the CSV file.
+ * pets.csv is updated when the data is flushed and imported again whenever it is replaced.
  */
 public class VirtualPets extends DataManager {
+    private static final Log LOG = Log.get(VirtualPets.class);
+    private static final String BINARY_PROPERTY = "app.data.binary";
+    /** Index of pet rows by pet ID */
+    private static final IndexSpec PET_ID = IndexSpec.firstMatch(0);
+    /** The hunger, happiness, health, sleep and last seen columns, in the order {@code updateVitalStats} writes them */
+    private static final int[] VITAL_COLUMNS = {PetTable.HUNGER, PetTable.HAPPINESS, PetTable.HEALTH, PetTable.SLEEP, PetTable.LAST_SEEN};
+
+    /** The batch engine of the last {@link #updateAllPetVitals} call, which holds the states of the pets between ticks */
+    private PetBatchEngine batch;
+    /** The pets view the batch engine was built from */
+    private PetTable batchPets;
+    /** The profile of each pet in the batch engine, by engine index */
+    private PetProfile[] batchProfiles;
+    /** The row of each pet in the batch engine, by engine index */
+    private int[] batchRows;
+    /** The pet left out of the batch engine, or null */
+    private String batchExcluded;
 
     /**
      * Constructs a {@code VirtualPets} object with the specified CSV file path.
@@ -17,6 +46,20 @@ public class VirtualPets extends DataManager {
      */
     public VirtualPets(String filePath) {
         super(filePath);
+        if (Boolean.getBoolean(BINARY_PROPERTY) && usesCsvFiles()) {
+            setBinaryMode(true);
+        }
+    }
+
+    /**
+     * Enables or disables the binary pet store, whose records hold the age, vital stats and
+     * cooldowns as integers and the other columns as references to a string dictionary.
+     * The setting is shared by all managers of the same file.
+     *
+     * @param enabled Whether to keep the pets in the binary store
+     */
+    public void setBinaryMode(boolean enabled) {
+        setBinaryMode(enabled, PetTable.WIDTH, PetTable.NUMERIC_COLUMNS);
     }
 
     /**
@@ -26,15 +69,34 @@ public class VirtualPets extends DataManager {
      * @return The index of the pet's row, or -1 if not found.
      */
     private int findRow(String petId) {
-        List<String[]> data = readCSV();
-        int index = 0;
-        for (String[] row : data) {
-            if (row[0].equals(petId)) {
-                return index;
-            }
-            index++;
+        return lookupRow(PET_ID, petId);
+    }
+
+    /**
+     * Returns the typed view of the pet rows.
+     *
+     * @return The up-to-date pet table
+     */
+    private PetTable pets() {
+        return view(PetTable.class, PetTable::new);
+    }
+
+    /**
+     * Reads a numeric column of a pet row from the typed view.
+     *
+     * @param pets The typed view
+     * @param row The row index of the pet
+     * @param column The column index
+     * @return The value of the cell
+     * @throws NumberFormatException if the pet does not exist or the cell is not a number
+     */
+    private int getInt(PetTable pets, int row, int column) {
+        int value = pets.get(row, column);
+        if (value == PetTable.INVALID) {
+            // Parse the raw cell so that bad data fails the same way it always has
+            return Integer.parseInt(getData(row, column));
         }
-        return -1;
+        return value;
     }
 
     /**
@@ -64,7 +126,8 @@ public class VirtualPets extends DataManager {
      * @return The player ID associated with the pet.
      */
     public String getPlayerId(String petId) {
-        return getData(findRow(petId), 1);
+        PetProfile profile = getPetProfile(petId);
+        return profile != null ? profile.getOwnerId() : null;
     }
 
     /**
@@ -84,7 +147,29 @@ public class VirtualPets extends DataManager {
      * @return The name of the pet.
      */
     public String getPetName(String petId) {
-        return getData(findRow(petId), 2);
+        PetProfile profile = getPetProfile(petId);
+        return profile != null ? profile.getName() : null;
+    }
+
+    /**
+     * Retrieves the profile (ID, owner, name and type) of the given pet.
+     * Profiles are built once and only replaced when one of those attributes changes.
+     *
+     * @param petId The ID of the pet.
+     * @return The profile of the pet, or null if the pet does not exist.
+     */
+    public PetProfile getPetProfile(String petId) {
+        return pets().getProfile(findRow(petId));
+    }
+
+    /**
+     * Retrieves the profile of the pet at the specified index.
+     *
+     * @param index The index of the pet data.
+     * @return The profile of the pet, or null if the index is out of range.
+     */
+    public PetProfile getPetProfileAt(int index) {
+        return pets().getProfile(index);
     }
 
     /**
@@ -104,7 +189,7 @@ public class VirtualPets extends DataManager {
      * @return The age of the pet.
      */
     public int getAge(String petId) {
-        return Integer.parseInt(getData(findRow(petId), 3));
+        return getInt(pets(), findRow(petId), PetTable.AGE);
     }
 
     /**
@@ -124,7 +209,7 @@ public class VirtualPets extends DataManager {
      * @return The hunger level of the pet.
      */
     public int getHunger(String petId) {
-        return Integer.parseInt(getData(findRow(petId), 4));
+        return getInt(pets(), findRow(petId), PetTable.HUNGER);
     }
 
     /**
@@ -144,7 +229,7 @@ public class VirtualPets extends DataManager {
      * @return The happiness level of the pet.
      */
     public int getHappiness(String petId) {
-        return Integer.parseInt(getData(findRow(petId), 5));
+        return getInt(pets(), findRow(petId), PetTable.HAPPINESS);
     }
 
     /**
@@ -164,7 +249,7 @@ public class VirtualPets extends DataManager {
      * @return The health level of the pet.
      */
     public int getHealth(String petId) {
-        return Integer.parseInt(getData(findRow(petId), 6));
+        return getInt(pets(), findRow(petId), PetTable.HEALTH);
     }
 
     /**
@@ -184,7 +269,7 @@ public class VirtualPets extends DataManager {
      * @return The sleep level of the pet.
      */
     public int getSleep(String petId) {
-        return Integer.parseInt(getData(findRow(petId), 7));
+        return getInt(pets(), findRow(petId), PetTable.SLEEP);
     }
 
     /**
@@ -224,16 +309,8 @@ public class VirtualPets extends DataManager {
      * @return The remaining cooldown time in seconds.
      */
     public int getVetCooldown(String petId) {
-        int row = findRow(petId);
-        List<String[]> data = readCSV();
-        if (row >= 0 && data.get(row).length > 9) {
-            try {
-                return Integer.parseInt(getData(row, 9));
-            } catch (NumberFormatException e) {
-                return 0;
-            }
-        }
-        return 0;
+        int seconds = pets().get(findRow(petId), PetTable.VET_COOLDOWN);
+        return seconds != PetTable.INVALID ? seconds : 0;
     }
 
     /**
@@ -244,15 +321,9 @@ public class VirtualPets extends DataManager {
      */
     public void setVetCooldown(String petId, int seconds) {
         int row = findRow(petId);
-        List<String[]> data = readCSV();
         if (row >= 0) {
-            String[] petData = data.get(row);
-            if (petData.length <= 9) {
-                // Expand the array if needed to size 13
-                String[] newData = new String[13];
-                System.arraycopy(petData, 0, newData, 0, petData.length);
-                data.set(row, newData);
-            }
+            // Expand the row if needed to size 13
+            ensureRowLength(row, 13);
             setData(row, 9, String.valueOf(seconds));
         }
     }
@@ -264,16 +335,8 @@ public class VirtualPets extends DataManager {
      * @return The remaining cooldown time in seconds.
      */
     public int getPlayCooldown(String petId) {
-        int row = findRow(petId);
-        List<String[]> data = readCSV();
-        if (row >= 0 && data.get(row).length > 10) {
-            try {
-                return Integer.parseInt(getData(row, 10));
-            } catch (NumberFormatException e) {
-                return 0;
-            }
-        }
-        return 0;
+        int seconds = pets().get(findRow(petId), PetTable.PLAY_COOLDOWN);
+        return seconds != PetTable.INVALID ? seconds : 0;
     }
 
     /**
@@ -284,15 +347,9 @@ public class VirtualPets extends DataManager {
      */
     public void setPlayCooldown(String petId, int seconds) {
         int row = findRow(petId);
-        List<String[]> data = readCSV();
         if (row >= 0) {
-            String[] petData = data.get(row);
-            if (petData.length <= 10) {
-                // Expand the array if needed to size 13
-                String[] newData = new String[13];
-                System.arraycopy(petData, 0, newData, 0, petData.length);
-                data.set(row, newData);
-            }
+            // Expand the row if needed to size 13
+            ensureRowLength(row, 13);
             setData(row, 10, String.valueOf(seconds));
         }
     }
@@ -303,25 +360,33 @@ public class VirtualPets extends DataManager {
      * @param petId The ID of the pet.
      */
     public VitalStats getVitalStats(String petId) {
-        int hunger = getHunger(petId);
-        int happiness = getHappiness(petId);
-        int health = getHealth(petId);
-        int sleep = getSleep(petId);
-        int type = getPetTypeIndex(petId);
+        int row = findRow(petId);
+        PetTable pets = pets();
+        int hunger = getInt(pets, row, PetTable.HUNGER);
+        int happiness = getInt(pets, row, PetTable.HAPPINESS);
+        int health = getInt(pets, row, PetTable.HEALTH);
+        int sleep = getInt(pets, row, PetTable.SLEEP);
+        PetProfile profile = pets.getProfile(row);
+        int type = profile != null ? profile.getTypeIndex() : getPetTypeIndex(petId);
         return new VitalStats(health, sleep, hunger, happiness, type);
     }
 
     /**
-     * Updates the CSV record for a pet with the latest vital statistics.
+     * Updates the CSV record for a pet with the latest vital statistics, and marks the pet as seen now
+     * so that {@link #getOfflineTicks(String)} does not decay it again for the time the stats cover.
      * @param petId The ID of the pet.
      * @param stats The stats of the pet, as a VitalStats object
      */
     public void updateVitalStats(String petId, VitalStats stats) {
         int row = findRow(petId);
-        setHunger(petId, stats.getHunger());
-        setHappiness(petId, stats.getHappiness());
-        setHealth(petId, stats.getHealth());
-        setSleep(petId, stats.getSleep());
+        ensureRowLength(row, PetTable.WIDTH);
+        setCells(row, VITAL_COLUMNS, new String[]{
+                String.valueOf(stats.getHunger()),
+                String.valueOf(stats.getHappiness()),
+                String.valueOf(stats.getHealth()),
+                String.valueOf(stats.getSleep()),
+                lastSeen(System.currentTimeMillis())
+        });
     }
 
     /**
@@ -335,6 +400,134 @@ public class VirtualPets extends DataManager {
         updateVitalStats(petId, stats);
     }
 
+    /**
+     * Advances the vital stats of every pet in the file with a {@link PetBatchEngine}, applying the
+     * same rules as {@link #updatePetVitals(String)}. Rows whose stats are not numbers are skipped.
+     * <p>
+     * The engine is kept between calls, so the states of each pet carry over from one tick to the next
+     * as they do in a {@link VitalStats} that is updated repeatedly. Pets whose stats were changed
+     * elsewhere in the meantime are synced into it, and it is rebuilt, keeping the states of the pets
+     * it knew, whenever pets are added, removed or reloaded. A pet joining the engine first catches up
+     * on the ticks it missed since it was last seen, as the pet window does when it loads a pet.
+     * <p>
+     * The pets whose stats changed are written at once and marked as seen now, so the decay they went
+     * through while the game was open is not caught up again on load. Pets that did not change, such
+     * as dead ones, are not written.
+     * @param ticks The number of ticks to apply
+     * @param excludedPetId The ID of a pet to leave alone, such as the pet whose window updates it, or null
+     * @return The number of pets whose stats changed
+     */
+    public synchronized int updateAllPetVitals(int ticks, String excludedPetId) {
+        PetTable pets = pets();
+        if (batch == null || pets != batchPets || !Objects.equals(excludedPetId, batchExcluded) || !syncBatch(pets)) {
+            loadBatch(pets, excludedPetId);
+        }
+
+        batch.tick(ticks);
+
+        String now = lastSeen(System.currentTimeMillis());
+        int[] rows = new int[batch.size()];
+        String[][] values = new String[batch.size()][];
+        int changed = 0;
+        for (int index = 0; index < batch.size(); index++) {
+            int row = batchRows[index];
+            // Skip rows that were removed or replaced while the batch ran
+            if (pets.getProfile(row) != batchProfiles[index]) {
+                continue;
+            }
+            int hunger = batch.getHunger(index);
+            int happiness = batch.getHappiness(index);
+            int health = batch.getHealth(index);
+            int sleep = batch.getSleep(index);
+            if (hunger == pets.get(row, PetTable.HUNGER) && happiness == pets.get(row, PetTable.HAPPINESS)
+                    && health == pets.get(row, PetTable.HEALTH) && sleep == pets.get(row, PetTable.SLEEP)) {
+                continue;
+            }
+            ensureRowLength(row, PetTable.WIDTH);
+            rows[changed] = row;
+            values[changed] = new String[]{
+                    String.valueOf(hunger),
+                    String.valueOf(happiness),
+                    String.valueOf(health),
+                    String.valueOf(sleep),
+                    now
+            };
+            changed++;
+        }
+        if (changed > 0) {
+            setCells(Arrays.copyOf(rows, changed), VITAL_COLUMNS, Arrays.copyOf(values, changed));
+        }
+        return changed;
+    }
+
+    /**
+     * Builds the batch engine from the pets, carrying over the states of pets the previous engine held
+     * and catching the other pets up on the ticks they missed since they were last seen.
+     */
+    private void loadBatch(PetTable pets, String excludedPetId) {
+        Map<String, Integer> previousStates = new HashMap<>();
+        for (int index = 0; batch != null && index < batch.size(); index++) {
+            previousStates.put(batchProfiles[index].getPetId(), batch.getStateMask(index));
+        }
+        long now = System.currentTimeMillis();
+        int count = pets.size();
+        PetBatchEngine engine = new PetBatchEngine(count);
+        PetProfile[] profiles = new PetProfile[count];
+        int[] rows = new int[count];
+        for (int row = 0; row < count; row++) {
+            PetProfile profile = pets.getProfile(row);
+            int hunger = pets.get(row, PetTable.HUNGER);
+            int happiness = pets.get(row, PetTable.HAPPINESS);
+            int health = pets.get(row, PetTable.HEALTH);
+            int sleep = pets.get(row, PetTable.SLEEP);
+            if (profile == null || (excludedPetId != null && excludedPetId.equals(profile.getPetId()))
+                    || hunger == PetTable.INVALID || happiness == PetTable.INVALID || health == PetTable.INVALID || sleep == PetTable.INVALID) {
+                continue;
+            }
+            Integer states = previousStates.get(profile.getPetId());
+            int index;
+            if (states != null) {
+                index = engine.add(health, sleep, hunger, happiness, profile.getTypeIndex(), states);
+            } else {
+                VitalStats stats = new VitalStats(health, sleep, hunger, happiness, profile.getTypeIndex());
+                OfflineDecay.advance(stats, getOfflineTicks(profile.getPetId(), now));
+                index = engine.add(stats);
+            }
+            profiles[index] = profile;
+            rows[index] = row;
+        }
+        batch = engine;
+        batchPets = pets;
+        batchProfiles = profiles;
+        batchRows = rows;
+        batchExcluded = excludedPetId;
+    }
+
+    /**
+     * Copies stats changed outside the batch engine, e.g. by a revive, into it.
+     * @return false if a pet of the engine no longer matches its row and the engine must be rebuilt
+     */
+    private boolean syncBatch(PetTable pets) {
+        for (int index = 0; index < batch.size(); index++) {
+            int row = batchRows[index];
+            if (row >= pets.size() || pets.getProfile(row) != batchProfiles[index]) {
+                return false;
+            }
+            int hunger = pets.get(row, PetTable.HUNGER);
+            int happiness = pets.get(row, PetTable.HAPPINESS);
+            int health = pets.get(row, PetTable.HEALTH);
+            int sleep = pets.get(row, PetTable.SLEEP);
+            if (hunger == PetTable.INVALID || happiness == PetTable.INVALID || health == PetTable.INVALID || sleep == PetTable.INVALID) {
+                return false;
+            }
+            if (hunger != batch.getHunger(index) || happiness != batch.getHappiness(index)
+                    || health != batch.getHealth(index) || sleep != batch.getSleep(index)) {
+                batch.setStats(index, health, sleep, hunger, happiness);
+            }
+        }
+        return true;
+    }
+
     /**
      * Retrieves the last accessed date for the given pet ID.
      *
@@ -343,13 +536,92 @@ public class VirtualPets extends DataManager {
      */
     public Date getLastAccessed(String petId) {
         int row = findRow(petId);
-        List<String[]> data = readCSV();
-        if (row >= 0 && data.get(row).length > 11) {
+        if (row >= 0 && getRowLength(row) > 11) {
             return new Date(getData(row, 11));
         }
         return Date.now(); // Return current date if not found
     }
 
+    /**
+     * Retrieves when the pet's stats were last brought up to date, to the second.
+     *
+     * @param petId The ID of the pet.
+     * @return The time in milliseconds since the epoch, or -1 if the pet has no valid last seen time.
+     */
+    public long getLastSeen(String petId) {
+        int row = findRow(petId);
+        if (row < 0 || getRowLength(row) <= PetTable.LAST_SEEN) {
+            return -1;
+        }
+        try {
+            long seconds = Long.parseLong(getData(row, PetTable.LAST_SEEN));
+            return seconds < 0 ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Sets when the pet's stats were last brought up to date. The time is stored to the second.
+     *
+     * @param petId The ID of the pet.
+     * @param epochMillis The time in milliseconds since the epoch.
+     */
+    public void setLastSeen(String petId, long epochMillis) {
+        int row = findRow(petId);
+        if (row >= 0) {
+            ensureRowLength(row, PetTable.WIDTH);
+            setData(row, PetTable.LAST_SEEN, lastSeen(epochMillis));
+        }
+    }
+
+    /**
+     * Formats a time for the last seen column, which holds whole seconds since the epoch.
+     */
+    private static String lastSeen(long epochMillis) {
+        return String.valueOf(TimeUnit.MILLISECONDS.toSeconds(epochMillis));
+    }
+
+    /**
+     * Counts the game ticks a pet missed since it was last seen, for {@link OfflineDecay}.
+     *
+     * @param petId The ID of the pet.
+     * @return The number of missed ticks, or 0 if the pet is not found.
+     * @see #getOfflineTicks(String, long)
+     */
+    public long getOfflineTicks(String petId) {
+        return getOfflineTicks(petId, System.currentTimeMillis());
+    }
+
+    /**
+     * Counts the game ticks a pet missed between when it was last seen and a given time, for {@link OfflineDecay}.
+     * Rows saved before the last seen column existed only know the day they were last accessed; for them
+     * only the whole days that certainly passed are counted, i.e. one day less than the calendar difference.
+     *
+     * @param petId The ID of the pet.
+     * @param nowMillis The current time in milliseconds since the epoch.
+     * @return The number of missed ticks, or 0 if the pet has no valid last seen time or last accessed date.
+     */
+    public long getOfflineTicks(String petId, long nowMillis) {
+        int row = findRow(petId);
+        if (row < 0) {
+            return 0;
+        }
+        long lastSeen = getLastSeen(petId);
+        if (lastSeen >= 0) {
+            return OfflineDecay.ticksFor(nowMillis - lastSeen);
+        }
+        if (getRowLength(row) <= 11) {
+            return 0;
+        }
+        try {
+            long days = getLastAccessed(petId).daysUntil(Date.of(nowMillis)) - 1;
+            return OfflineDecay.ticksFor(TimeUnit.DAYS.toMillis(days));
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
     /**
      * Sets the last accessed date for the given pet ID.
      *
@@ -358,26 +630,25 @@ public class VirtualPets extends DataManager {
      */
     public void setLastAccessed(String petId, Date date) {
         int row = findRow(petId);
-        List<String[]> data = readCSV();
         if (row >= 0) {
-            String[] petData = data.get(row);
-            if (petData.length <= 11) {
-                // Expand the array if needed to size 13
-                String[] newRow = new String[13];
-                System.arraycopy(petData, 0, newRow, 0, petData.length);
-                data.set(row, newRow);
-            }
+            // Expand the row if needed to size 13
+            ensureRowLength(row, 13);
             setData(row, 11, date.toString());
         }
     }
 
     /**
-     * Updates the last accessed date for the given pet ID to the current time.
+     * Updates the last accessed date and the last seen time for the given pet ID to the current time.
      *
      * @param petId The ID of the pet.
      */
     public void updateLastAccessed(String petId) {
-        setLastAccessed(petId, Date.now());
+        int row = findRow(petId);
+        if (row >= 0) {
+            long now = System.currentTimeMillis();
+            ensureRowLength(row, PetTable.WIDTH);
+            setCells(row, new int[]{11, PetTable.LAST_SEEN}, new String[]{Date.of(now).toString(), lastSeen(now)});
+        }
     }
 
     /**
@@ -388,33 +659,12 @@ public class VirtualPets extends DataManager {
      * @return The pet type as a lowercase String, or "cat" as a default if not found or column missing.
      */
     public String getPetType(String petId) {
-        int row = findRow(petId);
-        if (row == -1) {
-            System.err.println("Pet not found for ID: " + petId + ". Defaulting to 'cat'.");
+        PetProfile profile = getPetProfile(petId);
+        if (profile == null) {
+            LOG.warn("Pet not found for ID: " + petId + ". Defaulting to 'cat'.");
             return "cat";
         }
-        List<String[]> data = readCSV();
-        if (row >= data.size() || data.get(row).length <= 12) {
-            System.err.println("Pet type column (12) missing or invalid for petId: " + petId + ". Defaulting to 'cat'.");
-            // Attempt to fallback to index 9 if column 12 is missing (for transition)
-            if (row < data.size() && data.get(row).length > 9) {
-                try {
-                    int typeIndex = Integer.parseInt(getData(row, 9));
-                    switch (typeIndex) {
-                        case 0: return "dog";
-                        case 1: return "cat";
-                        case 2: return "dragon";
-                    }
-                } catch (NumberFormatException e) { /* ignore, proceed to default */ }
-            }
-            return "cat"; // Default if index 12 is missing and fallback fails
-        }
-        String petType = getData(row, 12);
-        if (petType == null || petType.trim().isEmpty()) {
-            System.err.println("Pet type column (12) is empty for petId: " + petId + ". Defaulting to 'cat'.");
-            return "cat"; // Default if the type string is missing/empty
-        }
-        return petType.toLowerCase(); // Return the string from column 12, ensuring lowercase
+        return profile.getType();
     }
 
     /**
@@ -425,13 +675,8 @@ public class VirtualPets extends DataManager {
      * @return The pet type index as an integer.
     */
     public int getPetTypeIndex(String petId) {
-        String petType = getPetType(petId);
-        switch (petType) {
-            case "dog": return 0;
-            case "cat": return 1;
-            case "dragon": return 2;
-        }
-        return 1;
+        PetProfile profile = getPetProfile(petId);
+        return profile != null ? profile.getTypeIndex() : 1;
     }
     /**
      * Sets the pet type string for the given pet ID in the new column (index 12).
@@ -441,15 +686,9 @@ public class VirtualPets extends DataManager {
      */
     public void setPetType(String petId, String petType) {
         int row = findRow(petId);
-        List<String[]> data = readCSV();
         if (row >= 0) {
-            String[] petData = data.get(row);
-            if (petData.length <= 12) {
-                // Expand the array if needed to size 13
-                String[] newRow = new String[13];
-                System.arraycopy(petData, 0, newRow, 0, petData.length);
-                data.set(row, newRow);
-            }
+            // Expand the row if needed to size 13
+            ensureRowLength(row, 13);
             setData(row, 12, petType.toLowerCase()); // Set data at index 12
         }
     }
@@ -1,10 +1,12 @@
 package Implementation;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 /**
  * The {@code VitalStats} class is used to contain the {@code VirtualPets} fetched statistics
  * It also contains methods to get/set stats, as well as update the state of the pet
+ * The decay rates come from the shared {@link SpeciesProfile} of the pet's type, and the active states are an
+ * {@code EnumSet}, so a tick and the state checks do not allocate
  */
 public class VitalStats {
     /** Public enumeration for the different states a pet can be in */
@@ -28,27 +30,16 @@ public class VitalStats {
 
     //TODO: Have different maximums for different pets
     /** The maximum stat limit for every statistic */
-    private final int MAX_STAT = 100;
+    static final int MAX_STAT = 100;
 
-    /** Sleep decline rate per tick */
-    private final int[] sleepDeclineRate = {2, 1, 2};
-    /** Sleep recovery rate per tick */
-    private final int[] sleepRecoveryRate = {8, 6, 10};
-    /** Hunger decline rate per tick */
-    private final int[] fullnessDeclineRate = {2, 1, 1};
-    /** Happiness decline rate per tick */
-    private final int[] happinessDeclineRate = {1, 2, 1};
-    /** Happiness decline rate while hungry per tick */
-    private final int[] extraHappinessDeclineRate = {2, 2, 1};
-    /** Flat hunger penalty when sleep is 0 */
-    private final int[] sleepHealthPenalty = {10, 5, 5};
-    /** Hunger health flat penalty when hunger is 0 */
-    private final int[] hungerHealthPenalty = {5, 10, 5};
-    /** Hunger health decline per tick */
-    private final int[] hungerHealthDecline = {1, 1, 1};
+    /** Duration of {@link #updateStats()}, shared by all pets */
+    private static final LatencyHistogram TICK_TIME = Metrics.histogram("pet.tick");
+
+    /** The shared decay rates of the pet's species */
+    private final SpeciesProfile species;
 
     /** The current state of the pet */
-    private Set<PetState> activeStates;
+    private final Set<PetState> activeStates;
 
     /**
      * Constructor for the VitalStats class, which instantiates the instance variables
@@ -57,17 +48,36 @@ public class VitalStats {
      * @param sleep The fetched sleep stat from csv
      * @param hunger The fetched fullness stat from csv
      * @param happiness The fetched happiness stat from csv
+     * @param type The type index of the pet: 0 for dog, 1 for cat and 2 for dragon
+     * @throws IllegalArgumentException if the type index is unknown
      */
     public VitalStats(int health, int sleep, int hunger, int happiness, int type){
         this.health = health;
         this.sleep = sleep;
         this.hunger = hunger;
         this.happiness = happiness;
-        this.activeStates = new HashSet<>();
+        this.activeStates = EnumSet.noneOf(PetState.class);
         this.type = type;
+        this.species = SpeciesProfile.forIndex(type);
         updateStates();
     }
 
+    /**
+     * Gets the type of the pet
+     * @return The type index of the pet: 0 for dog, 1 for cat and 2 for dragon
+     */
+    public int getType(){
+        return type;
+    }
+
+    /**
+     * Gets the species of the pet
+     * @return The shared profile holding the decay rates of the pet's type
+     */
+    public SpeciesProfile getSpecies(){
+        return species;
+    }
+
     /**
      * Gets the health of the pet
      * @return The health of the pet, an integer
@@ -139,6 +149,15 @@ public class VitalStats {
      * Gets called per tick, updating states accordingly
      */
     public void updateStats(){
+        long start = System.nanoTime();
+        decay();
+        TICK_TIME.recordSince(start);
+    }
+
+    /**
+     * Applies one tick of stat decline
+     */
+    private void decay() {
         // If pet is dead, no further updates occur
         if(activeStates.contains(PetState.DEAD)) {
             return;
@@ -147,7 +166,7 @@ public class VitalStats {
         // Process the sleep state
         if(activeStates.contains(PetState.SLEEPING)) {
             // While sleeping, the sleep stat recovers gradually
-            sleep = Math.min(MAX_STAT, sleep + sleepRecoveryRate[type]);
+            sleep = Math.min(MAX_STAT, sleep + species.getSleepRecoveryRate());
 
             // Once sleep hits max, then remove the state as the pet is fully rested
             if(sleep >= MAX_STAT) {
@@ -156,24 +175,24 @@ public class VitalStats {
         }
         else {
             // If not sleeping, sleep declines
-            sleep = Math.max(0, sleep - sleepDeclineRate[type]);
+            sleep = Math.max(0, sleep - species.getSleepDeclineRate());
             if(sleep == 0) {
                 // When sleep depletes, apply a flat health penalty and enter SLEEPING state
-                health = Math.max(0, health - sleepHealthPenalty[type]);
+                health = Math.max(0, health - species.getSleepHealthPenalty());
                 activeStates.add(PetState.SLEEPING);
             }
         }
 
         // Process hunger state
-        hunger = Math.max(0, hunger - fullnessDeclineRate[type]);
+        hunger = Math.max(0, hunger - species.getFullnessDeclineRate());
         if(hunger == 0 && !activeStates.contains(PetState.HUNGRY)) {
             activeStates.add(PetState.HUNGRY);
             // Apply a flat health penalty first time when hungry
-            health = Math.max(0, health - hungerHealthPenalty[type]);
+            health = Math.max(0, health - species.getHungerHealthPenalty());
         }
         else if(hunger == 0 && activeStates.contains(PetState.HUNGRY)){
             // Apply a tick-based health decline otherwise
-            health = Math.max(0, health - hungerHealthDecline[type]);
+            health = Math.max(0, health - species.getHungerHealthDecline());
         }
         else {
             // When hunger is no longer 0, remove the hungry state
@@ -181,10 +200,10 @@ public class VitalStats {
         }
 
         // Process the happiness state
-        int currentHappinessDecline = happinessDeclineRate[type];
+        int currentHappinessDecline = species.getHappinessDeclineRate();
         if(activeStates.contains(PetState.HUNGRY)) {
             // Increase happiness decline rate when hungry.
-            currentHappinessDecline += extraHappinessDeclineRate[type];
+            currentHappinessDecline += species.getExtraHappinessDeclineRate();
         }
         happiness = Math.max(0, happiness - currentHappinessDecline);
 
@@ -210,20 +229,23 @@ public class VitalStats {
      * @return True or false, if the pet is in critical condition
      */
     public boolean isCritical(String stat) {
-        switch (stat.toLowerCase()) {
-            case "sleep":
-                return this.sleep < MAX_STAT * 0.25;
-            case "hunger":
-                return this.hunger < MAX_STAT * 0.25;
-            case "happiness":
-                return this.happiness < MAX_STAT * 0.25;
-            case "heatlh":
-                return this.health < MAX_STAT * 0.25;
-            case "overall":
-                return ((this.sleep + this.hunger + this.happiness + this.health) / 4) < MAX_STAT * 0.25;
-            default:
-                return false;
+        // Compared ignoring case instead of lowercasing the name, which would allocate a new string
+        if ("sleep".equalsIgnoreCase(stat)) {
+            return this.sleep < MAX_STAT * 0.25;
+        }
+        if ("hunger".equalsIgnoreCase(stat)) {
+            return this.hunger < MAX_STAT * 0.25;
+        }
+        if ("happiness".equalsIgnoreCase(stat)) {
+            return this.happiness < MAX_STAT * 0.25;
+        }
+        if ("heatlh".equalsIgnoreCase(stat)) {
+            return this.health < MAX_STAT * 0.25;
+        }
+        if ("overall".equalsIgnoreCase(stat)) {
+            return ((this.sleep + this.hunger + this.happiness + this.health) / 4) < MAX_STAT * 0.25;
         }
+        return false;
     }
 
     /**
@@ -0,0 +1,72 @@
+package Implementation.Benchmarks;
+
+import Implementation.ResourceLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and scaling a sprite from the file system, as the pet window does for every
+ * animation frame without a cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true"})
+public class AssetBenchmark {
+    /** Edge length of the source image in pixels */
+    @Param({"256", "1024"})
+    public int size;
+
+    private BenchmarkData data;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        path = data.path("sprite.png");
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillOval(size / 8, size / 8, size * 3 / 4, size * 3 / 4);
+        graphics.dispose();
+        try {
+            ImageIO.write(image, "png", new File(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.delete();
+    }
+
+    @Benchmark
+    public ImageIcon loadAndResizeImage() {
+        return ResourceLoader.loadAndResizeImage(path, 200, 200);
+    }
+}
@@ -0,0 +1,153 @@
+package Implementation.Benchmarks;
+
+import Implementation.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Writes synthetic game data for the benchmarks into a temporary directory.
+ * Every table uses the column layout the game writes, with one row per pet, player, item or
+ * transaction, and IDs of the form {@code P<n>}, {@code U<n>} and {@code T<n>} so that benchmarks
+ * can pick existing keys without reading the files. The data is seeded, so runs are comparable.
+ */
+final class BenchmarkData {
+    static final String[] PET_TYPES = {"dog", "cat", "dragon"};
+    static final String[] CATEGORIES = {"food", "toy", "gift"};
+
+    private final Path directory;
+
+    private BenchmarkData(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates an empty data directory.
+     *
+     * @return The new data set
+     */
+    static BenchmarkData create() {
+        try {
+            return new BenchmarkData(Files.createTempDirectory("game-benchmark"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Turns the game's logging off, so that formatting and queueing messages does not show up in
+     * the timings. JMH reports through its own channel, so the remaining output of the benchmark
+     * JVM can be dropped too.
+     */
+    static void silenceGameLogging() {
+        Log.setDefaultLevel(Log.Level.OFF);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Returns the path of a file in the data directory.
+     *
+     * @param name The file name
+     * @return The absolute path
+     */
+    String path(String name) {
+        return directory.resolve(name).toAbsolutePath().toString();
+    }
+
+    /** Writes pets.csv with one pet per row, owned by players in turn, all last seen at 2024-01-01 10:00:00 UTC. */
+    String writePets(int rows) {
+        Random random = new Random(1);
+        return write("pets.csv", rows, (row, out) -> out
+                .append('P').append(Integer.toString(row)).append(",U").append(Integer.toString(row % Math.max(1, rows / 3)))
+                .append(",Pet").append(Integer.toString(row)).append(',').append(Integer.toString(random.nextInt(10)))
+                .append(',').append(Integer.toString(random.nextInt(101))).append(',').append(Integer.toString(random.nextInt(101)))
+                .append(',').append(Integer.toString(1 + random.nextInt(100))).append(',').append(Integer.toString(random.nextInt(101)))
+                .append(",2024-01-01 10:00:00,0,0,2024-01-01,").append(PET_TYPES[random.nextInt(PET_TYPES.length)])
+                .append(",1704103200"));
+    }
+
+    /** Writes player_data.csv with one player per row. */
+    String writePlayers(int rows) {
+        return write("player_data.csv", rows, (row, out) -> out
+                .append('U').append(Integer.toString(row)).append(",player").append(Integer.toString(row))
+                .append(",player").append(Integer.toString(row)).append("@example.com,2024-01-01,2024-01-01T10:00:00Z,")
+                .append(Integer.toString(row % 1000)).append(',').append(Integer.toString(row % 5000)));
+    }
+
+    /** Writes inventory.csv with nine slots per player. */
+    String writeInventory(int rows) {
+        return write("inventory.csv", rows, (row, out) -> out
+                .append('U').append(Integer.toString(row / 9)).append(',').append(Integer.toString(row % 9))
+                .append(",Item").append(Integer.toString(row % 9)).append(',').append(Integer.toString(row % 7))
+                .append(',').append(CATEGORIES[row % CATEGORIES.length]));
+    }
+
+    /** Writes progress.csv with one row per player. */
+    String writeProgress(int rows) {
+        return write("progress.csv", rows, (row, out) -> out
+                .append('U').append(Integer.toString(row)).append(',').append(Integer.toString(1 + row % 50))
+                .append(',').append(Integer.toString(row % 10_000)).append(',').append(Integer.toString(row % 20))
+                .append(",Badge1,Badge2"));
+    }
+
+    /** Writes playtime_tracking.csv with one row per player. */
+    String writePlaytime(int rows) {
+        return write("playtime_tracking.csv", rows, (row, out) -> out
+                .append('U').append(Integer.toString(row)).append(',').append(row % 2 == 0 ? "true" : "false")
+                .append(',').append(Integer.toString(row % 600)).append(',').append(Integer.toString(row % 60))
+                .append(",120,").append(Integer.toString(row % 40)));
+    }
+
+    /** Writes transactions.csv with one transaction per row. */
+    String writeTransactions(int rows) {
+        return write("transactions.csv", rows, (row, out) -> out
+                .append('T').append(Integer.toString(row)).append(",U").append(Integer.toString(row % Math.max(1, rows / 10)))
+                .append(row % 5 == 0 ? ",REFUND," : ",PURCHASE,").append(Integer.toString(10 + row % 500))
+                .append(",2024-01-01T10:00:00Z"));
+    }
+
+    /** Writes store.csv with nine items per player. */
+    String writeStore(int rows) {
+        return write("store.csv", rows, (row, out) -> out
+                .append('U').append(Integer.toString(row / 9)).append(',').append(Integer.toString(row % 9))
+                .append(",Item").append(Integer.toString(row % 9)).append(",A store item,1,")
+                .append(Integer.toString(10 + row % 90)));
+    }
+
+    /** Appends the cells of one row, without the line break. */
+    private interface RowWriter {
+        void write(int row, BufferedWriter out) throws IOException;
+    }
+
+    private String write(String name, int rows, RowWriter rowWriter) {
+        Path file = directory.resolve(name);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int row = 0; row < rows; row++) {
+                rowWriter.write(row, out);
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file.toAbsolutePath().toString();
+    }
+
+    /**
+     * Deletes the data directory and everything in it.
+     */
+    void delete() {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package Implementation.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar. Runs JMH with the given arguments and, unless the arguments
+ * choose another result format, writes the results as JSON to {@code jmh-result.json}, so runs can
+ * be compared to track regressions. The benchmarks run headless.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                       # all suites
+ * java -jar benchmarks/target/benchmarks.jar DataManager -p rows=100
+ * java -jar benchmarks/target/benchmarks.jar -l                    # list the benchmarks
+ * </pre>
+ */
+public final class BenchmarkMain {
+    /** Result file used when the arguments do not name one */
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+            if (!arguments.contains("-rff")) {
+                arguments.add("-rff");
+                arguments.add(DEFAULT_RESULT_FILE);
+            }
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,117 @@
+package Implementation.Benchmarks;
+
+import Implementation.DataManager;
+import Implementation.MappedCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of parsing pets.csv: reading lines and splitting them, as DataManager
+ * does by default, and scanning a memory mapping with {@link MappedCsv}. Each is measured parsing
+ * the whole file and looking up the last pet by ID, which the mapped reader does without building
+ * any strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class CsvReaderBenchmark {
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private String path;
+    private DataManager manager;
+    private String lastPetId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        path = data.writePets(rows);
+        manager = new DataManager(path);
+        manager.setCacheEnabled(false);
+        lastPetId = "P" + (rows - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataManager.setMappedReader(false);
+        data.delete();
+    }
+
+    /** The default reader: a String per line and per field */
+    @Benchmark
+    public List<String[]> readLinesAndSplit() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(line.split(","));
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<String[]> readMapped() throws IOException {
+        return MappedCsv.open(Path.of(path)).readAll();
+    }
+
+    /** Finds a pet by splitting every line until column 0 matches */
+    @Benchmark
+    public int findByIdSplit() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.split(",")[0].equals(lastPetId)) {
+                    return row;
+                }
+                row++;
+            }
+        }
+        return -1;
+    }
+
+    /** Finds a pet by comparing the bytes of column 0 only */
+    @Benchmark
+    public int findByIdMapped() throws IOException {
+        return MappedCsv.open(Path.of(path)).findRow(0, lastPetId);
+    }
+
+    /** DataManager.readCSV with its default reader and without the row cache */
+    @Benchmark
+    public List<String[]> readCSVBuffered() {
+        DataManager.setMappedReader(false);
+        return manager.readCSV();
+    }
+
+    /** DataManager.readCSV with the mapped reader and without the row cache */
+    @Benchmark
+    public List<String[]> readCSVMapped() {
+        DataManager.setMappedReader(true);
+        return manager.readCSV();
+    }
+}
@@ -0,0 +1,95 @@
+package Implementation.Benchmarks;
+
+import Implementation.DataManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole-file reads and writes and single-cell updates of a CSV table, from a save with
+ * a handful of pets up to a million rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class DataManagerBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private DataManager cached;
+    private DataManager uncached;
+    private DataManager writeBehind;
+    private List<String[]> snapshot;
+    private int cell;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        String path = data.writePets(rows);
+        cached = new DataManager(path);
+        uncached = new DataManager(path);
+        uncached.setCacheEnabled(false);
+        writeBehind = new DataManager(path);
+        writeBehind.setWriteBehind(true);
+        snapshot = cached.readCSV();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writeBehind.flush();
+        DataManager.flushAll();
+        data.delete();
+    }
+
+    /** Parses the file from disk on every call */
+    @Benchmark
+    public List<String[]> readCSVFromDisk() {
+        return uncached.readCSV();
+    }
+
+    /** Copies the rows out of the shared cache */
+    @Benchmark
+    public List<String[]> readCSVCached() {
+        return cached.readCSV();
+    }
+
+    @Benchmark
+    public void writeCSV() {
+        cached.writeCSV(snapshot);
+    }
+
+    /** Changes one cell, which rewrites the file */
+    @Benchmark
+    public void setData() {
+        cached.setData(nextRow(), 4, Integer.toString(cell % 100));
+    }
+
+    /** Changes one cell with writes deferred to the next flush, as the pet window does */
+    @Benchmark
+    public void setDataWriteBehind() {
+        writeBehind.setData(nextRow(), 4, Integer.toString(cell % 100));
+    }
+
+    private int nextRow() {
+        cell = (cell + 7919) % rows;
+        return cell;
+    }
+}
@@ -0,0 +1,61 @@
+package Implementation.Benchmarks;
+
+import Implementation.PlayerInventory.InventoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding items to a player's inventory and saving it, in an inventory file shared
+ * with other players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class InventoryBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private InventoryManager manager;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        manager = new InventoryManager("U0", data.writeInventory(rows), "P0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.delete();
+    }
+
+    /** Adds one of the items the player already holds, which increases its quantity */
+    @Benchmark
+    public boolean addItem() {
+        next = (next + 1) % 9;
+        return manager.addItem(Integer.toString(next), "Item" + next, 1, BenchmarkData.CATEGORIES[next % 3]);
+    }
+
+    @Benchmark
+    public void saveInventory() {
+        manager.saveInventory();
+    }
+}
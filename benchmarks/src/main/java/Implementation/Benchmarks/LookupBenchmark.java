@@ -0,0 +1,116 @@
+package Implementation.Benchmarks;
+
+import Implementation.GameProgress;
+import Implementation.Inventory;
+import Implementation.ParentalControls;
+import Implementation.Players;
+import Implementation.Store;
+import Implementation.Transactions;
+import Implementation.VirtualPets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding a row by its key in each table, through the getter the game uses.
+ * Keys are spread over the whole table so that a linear scan would show.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class LookupBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private VirtualPets pets;
+    private Players players;
+    private Inventory inventory;
+    private GameProgress progress;
+    private ParentalControls controls;
+    private Transactions transactions;
+    private Store store;
+    private String[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        pets = new VirtualPets(data.writePets(rows));
+        players = new Players(data.writePlayers(rows));
+        inventory = new Inventory(data.writeInventory(rows));
+        progress = new GameProgress(data.writeProgress(rows));
+        controls = new ParentalControls(data.writePlaytime(rows));
+        transactions = new Transactions(data.writeTransactions(rows));
+        store = new Store(data.writeStore(rows));
+
+        // The same 1024 row numbers for every table, spread evenly
+        keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Integer.toString((int) ((long) i * 7919 % rows));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.delete();
+    }
+
+    private String nextKey() {
+        next = (next + 1) & (keys.length - 1);
+        return keys[next];
+    }
+
+    @Benchmark
+    public String pets() {
+        return pets.getPetName("P" + nextKey());
+    }
+
+    @Benchmark
+    public String players() {
+        return players.getUsername("U" + nextKey());
+    }
+
+    @Benchmark
+    public int inventory() {
+        int row = Integer.parseInt(nextKey());
+        return inventory.getQuantity("U" + row / 9, Integer.toString(row % 9));
+    }
+
+    @Benchmark
+    public int progress() {
+        return progress.getLevel("U" + nextKey());
+    }
+
+    @Benchmark
+    public int parentalControls() {
+        return controls.findRow("U" + nextKey());
+    }
+
+    @Benchmark
+    public int transactions() {
+        return transactions.getAmount("T" + nextKey());
+    }
+
+    @Benchmark
+    public String store() {
+        int row = Integer.parseInt(nextKey());
+        return store.getPrice("U" + row / 9, Integer.toString(row % 9));
+    }
+}
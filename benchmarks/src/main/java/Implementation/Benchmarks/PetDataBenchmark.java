@@ -0,0 +1,70 @@
+package Implementation.Benchmarks;
+
+import Implementation.DataManager;
+import Implementation.VirtualPets;
+import Implementation.VitalStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving the vital stats of a pet, the persistence work of each game tick.
+ * Saves use write-behind, as the pet window does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class PetDataBenchmark {
+    @Param({"100", "10000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private VirtualPets pets;
+    private VitalStats stats;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.silenceGameLogging();
+        data = BenchmarkData.create();
+        pets = new VirtualPets(data.writePets(rows));
+        pets.setWriteBehind(true);
+        stats = new VitalStats(90, 80, 70, 60, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataManager.flushAll();
+        data.delete();
+    }
+
+    private String nextPet() {
+        next = (next + 7919) % rows;
+        return "P" + next;
+    }
+
+    @Benchmark
+    public VitalStats getVitalStats() {
+        return pets.getVitalStats(nextPet());
+    }
+
+    @Benchmark
+    public void updateVitalStats() {
+        pets.updateVitalStats(nextPet(), stats);
+    }
+}
@@ -0,0 +1,73 @@
+package Implementation.Benchmarks;
+
+import Implementation.OfflineDecay;
+import Implementation.PetBatchEngine;
+import Implementation.VitalStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pet simulation: one tick of a single pet, one tick of every pet in a save with the
+ * batch engine, and catching up a month away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true"})
+public class SimulationBenchmark {
+    /** Ticks in thirty days */
+    private static final long MONTH_TICKS = OfflineDecay.ticksFor(TimeUnit.DAYS.toMillis(30));
+
+    @Param({"100", "10000", "1000000"})
+    public int pets;
+
+    private VitalStats stats;
+    private PetBatchEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        stats = new VitalStats(100, 100, 100, 100, 0);
+        Random random = new Random(1);
+        engine = new PetBatchEngine(pets);
+        for (int i = 0; i < pets; i++) {
+            // Full health so the pets stay alive through the iteration
+            engine.add(100, random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(3));
+        }
+    }
+
+    /** One tick of one pet, kept alive so every call does the full update */
+    @Benchmark
+    public VitalStats updateStats() {
+        stats.setHealth(100);
+        stats.updateStats();
+        return stats;
+    }
+
+    @Benchmark
+    public PetBatchEngine batchTick() {
+        engine.tick();
+        return engine;
+    }
+
+    @Benchmark
+    public VitalStats catchUpMonth() {
+        VitalStats pet = new VitalStats(100, 100, 100, 100, 2);
+        OfflineDecay.advance(pet, MONTH_TICKS);
+        return pet;
+    }
+}